@@ -0,0 +1,71 @@
+package com.senai.conta_bancaria.application.dto;
+
+import com.senai.conta_bancaria.domain.entity.Cliente;
+import com.senai.conta_bancaria.domain.entity.Conta;
+import com.senai.conta_bancaria.domain.entity.ContaCorrente;
+import com.senai.conta_bancaria.domain.entity.ContaPoupanca;
+import com.senai.conta_bancaria.domain.valueobject.Dinheiro;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ClienteResponseDTOBenchmark {
+
+    @Param({"2", "100", "1000"})
+    private int quantidadeContas;
+
+    private Cliente cliente;
+
+    @Setup
+    public void preparar() {
+        List<Conta> contas = new ArrayList<>(quantidadeContas);
+        for (int i = 0; i < quantidadeContas; i++) {
+            Conta conta = i % 2 == 0
+                    ? ContaCorrente.builder()
+                        .limite(Dinheiro.deCentavos(50_000))
+                        .taxa(new BigDecimal("0.05"))
+                        .build()
+                    : ContaPoupanca.builder()
+                        .rendimento(new BigDecimal("0.01"))
+                        .build();
+            conta.setId("id-" + i);
+            conta.setNumero(String.format("%08d", i));
+            conta.setSaldo(Dinheiro.deCentavos(100_000L + i));
+            conta.setAtiva(true);
+            contas.add(conta);
+        }
+
+        cliente = Cliente.builder()
+                .id("cliente-1")
+                .nome("Maria da Silva")
+                .cpf("12345678901")
+                .email("maria@exemplo.com")
+                .senha("Senha@123")
+                .contas(contas)
+                .build();
+    }
+
+    @Benchmark
+    public ClienteResponseDTO fromEntity() {
+        return ClienteResponseDTO.fromEntity(cliente);
+    }
+}
@@ -0,0 +1,87 @@
+package com.senai.conta_bancaria.domain.entity;
+
+import com.senai.conta_bancaria.domain.valueobject.Dinheiro;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Operações de domínio da conta, sem banco. Saldos iniciais grandes o bastante
+ * para nenhuma iteração esbarrar em saldo insuficiente.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ContaBenchmark {
+
+    private static final Dinheiro SALDO_INICIAL = Dinheiro.deCentavos(1_000_000_000_000_000L);
+    private static final Dinheiro VALOR = Dinheiro.de(new BigDecimal("12.34"));
+
+    private ContaCorrente origem;
+    private ContaCorrente destino;
+    private ContaPoupanca poupanca;
+    private boolean ida;
+
+    @Setup
+    public void preparar() {
+        origem = corrente("1000-1");
+        destino = corrente("1000-2");
+        poupanca = ContaPoupanca.builder()
+                .id("id-poupanca")
+                .numero("2000-1")
+                .saldo(SALDO_INICIAL)
+                .rendimento(new BigDecimal("0.01"))
+                .ativa(true)
+                .build();
+    }
+
+    @Benchmark
+    public Dinheiro transferir() {
+        // Alterna o sentido para os saldos não derivarem
+        ida = !ida;
+        if (ida) {
+            origem.transferir(VALOR, destino);
+        } else {
+            destino.transferir(VALOR, origem);
+        }
+        return origem.getSaldo();
+    }
+
+    @Benchmark
+    public Dinheiro sacarCorrente() {
+        origem.sacar(VALOR);
+        return origem.getSaldo();
+    }
+
+    @Benchmark
+    public Dinheiro aplicarRendimento() {
+        // Sem reiniciar, o saldo cresceria 1% por chamada até estourar
+        poupanca.setSaldo(SALDO_INICIAL);
+        poupanca.aplicarRendimento();
+        return poupanca.getSaldo();
+    }
+
+    private static ContaCorrente corrente(String numero) {
+        return ContaCorrente.builder()
+                .id("id-" + numero)
+                .numero(numero)
+                .saldo(SALDO_INICIAL)
+                .limite(Dinheiro.deCentavos(50_000))
+                .taxa(new BigDecimal("0.05"))
+                .ativa(true)
+                .build();
+    }
+}
@@ -0,0 +1,111 @@
+package com.senai.conta_bancaria.domain.repository;
+
+import com.senai.conta_bancaria.ContaBancariaApplication;
+import com.senai.conta_bancaria.application.dto.ContaResumoDTO;
+import com.senai.conta_bancaria.domain.entity.Conta;
+import com.senai.conta_bancaria.domain.entity.ContaCorrente;
+import com.senai.conta_bancaria.domain.valueobject.Dinheiro;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Leituras de conta por entidade gerenciada contra projeção. Com {@code -prof gc},
+ * {@code gc.alloc.rate.norm} é o heap alocado por requisição.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ContaRepositoryLeituraBenchmark {
+
+    private static final int CONTAS = 500;
+    private static final int TAMANHO_PAGINA = 50;
+    private static final String NUMERO = "LEI-0000250";
+
+    private ConfigurableApplicationContext contexto;
+    private ContaRepository repository;
+    private TransactionTemplate leitura;
+
+    @Setup
+    public void preparar() {
+        contexto = new SpringApplicationBuilder(ContaBancariaApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .run();
+        repository = contexto.getBean(ContaRepository.class);
+        leitura = new TransactionTemplate(contexto.getBean(PlatformTransactionManager.class));
+        leitura.setReadOnly(true);
+
+        List<Conta> contas = new ArrayList<>(CONTAS);
+        for (int i = 0; i < CONTAS; i++) {
+            contas.add(ContaCorrente.builder()
+                    .numero(String.format("LEI-%07d", i))
+                    .saldo(Dinheiro.deCentavos(i * 100L))
+                    .limite(Dinheiro.ZERO)
+                    .taxa(BigDecimal.ZERO)
+                    .ativa(true)
+                    .build());
+        }
+        repository.saveAll(contas);
+    }
+
+    @TearDown
+    public void encerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public ContaResumoDTO buscarPorEntidade() {
+        return leitura.execute(status -> repository.findByNumeroAndAtivaTrue(NUMERO)
+                .map(ContaResumoDTO::fromEntity)
+                .orElseThrow());
+    }
+
+    @Benchmark
+    public ContaResumoDTO buscarPorProjecao() {
+        return leitura.execute(status -> repository.buscarLeituraAtiva(NUMERO)
+                .map(conta -> new ContaResumoDTO(conta.getNumero(), conta.getTipoConta(), conta.getSaldo().toBigDecimal()))
+                .orElseThrow());
+    }
+
+    @Benchmark
+    public List<ContaResumoDTO> listarPorEntidade() {
+        return leitura.execute(status -> repository.findBy(ContaSpecifications.ativa(), consulta -> consulta
+                        .sortBy(Sort.by("numero"))
+                        .limit(TAMANHO_PAGINA)
+                        .all())
+                .stream()
+                .map(ContaResumoDTO::fromEntity)
+                .toList());
+    }
+
+    @Benchmark
+    public List<ContaResumoDTO> listarPorProjecao() {
+        return leitura.execute(status -> repository.listarResumos(ContaSpecifications.ativa(), TAMANHO_PAGINA)
+                .stream()
+                .map(ContaResumoDTO::fromResumo)
+                .toList());
+    }
+}
@@ -0,0 +1,73 @@
+package com.senai.conta_bancaria.infrastructure.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.security.Key;
+import java.time.Duration;
+import java.util.Date;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo por requisição do filtro JWT: o mesmo token é validado a cada chamada autenticada.
+ * {@code tresVerificacoes} reproduz o filtro antigo (um parser novo e um HMAC por chamada,
+ * três vezes); os outros são o caminho atual, sem e com o cache de tokens verificados.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtServiceBenchmark {
+
+    private static final String SEGREDO = "segredo-de-benchmark-com-pelo-menos-32-bytes-para-hs256";
+
+    private JwtService jwtService;
+    private Key chave;
+    private String token;
+
+    @Setup
+    public void preparar() {
+        jwtService = new JwtService(SEGREDO, 3600, 604800, 10_000, Duration.ofMinutes(5), new SimpleMeterRegistry());
+        chave = Keys.hmacShaKeyFor(SEGREDO.getBytes());
+        token = jwtService.generateAccessToken("maria@exemplo.com", "CLIENTE", 0L);
+    }
+
+    @Benchmark
+    public boolean tresVerificacoes() {
+        String email = claims().getSubject();
+        return email.equals(claims().getSubject()) && !claims().getExpiration().before(new Date());
+    }
+
+    @Benchmark
+    public Optional<JwtService.TokenVerificado> verificarSemCache() {
+        return jwtService.verificarAssinatura(token);
+    }
+
+    @Benchmark
+    public Optional<JwtService.TokenVerificado> verificarComCache() {
+        return jwtService.verificar(token);
+    }
+
+    private Claims claims() {
+        return Jwts.parserBuilder()
+                .setSigningKey(chave)
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+}
@@ -0,0 +1,23 @@
+package com.senai.conta_bancaria.application.dto;
+
+import com.senai.conta_bancaria.domain.repository.ContaRepository;
+
+import java.math.BigDecimal;
+
+public record ContaExportacaoDTO(
+        String numero,
+        String tipo,
+        String cpfCliente,
+        BigDecimal saldo,
+        boolean ativa
+) {
+    public static ContaExportacaoDTO fromExportacao(ContaRepository.ContaExportacao conta) {
+        return new ContaExportacaoDTO(
+                conta.getNumero(),
+                conta.getTipoConta(),
+                conta.getCpfCliente(),
+                conta.getSaldo().toBigDecimal().add(conta.getSaldoSubSaldos()),
+                conta.isAtiva()
+        );
+    }
+}
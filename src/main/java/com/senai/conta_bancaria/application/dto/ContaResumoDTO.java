@@ -5,6 +5,8 @@ import com.senai.conta_bancaria.domain.entity.Conta;
 import com.senai.conta_bancaria.domain.entity.ContaCorrente;
 import com.senai.conta_bancaria.domain.entity.ContaPoupanca;
 import com.senai.conta_bancaria.domain.exception.TipoDeContaInvalidaException;
+import com.senai.conta_bancaria.domain.repository.ContaRepositoryCustom;
+import com.senai.conta_bancaria.domain.valueobject.Dinheiro;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -27,16 +29,16 @@ public record ContaResumoDTO(
            return ContaCorrente.builder()
                    .cliente(cliente)
                    .numero(this.numero)
-                   .saldo(this.saldo)
+                   .saldo(Dinheiro.de(this.saldo))
                    .taxa(new BigDecimal("0.05"))
-                   .limite(new BigDecimal("500.00"))
+                   .limite(Dinheiro.deCentavos(50_000))
                    .ativa(true)
                    .build();
         } else if ("POUPANCA".equalsIgnoreCase(this.tipo)) {
             return ContaPoupanca.builder()
                     .cliente(cliente)
                     .numero(this.numero)
-                    .saldo(this.saldo)
+                    .saldo(Dinheiro.de(this.saldo))
                     .rendimento(new BigDecimal("0.01"))
                     .ativa(true)
                     .build();
@@ -44,11 +46,19 @@ public record ContaResumoDTO(
         throw new TipoDeContaInvalidaException(tipo);
     }
 
+    public static ContaResumoDTO fromResumo(ContaRepositoryCustom.ResumoConta conta) {
+        return new ContaResumoDTO(
+                conta.numero(),
+                conta.tipoConta(),
+                conta.saldoTotal().toBigDecimal()
+        );
+    }
+
     public static ContaResumoDTO fromEntity(Conta conta) {
         return new ContaResumoDTO(
                 conta.getNumero(),
                 conta.getTipo(),
-                conta.getSaldo()
+                conta.getSaldo().toBigDecimal()
         );
     }
 }
@@ -0,0 +1,18 @@
+package com.senai.conta_bancaria.application.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+import java.math.BigDecimal;
+
+public record ItemTransferenciaLoteDTO(
+        @NotBlank(message = "Conta de origem é obrigatória")
+        String contaOrigem,
+
+        @NotBlank(message = "Conta de destino é obrigatória")
+        String contaDestino,
+
+        @NotNull(message = "Valor é obrigatório")
+        BigDecimal valor
+) {
+}
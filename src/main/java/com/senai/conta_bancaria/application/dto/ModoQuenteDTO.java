@@ -0,0 +1,13 @@
+package com.senai.conta_bancaria.application.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+public record ModoQuenteDTO(
+        @NotNull(message = "A quantidade de sub-saldos é obrigatória")
+        @Min(value = 0, message = "Use 0 para desligar o modo quente")
+        @Max(value = 256, message = "A quantidade de sub-saldos deve ser no máximo 256")
+        Integer subSaldos
+) {
+}
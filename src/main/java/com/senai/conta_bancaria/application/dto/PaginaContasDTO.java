@@ -0,0 +1,10 @@
+package com.senai.conta_bancaria.application.dto;
+
+import java.util.List;
+
+public record PaginaContasDTO(
+        List<ContaResumoDTO> contas,
+        // null na última página
+        String proximoCursor
+) {
+}
@@ -0,0 +1,23 @@
+package com.senai.conta_bancaria.application.dto;
+
+import java.util.List;
+
+public record ResultadoTransferenciaLoteDTO(
+        int total,
+        int sucessos,
+        int falhas,
+        List<Item> itens
+) {
+    public record Item(
+            int indice,
+            String contaOrigem,
+            String contaDestino,
+            boolean sucesso,
+            String mensagem
+    ) {}
+
+    public static ResultadoTransferenciaLoteDTO of(List<Item> itens) {
+        int sucessos = (int) itens.stream().filter(Item::sucesso).count();
+        return new ResultadoTransferenciaLoteDTO(itens.size(), sucessos, itens.size() - sucessos, itens);
+    }
+}
@@ -0,0 +1,13 @@
+package com.senai.conta_bancaria.application.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public record ResumoSaldoClienteDTO(
+        String cpf,
+        BigDecimal saldoTotal,
+        int quantidadeCorrente,
+        int quantidadePoupanca,
+        LocalDateTime ultimaMovimentacao
+) {
+}
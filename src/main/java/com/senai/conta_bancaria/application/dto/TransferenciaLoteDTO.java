@@ -0,0 +1,14 @@
+package com.senai.conta_bancaria.application.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record TransferenciaLoteDTO(
+        @NotEmpty(message = "O lote deve ter ao menos uma transferência")
+        @Size(max = 1000, message = "O lote deve ter no máximo 1000 transferências")
+        List<@Valid ItemTransferenciaLoteDTO> transferencias
+) {
+}
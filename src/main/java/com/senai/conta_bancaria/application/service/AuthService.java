@@ -4,13 +4,16 @@ import com.senai.conta_bancaria.application.dto.AuthDTO;
 import com.senai.conta_bancaria.domain.entity.Usuario;
 import com.senai.conta_bancaria.domain.exception.UsuarioNaoEncontradoException;
 import com.senai.conta_bancaria.domain.repository.UsuarioRepository;
+import com.senai.conta_bancaria.infrastructure.concurrency.ExecutorHashSenha;
 import com.senai.conta_bancaria.infrastructure.security.JwtService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 @RequiredArgsConstructor
@@ -19,17 +22,36 @@ public class AuthService {
     private final UsuarioRepository usuarios;
     private final PasswordEncoder encoder;
     private final JwtService jwt;
+    private final ExecutorHashSenha hashSenha;
+    private final RefreshTokenService refreshTokens;
 
-    public Map<String, String> login(AuthDTO.LoginRequest req) {
+    /**
+     * A busca do usuário roda na thread da requisição; a comparação da senha (e o novo hash,
+     * quando o gravado usa custo menor que o atual) roda no {@link ExecutorHashSenha}.
+     */
+    public CompletableFuture<Map<String, String>> login(AuthDTO.LoginRequest req) {
         Usuario usuario = usuarios.findByEmail(req.email())
                 .orElseThrow(() ->  new UsuarioNaoEncontradoException("Usuário não encontrado"));
 
-        if (!encoder.matches(req.senha(), usuario.getSenha())) {
+        return hashSenha.executar(() -> autenticar(usuario, req.senha()));
+    }
+
+    private Map<String, String> autenticar(Usuario usuario, String senha) {
+        if (!Boolean.TRUE.equals(usuario.getAtivo()) || !encoder.matches(senha, usuario.getSenha())) {
             throw new BadCredentialsException("Credenciais inválidas");
         }
 
-        String accessToken = jwt.generateAccessToken(usuario.getEmail(), usuario.getRole().name());
-        String refreshToken = jwt.generateRefreshToken(usuario.getEmail());
+        if (encoder.upgradeEncoding(usuario.getSenha())) {
+            usuario.setSenha(encoder.encode(senha));
+            try {
+                usuario = usuarios.save(usuario);
+            } catch (OptimisticLockingFailureException e) {
+                // O usuário mudou no meio do login; o próximo login refaz o hash
+            }
+        }
+
+        String accessToken = jwt.generateAccessToken(usuario.getEmail(), usuario.getRole().name(), usuario.getVersao());
+        String refreshToken = refreshTokens.emitir(usuario);
 
         return Map.of(
                 "accessToken", accessToken,
@@ -37,16 +59,8 @@ public class AuthService {
         );
     }
 
+    // Papel e versão vêm do próprio token; o usuário alterado ou desativado já teve a família revogada
     public Map<String, String> refresh(String refreshToken) {
-        if (!jwt.isValid(refreshToken)) {
-            throw new BadCredentialsException("Refresh token inválido ou expirado");
-        }
-
-        String email = jwt.extractEmail(refreshToken);
-        Usuario usuario = usuarios.findByEmail(email)
-                .orElseThrow(() -> new UsuarioNaoEncontradoException("Usuário não encontrado"));
-
-        String newAccess = jwt.generateAccessToken(usuario.getEmail(), usuario.getRole().name());
-        return Map.of("accessToken", newAccess);
+        return refreshTokens.rotacionar(refreshToken);
     }
-}
\ No newline at end of file
+}
@@ -4,15 +4,21 @@ import com.senai.conta_bancaria.application.dto.ClienteAtualizadoDTO;
 import com.senai.conta_bancaria.application.dto.ClienteRegistroDTO;
 import com.senai.conta_bancaria.application.dto.ClienteResponseDTO;
 import com.senai.conta_bancaria.domain.entity.Cliente;
+import com.senai.conta_bancaria.domain.entity.Conta;
 import com.senai.conta_bancaria.domain.enums.Role;
+import com.senai.conta_bancaria.domain.event.UsuarioAlteradoEvent;
 import com.senai.conta_bancaria.domain.exception.ContaDoMesmoTipoException;
 import com.senai.conta_bancaria.domain.exception.EntidadeNaoEncontradaException;
 import com.senai.conta_bancaria.domain.repository.ClienteRepository;
+import com.senai.conta_bancaria.domain.repository.ContaRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
 
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 @Service
@@ -20,7 +26,11 @@ import java.util.List;
 public class ClienteService {
 
     private final ClienteRepository clienteRepository;
+    private final ContaRepository contaRepository;
     private final PasswordEncoder passwordEncoder;
+    private final ContaCacheService contaCache;
+    private final ResumoSaldoClienteService resumoSaldos;
+    private final ApplicationEventPublisher eventos;
 
     @PreAuthorize("hasRole('ADMIN', 'GERENTE')")
     public ClienteResponseDTO registrarCliente(ClienteRegistroDTO dto) {
@@ -45,7 +55,10 @@ public class ClienteService {
         cliente.setSenha(passwordEncoder.encode(dto.senha()));
         cliente.setRole(Role.CLIENTE);
 
-        return ClienteResponseDTO.fromEntity(clienteRepository.save(cliente));
+        var salvo = clienteRepository.save(cliente);
+        resumoSaldos.recalcular(salvo.getId());
+        eventos.publishEvent(UsuarioAlteradoEvent.de(salvo));
+        return ClienteResponseDTO.fromEntity(salvo);
     }
 
     @PreAuthorize("hasRole('ADMIN', 'GERENTE')")
@@ -67,13 +80,19 @@ public class ClienteService {
     @PreAuthorize("hasRole('ADMIN', 'GERENTE')")
     public ClienteResponseDTO atualizarCliente(String cpf, ClienteAtualizadoDTO dto) {
         var cliente = buscarClientePorCpfEAtivo(cpf);
+        String emailAnterior = cliente.getEmail();
 
         cliente.setNome(dto.nome());
         cliente.setCpf(dto.cpf());
         cliente.setEmail(dto.email());
         cliente.setSenha(dto.senha());
 
-        return ClienteResponseDTO.fromEntity(clienteRepository.save(cliente));
+        var salvo = clienteRepository.save(cliente);
+        if (!emailAnterior.equals(salvo.getEmail())) {
+            eventos.publishEvent(UsuarioAlteradoEvent.emailSubstituido(emailAnterior));
+        }
+        eventos.publishEvent(UsuarioAlteradoEvent.de(salvo));
+        return ClienteResponseDTO.fromEntity(salvo);
     }
 
     @PreAuthorize("hasRole('ADMIN', 'GERENTE')")
@@ -85,7 +104,27 @@ public class ClienteService {
                 conta -> conta.setAtiva(false)
         );
 
-        clienteRepository.save(cliente);
+        eventos.publishEvent(UsuarioAlteradoEvent.de(clienteRepository.save(cliente)));
+        resumoSaldos.recalcular(cliente.getId());
+        contaCache.invalidar(cliente.getContas().stream().map(Conta::getNumero).toList());
+    }
+
+    /**
+     * Versão do cliente e de todas as suas contas, para o ETag de {@code GET /api/cliente/cpf/{cpf}}.
+     * Lida só das colunas de versão, sem carregar cliente nem contas.
+     */
+    @PreAuthorize("hasRole('GERENTE')")
+    public String versaoDoCliente(String cpf) {
+        Long versaoCliente = clienteRepository.buscarVersaoAtiva(cpf)
+                .orElseThrow(() -> new EntidadeNaoEncontradaException("cliente"));
+
+        StringBuilder estado = new StringBuilder().append(versaoCliente);
+        for (ContaRepository.VersaoConta conta : contaRepository.listarVersoesPorCpfCliente(cpf)) {
+            estado.append('|').append(conta.getNumero())
+                    .append(':').append(conta.getVersao())
+                    .append('.').append(conta.getVersaoSubSaldos());
+        }
+        return DigestUtils.md5DigestAsHex(estado.toString().getBytes(StandardCharsets.UTF_8));
     }
 
     private Cliente buscarClientePorCpfEAtivo(String cpf) {
@@ -0,0 +1,120 @@
+package com.senai.conta_bancaria.application.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.senai.conta_bancaria.domain.exception.EntidadeNaoEncontradaException;
+import com.senai.conta_bancaria.domain.repository.ContaRepository;
+import com.senai.conta_bancaria.domain.valueobject.Dinheiro;
+import com.senai.conta_bancaria.infrastructure.persistence.MonitorAtrasoReplica;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Cache das contas ativas por número, para as leituras não irem ao banco só para achar a conta.
+ * Quem altera uma conta chama {@link #invalidar}; a remoção acontece depois do commit,
+ * e a expiração limita o tempo de uma entrada desatualizada vinda de outra instância.
+ * Com réplica de leitura configurada, a carga é feita no primário mesmo dentro de transação
+ * {@code readOnly}: um valor atrasado da réplica ficaria no cache até expirar.
+ * Métricas de acerto/erro em {@code cache.gets{cache=contas}}.
+ */
+@Service
+public class ContaCacheService {
+
+    private final ContaRepository repository;
+    private final Cache<String, ContaEmCache> contas;
+    private final TransactionTemplate noPrimario;
+
+    public ContaCacheService(ContaRepository repository,
+                             MeterRegistry metricas,
+                             PlatformTransactionManager transactionManager,
+                             ObjectProvider<MonitorAtrasoReplica> replica,
+                             @Value("${conta.cache.tamanho-maximo:100000}") long tamanhoMaximo,
+                             @Value("${conta.cache.expiracao:5m}") Duration expiracao) {
+        this.repository = repository;
+        this.contas = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfterWrite(expiracao)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(metricas, contas, "contas");
+
+        // Transação de escrita própria: o roteamento só manda para a réplica transações readOnly
+        if (replica.getIfAvailable() != null) {
+            this.noPrimario = new TransactionTemplate(transactionManager);
+            this.noPrimario.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        } else {
+            this.noPrimario = null;
+        }
+    }
+
+    public record ContaEmCache(String id, String numero, String tipo, String clienteId, Dinheiro saldo,
+                               long sequenciaLancamento, int quantidadeSubSaldos) {
+
+        static ContaEmCache de(ContaRepository.ContaLeitura conta) {
+            return new ContaEmCache(
+                    conta.getId(),
+                    conta.getNumero(),
+                    conta.getTipoConta(),
+                    conta.getClienteId(),
+                    conta.getSaldo(),
+                    conta.getSequenciaLancamento(),
+                    conta.getQuantidadeSubSaldos()
+            );
+        }
+    }
+
+    public ContaEmCache buscarAtiva(String numeroConta) {
+        // Conta inexistente não entra no cache: uma conta recém-criada aparece na hora
+        ContaEmCache conta = contas.get(numeroConta, this::carregar);
+
+        if (conta == null) {
+            throw new EntidadeNaoEncontradaException("conta");
+        }
+        return conta;
+    }
+
+    private ContaEmCache carregar(String numeroConta) {
+        if (noPrimario != null && TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return noPrimario.execute(status -> ler(numeroConta));
+        }
+        return ler(numeroConta);
+    }
+
+    private ContaEmCache ler(String numeroConta) {
+        return repository.buscarLeituraAtiva(numeroConta)
+                .map(ContaEmCache::de)
+                .orElse(null);
+    }
+
+    public void invalidar(String... numerosConta) {
+        invalidar(Arrays.asList(numerosConta));
+    }
+
+    public void invalidar(Collection<String> numerosConta) {
+        List<String> numeros = List.copyOf(numerosConta);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    contas.invalidateAll(numeros);
+                }
+            });
+        }
+        // Também agora, para a própria transação não ler a versão antiga
+        contas.invalidateAll(numeros);
+    }
+}
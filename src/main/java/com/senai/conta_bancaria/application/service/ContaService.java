@@ -1,113 +1,546 @@
 package com.senai.conta_bancaria.application.service;
 
 import com.senai.conta_bancaria.application.dto.*;
+import com.senai.conta_bancaria.application.service.motor.MotorSaldos;
 import com.senai.conta_bancaria.domain.entity.Conta;
 import com.senai.conta_bancaria.domain.entity.ContaCorrente;
 import com.senai.conta_bancaria.domain.entity.ContaPoupanca;
+import com.senai.conta_bancaria.domain.enums.TipoLancamento;
+import com.senai.conta_bancaria.domain.exception.CursorInvalidoException;
 import com.senai.conta_bancaria.domain.exception.EntidadeNaoEncontradaException;
 import com.senai.conta_bancaria.domain.exception.RendimentoInvalidoException;
+import com.senai.conta_bancaria.domain.exception.SaldoInsuficienteException;
 import com.senai.conta_bancaria.domain.exception.TipoDeContaInvalidaException;
+import com.senai.conta_bancaria.domain.exception.TransferirParaMesmaContaException;
+import com.senai.conta_bancaria.domain.exception.ValoresNegativosException;
 import com.senai.conta_bancaria.domain.repository.ClienteRepository;
 import com.senai.conta_bancaria.domain.repository.ContaRepository;
+import com.senai.conta_bancaria.domain.repository.ContaRepositoryCustom;
+import com.senai.conta_bancaria.domain.repository.ContaSpecifications;
+import com.senai.conta_bancaria.domain.valueobject.Dinheiro;
+import com.senai.conta_bancaria.infrastructure.concurrency.ExecutorRetentativa;
+import com.senai.conta_bancaria.infrastructure.concurrency.GerenciadorTravasConta;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Transactional
 public class ContaService {
     private final ContaRepository repository;
+    private final GerenciadorTravasConta travas;
+    private final ExecutorRetentativa retentativa;
+    private final TransactionTemplate transacao;
+    private final LivroRazaoService livroRazao;
+    private final SubSaldoService subSaldos;
+    private final ResumoSaldoClienteService resumoSaldos;
+    private final IdempotenciaService idempotencia;
+    private final ContaCacheService contaCache;
+    // Só existe com conta.motor.habilitado=true
+    private final ObjectProvider<MotorSaldos> motorSaldos;
 
+    // Em implantações com mais de uma instância as travas locais não bastam
+    @Value("${conta.travas.pessimista:false}")
+    private boolean travaPessimista;
+
+    // Limite de contas travadas de uma vez pelas transferências em lote
+    @Value("${conta.lote.contas-por-bloco:64}")
+    private int contasPorBloco;
+
+    @Value("${conta.listagem.tamanho-pagina:50}")
+    private int tamanhoPaginaPadrao;
+
+    @Value("${conta.listagem.tamanho-maximo:200}")
+    private int tamanhoPaginaMaximo;
+
+    private static final String SEPARADOR_CURSOR = "|";
+
+    /**
+     * Listagem por keyset: ordena pelo número e continua a partir do último número da página
+     * anterior, que vai codificado no cursor junto com os filtros.
+     */
     @PreAuthorize("hasRole('GERENTE')")
     @Transactional(readOnly = true)
-    public List<ContaResumoDTO> listarTodasContas() {
-        return repository
-                .findAllByAtivaTrue()
-                .stream()
-                .map(ContaResumoDTO::fromEntity)
+    public PaginaContasDTO listarTodasContas(String cursor, Integer tamanho, String tipo,
+                                            BigDecimal saldoMinimo, BigDecimal saldoMaximo) {
+        int tamanhoPagina = Math.min(tamanho == null ? tamanhoPaginaPadrao : Math.max(tamanho, 1), tamanhoPaginaMaximo);
+        String tipoConta = tipo == null ? null : tipo.toUpperCase(Locale.ROOT);
+        if (tipoConta != null && !tipoConta.equals("CORRENTE") && !tipoConta.equals("POUPANCA")) {
+            throw new TipoDeContaInvalidaException(tipo);
+        }
+        // Normalizados em centavos: 10, 10.0 e 10.00 são o mesmo filtro e o mesmo cursor.
+        // O mínimo arredonda para cima e o máximo para baixo, já que todo saldo é inteiro em centavos
+        Dinheiro minimo = saldoMinimo == null ? null : Dinheiro.de(saldoMinimo.setScale(2, RoundingMode.CEILING));
+        Dinheiro maximo = saldoMaximo == null ? null : Dinheiro.de(saldoMaximo.setScale(2, RoundingMode.FLOOR));
+        String filtros = String.join(SEPARADOR_CURSOR, Objects.toString(tipoConta, ""),
+                Objects.toString(minimo, ""), Objects.toString(maximo, ""));
+
+        Specification<Conta> filtro = ContaSpecifications.ativa();
+        if (cursor != null && !cursor.isBlank()) {
+            filtro = filtro.and(ContaSpecifications.numeroApos(lerCursor(cursor, filtros)));
+        }
+        if (tipoConta != null) {
+            filtro = filtro.and(ContaSpecifications.doTipo(tipoConta));
+        }
+        if (minimo != null) {
+            filtro = filtro.and(ContaSpecifications.saldoMinimo(minimo));
+        }
+        if (maximo != null) {
+            filtro = filtro.and(ContaSpecifications.saldoMaximo(maximo));
+        }
+
+        // Um registro a mais só para saber se existe próxima página
+        List<ContaRepositoryCustom.ResumoConta> contas = repository.listarResumos(filtro, tamanhoPagina + 1);
+
+        boolean temProxima = contas.size() > tamanhoPagina;
+        List<ContaRepositoryCustom.ResumoConta> lidas = contas.subList(0, Math.min(contas.size(), tamanhoPagina));
+        // Conta quente é filtrada pelo saldo total; a página pode vir menor que o tamanho pedido
+        List<ContaResumoDTO> pagina = lidas.stream()
+                .filter(conta -> minimo == null || !conta.saldoTotal().menorQue(minimo))
+                .filter(conta -> maximo == null || !conta.saldoTotal().maiorQue(maximo))
+                .map(ContaResumoDTO::fromResumo)
                 .toList();
+
+        // O cursor é a última conta lida, mesmo que ela tenha ficado de fora da página
+        String proximoCursor = temProxima
+                ? escreverCursor(filtros, lidas.get(lidas.size() - 1).numero())
+                : null;
+        return new PaginaContasDTO(pagina, proximoCursor);
     }
 
     @PreAuthorize("hasRole('GERENTE', 'CLIENTE')")
     @Transactional(readOnly = true)
     public ContaResumoDTO buscarContaPorNumero(String numero) {
-        return ContaResumoDTO.fromEntity(
-                buscarContaAtivaPorNumero(numero)
+        ContaCacheService.ContaEmCache conta = contaCache.buscarAtiva(numero);
+
+        return new ContaResumoDTO(
+                conta.numero(),
+                conta.tipo(),
+                livroRazao.saldoAtual(conta.id(), conta.sequenciaLancamento(), conta.saldo())
+                        .add(subSaldos.saldoPendente(conta.id(), conta.quantidadeSubSaldos()))
         );
     }
 
+    /**
+     * Versão da conta para o ETag de {@code GET /api/conta/{numero}}, lida sem carregar a entidade.
+     * Muda a cada alteração da conta, inclusive créditos em sub-saldos de conta quente.
+     */
+    @PreAuthorize("hasRole('GERENTE')")
+    @Transactional(readOnly = true)
+    public String versaoDaConta(String numero) {
+        return repository.buscarVersaoAtiva(numero)
+                .map(versao -> versao.getVersao() + "." + versao.getVersaoSubSaldos())
+                .orElseThrow(() -> new EntidadeNaoEncontradaException("conta"));
+    }
+
     @PreAuthorize("hasRole('GERENTE')")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public ContaResumoDTO atualizarConta(String numeroConta, ContaAtualizacaoDTO dto) {
-        Conta conta = buscarContaAtivaPorNumero(numeroConta);
+        return exclusivo(numeroConta, "atualizarConta", () -> {
+            travas.travar(numeroConta);
+            contaCache.invalidar(numeroConta);
+            Conta conta = buscarContaParaAtualizacao(numeroConta);
+            subSaldos.consolidar(conta);
+            Dinheiro saldoAnterior = conta.getSaldo();
+            Dinheiro novoSaldo = Dinheiro.de(dto.saldo());
 
-        if (conta instanceof ContaPoupanca poupanca) {
-            poupanca.setRendimento(dto.rendimento());
-        } else if (conta instanceof ContaCorrente corrente) {
-            corrente.setLimite(dto.limite());
-            corrente.setTaxa(dto.taxa());
-        } else {
-            throw new TipoDeContaInvalidaException("");
-        }
+            if (conta instanceof ContaPoupanca poupanca) {
+                poupanca.setRendimento(dto.rendimento());
+            } else if (conta instanceof ContaCorrente corrente) {
+                corrente.setLimite(Dinheiro.de(dto.limite()));
+                corrente.setTaxa(dto.taxa());
+            } else {
+                throw new TipoDeContaInvalidaException("");
+            }
 
-        conta.setSaldo(dto.saldo());
+            conta.setSaldo(novoSaldo);
+            if (!saldoAnterior.equals(novoSaldo)) {
+                livroRazao.registrar(conta, saldoAnterior, TipoLancamento.AJUSTE);
+            }
 
-        return ContaResumoDTO.fromEntity(repository.save(conta));
+            return ContaResumoDTO.fromEntity(repository.save(conta));
+        });
     }
 
     @PreAuthorize("hasRole('GERENTE')")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void deletarConta(String numeroConta) {
-        Conta conta = buscarContaAtivaPorNumero(numeroConta);
+        exclusivo(numeroConta, "deletarConta", () -> {
+            contaCache.invalidar(numeroConta);
+            Conta conta = buscarContaAtivaPorNumero(numeroConta);
+
+            conta.setAtiva(false);
+            repository.saveAndFlush(conta);
+            if (conta.getCliente() != null) {
+                resumoSaldos.recalcular(conta.getCliente().getId());
+            }
+            return conta;
+        });
+    }
+
+    @PreAuthorize("hasRole('CLIENTE')")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ContaResumoDTO sacar(String numeroConta, ValorSaqueDepositoDTO dto, String chaveIdempotencia) {
+        var requisicao = idempotencia.requisicao(chaveIdempotencia, "sacar", numeroConta, dto.valor());
+        MotorSaldos motor = motorSaldos.getIfAvailable();
+        if (motor != null) {
+            return idempotencia.executar(requisicao,
+                    () -> motor.sacar(numeroConta, Dinheiro.de(dto.valor()), requisicao));
+        }
+
+        return idempotencia.executar(requisicao, () -> retentativa.executar("sacar", () -> {
+            contaCache.invalidar(numeroConta);
+            if (!subSaldos.isQuente(numeroConta)) {
+                Optional<ContaResumoDTO> debitada = debitarCorrente(numeroConta, Dinheiro.de(dto.valor()));
+                if (debitada.isPresent()) {
+                    return idempotencia.gravar(requisicao, debitada.get());
+                }
+            }
+
+            travas.travar(numeroConta);
+            Conta conta = buscarContaParaAtualizacao(numeroConta);
+            subSaldos.consolidar(conta);
+            Dinheiro saldoAnterior = conta.getSaldo();
 
-        conta.setAtiva(false);
-        repository.save(conta);
+            conta.sacar(Dinheiro.de(dto.valor()));
+            livroRazao.registrar(conta, saldoAnterior, TipoLancamento.SAQUE);
+            return idempotencia.gravar(requisicao, ContaResumoDTO.fromEntity(repository.save(conta)));
+        }));
     }
 
     @PreAuthorize("hasRole('CLIENTE')")
-    public ContaResumoDTO sacar(String numeroConta, ValorSaqueDepositoDTO dto) {
-        Conta conta = buscarContaAtivaPorNumero(numeroConta);
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ContaResumoDTO depositar(String numeroConta, ValorSaqueDepositoDTO dto, String chaveIdempotencia) {
+        var requisicao = idempotencia.requisicao(chaveIdempotencia, "depositar", numeroConta, dto.valor());
+        MotorSaldos motor = motorSaldos.getIfAvailable();
+        if (motor != null) {
+            return idempotencia.executar(requisicao,
+                    () -> motor.depositar(numeroConta, Dinheiro.de(dto.valor()), requisicao));
+        }
+
+        return idempotencia.executar(requisicao, () -> retentativa.executar("depositar", () -> {
+            contaCache.invalidar(numeroConta);
+            // Conta quente: crédito vai para um sub-saldo, sem travar a conta
+            if (subSaldos.isQuente(numeroConta)) {
+                Conta conta = buscarContaAtivaPorNumero(numeroConta);
+                if (conta.isContaQuente()) {
+                    return idempotencia.gravar(requisicao, subSaldos.depositar(conta, dto.valor()));
+                }
+            }
 
-        conta.sacar(dto.valor());
-        return ContaResumoDTO.fromEntity(repository.save(conta));
+            travas.travar(numeroConta);
+            Conta conta = buscarContaParaAtualizacao(numeroConta);
+            Dinheiro saldoAnterior = conta.getSaldo();
+
+            conta.depositar(Dinheiro.de(dto.valor()));
+            livroRazao.registrar(conta, saldoAnterior, TipoLancamento.DEPOSITO);
+            return idempotencia.gravar(requisicao, ContaResumoDTO.fromEntity(repository.save(conta)));
+        }));
     }
 
     @PreAuthorize("hasRole('CLIENTE')")
-    public ContaResumoDTO depositar(String numeroConta, ValorSaqueDepositoDTO dto) {
-        Conta conta = buscarContaAtivaPorNumero(numeroConta);
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ContaResumoDTO transferir(String numeroConta, TransferenciaDTO dto, String chaveIdempotencia) {
+        var requisicao = idempotencia.requisicao(chaveIdempotencia, "transferir", numeroConta,
+                dto.contaDestino(), dto.valor());
+        MotorSaldos motor = motorSaldos.getIfAvailable();
+        if (motor != null) {
+            return idempotencia.executar(requisicao,
+                    () -> motor.transferir(numeroConta, dto.contaDestino(), Dinheiro.de(dto.valor()), requisicao));
+        }
+
+        return idempotencia.executar(requisicao, () -> retentativa.executar("transferir", () -> {
+            contaCache.invalidar(numeroConta, dto.contaDestino());
+            travas.travar(numeroConta, dto.contaDestino());
+
+            // Carrega sempre na mesma ordem para que os locks de linha também não entrem em deadlock
+            Conta contaOrigem;
+            Conta contaDestino;
+            if (numeroConta.compareTo(dto.contaDestino()) <= 0) {
+                contaOrigem = buscarContaParaAtualizacao(numeroConta);
+                contaDestino = buscarContaParaAtualizacao(dto.contaDestino());
+            } else {
+                contaDestino = buscarContaParaAtualizacao(dto.contaDestino());
+                contaOrigem = buscarContaParaAtualizacao(numeroConta);
+            }
+
+            subSaldos.consolidar(contaOrigem);
+            Dinheiro saldoAnteriorOrigem = contaOrigem.getSaldo();
+            Dinheiro saldoAnteriorDestino = contaDestino.getSaldo();
 
-        conta.depositar(dto.valor());
-        return ContaResumoDTO.fromEntity(repository.save(conta));
+            contaOrigem.transferir(Dinheiro.de(dto.valor()), contaDestino);
+            livroRazao.registrarTransferencia(contaOrigem, saldoAnteriorOrigem, contaDestino, saldoAnteriorDestino);
+
+            repository.save(contaDestino);
+            return idempotencia.gravar(requisicao, ContaResumoDTO.fromEntity(repository.save(contaOrigem)));
+        }));
     }
 
     @PreAuthorize("hasRole('CLIENTE')")
-    public ContaResumoDTO transferir(String numeroConta, TransferenciaDTO dto) {
-        Conta contaOrigem = buscarContaAtivaPorNumero(numeroConta);
-        Conta contaDestino = buscarContaAtivaPorNumero(dto.contaDestino());
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ResultadoTransferenciaLoteDTO transferirEmLote(TransferenciaLoteDTO dto) {
+        MotorSaldos motor = motorSaldos.getIfAvailable();
+        if (motor != null) {
+            return transferirEmLote(motor, dto);
+        }
+
+        List<ItemTransferenciaLoteDTO> itens = dto.transferencias();
+        List<ResultadoTransferenciaLoteDTO.Item> resultados = new ArrayList<>(itens.size());
+        for (int inicio = 0; inicio < itens.size(); ) {
+            int fim = fimDoBloco(itens, inicio);
+            resultados.addAll(transferirBloco(itens, inicio, fim));
+            inicio = fim;
+        }
+        return ResultadoTransferenciaLoteDTO.of(resultados);
+    }
 
-        contaOrigem.transferir(dto.valor(), contaDestino);
+    // Itens consecutivos até conta.lote.contas-por-bloco contas distintas (um item sempre cabe)
+    private int fimDoBloco(List<ItemTransferenciaLoteDTO> itens, int inicio) {
+        Set<String> numeros = new HashSet<>();
+        int fim = inicio;
+        while (fim < itens.size()) {
+            ItemTransferenciaLoteDTO item = itens.get(fim);
+            Set<String> comItem = new HashSet<>(numeros);
+            comItem.add(item.contaOrigem());
+            comItem.add(item.contaDestino());
+            if (fim > inicio && comItem.size() > contasPorBloco) {
+                break;
+            }
+            numeros = comItem;
+            fim++;
+        }
+        return fim;
+    }
+
+    /**
+     * Um bloco do lote numa transação própria: trava só as contas do bloco e libera no commit,
+     * para um lote grande não segurar as faixas de travas das outras operações até o fim.
+     * Blocos já gravados continuam valendo se um bloco seguinte falhar no banco.
+     */
+    private List<ResultadoTransferenciaLoteDTO.Item> transferirBloco(List<ItemTransferenciaLoteDTO> itens,
+                                                                     int inicio, int fim) {
+        try {
+            return retentativa.executar("transferirEmLote", () -> {
+                Set<String> numeros = new TreeSet<>();
+                for (int i = inicio; i < fim; i++) {
+                    numeros.add(itens.get(i).contaOrigem());
+                    numeros.add(itens.get(i).contaDestino());
+                }
+                travas.travar(numeros);
+                contaCache.invalidar(numeros);
+
+                // Uma única consulta IN para todas as contas do bloco
+                Map<String, Conta> contas = (travaPessimista
+                        ? repository.buscarAtivasParaAtualizacao(numeros)
+                        : repository.findAllByNumeroInAndAtivaTrue(numeros))
+                        .stream()
+                        .collect(Collectors.toMap(Conta::getNumero, Function.identity()));
+
+                List<ResultadoTransferenciaLoteDTO.Item> resultados = new ArrayList<>(fim - inicio);
+                List<LivroRazaoService.TransferenciaEfetuada> efetuadas = new ArrayList<>();
+                Set<String> consolidadas = new HashSet<>();
+
+                for (int i = inicio; i < fim; i++) {
+                    ItemTransferenciaLoteDTO item = itens.get(i);
+                    try {
+                        Conta origem = contas.get(item.contaOrigem());
+                        Conta destino = contas.get(item.contaDestino());
+                        if (origem == null || destino == null) {
+                            throw new EntidadeNaoEncontradaException("conta");
+                        }
+
+                        if (consolidadas.add(origem.getNumero())) {
+                            subSaldos.consolidar(origem);
+                        }
+                        Dinheiro saldoAnteriorOrigem = origem.getSaldo();
+                        Dinheiro saldoAnteriorDestino = destino.getSaldo();
+                        Dinheiro valor = Dinheiro.de(item.valor());
+
+                        origem.transferir(valor, destino);
+                        // Cada perna leva o próprio valor: a mesma conta pode aparecer em vários itens
+                        efetuadas.add(new LivroRazaoService.TransferenciaEfetuada(
+                                origem, saldoAnteriorOrigem, origem.getSaldo().subtrair(saldoAnteriorOrigem),
+                                destino, saldoAnteriorDestino, valor));
+                        resultados.add(new ResultadoTransferenciaLoteDTO.Item(
+                                i, item.contaOrigem(), item.contaDestino(), true, null));
+                    } catch (EntidadeNaoEncontradaException | SaldoInsuficienteException
+                             | ValoresNegativosException | TransferirParaMesmaContaException e) {
+                        resultados.add(new ResultadoTransferenciaLoteDTO.Item(
+                                i, item.contaOrigem(), item.contaDestino(), false, e.getMessage()));
+                    }
+                }
+
+                // As contas alteradas são gravadas no commit, em batch, junto com os lançamentos
+                livroRazao.registrarTransferencias(efetuadas);
+                return resultados;
+            });
+        } catch (OptimisticLockingFailureException e) {
+            // Retentativas esgotadas: nada deste bloco foi gravado, os demais seguem
+            List<ResultadoTransferenciaLoteDTO.Item> falhas = new ArrayList<>(fim - inicio);
+            for (int i = inicio; i < fim; i++) {
+                ItemTransferenciaLoteDTO item = itens.get(i);
+                falhas.add(new ResultadoTransferenciaLoteDTO.Item(i, item.contaOrigem(), item.contaDestino(),
+                        false, "Contas alteradas por outra operação; transferência não efetuada"));
+            }
+            return falhas;
+        }
+    }
+
+    // No motor cada item vira um comando; itens de partições diferentes andam em paralelo
+    private ResultadoTransferenciaLoteDTO transferirEmLote(MotorSaldos motor, TransferenciaLoteDTO dto) {
+        List<CompletableFuture<ContaResumoDTO>> pendentes = dto.transferencias().stream()
+                .map(item -> motor.transferirAsync(
+                        item.contaOrigem(), item.contaDestino(), Dinheiro.de(item.valor()), null))
+                .toList();
+
+        List<ResultadoTransferenciaLoteDTO.Item> resultados = new ArrayList<>(pendentes.size());
+        for (int i = 0; i < pendentes.size(); i++) {
+            ItemTransferenciaLoteDTO item = dto.transferencias().get(i);
+            try {
+                pendentes.get(i).join();
+                resultados.add(new ResultadoTransferenciaLoteDTO.Item(
+                        i, item.contaOrigem(), item.contaDestino(), true, null));
+            } catch (CompletionException e) {
+                if (!(e.getCause() instanceof EntidadeNaoEncontradaException
+                        || e.getCause() instanceof SaldoInsuficienteException
+                        || e.getCause() instanceof ValoresNegativosException
+                        || e.getCause() instanceof TransferirParaMesmaContaException)) {
+                    throw e;
+                }
+                resultados.add(new ResultadoTransferenciaLoteDTO.Item(
+                        i, item.contaOrigem(), item.contaDestino(), false, e.getCause().getMessage()));
+            }
+        }
+        return ResultadoTransferenciaLoteDTO.of(resultados);
+    }
+
+    /**
+     * Saque em conta corrente sem carregar a entidade: o UPDATE condicional aplica débito, taxa
+     * e checagem de limite de uma vez. Vazio quando nada foi debitado — saldo insuficiente,
+     * outro tipo de conta, conta quente ou sem lançamentos —, e aí o caminho normal decide.
+     * <p>
+     * Não é uma ida só ao banco: depois do UPDATE vem um SELECT pelo número para ler saldo e
+     * sequência (o MySQL não tem {@code RETURNING}) e o INSERT do lançamento. O ganho é não
+     * travar a conta na JVM nem carregar a entidade, não economizar comandos.
+     */
+    private Optional<ContaResumoDTO> debitarCorrente(String numeroConta, Dinheiro valor) {
+        if (repository.debitarCorrente(numeroConta, valor.toBigDecimal()) == 0) {
+            return Optional.empty();
+        }
+
+        // A linha segue travada pelo UPDATE até o commit, então a leitura é a do nosso débito
+        ContaRepository.SaldoCorrente conta = repository.buscarSaldoCorrente(numeroConta)
+                .orElseThrow(() -> new EntidadeNaoEncontradaException("conta"));
+        BigDecimal taxa = conta.getTaxa() == null ? BigDecimal.ZERO : conta.getTaxa();
 
-        repository.save(contaDestino);
-        return ContaResumoDTO.fromEntity(repository.save(contaOrigem));
+        livroRazao.registrarDebito(repository.getReferenceById(conta.getId()), conta.getClienteId(), conta.getSequencia(),
+                valor.somar(valor.multiplicar(taxa)), TipoLancamento.SAQUE);
+        return Optional.of(new ContaResumoDTO(numeroConta, "CORRENTE", conta.getSaldo().toBigDecimal()));
     }
 
+    private static String escreverCursor(String filtros, String ultimoNumero) {
+        String conteudo = filtros + SEPARADOR_CURSOR + ultimoNumero;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(conteudo.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String lerCursor(String cursor, String filtros) {
+        String conteudo;
+        try {
+            conteudo = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new CursorInvalidoException();
+        }
+
+        // O cursor só vale para os mesmos filtros da página que o gerou
+        if (!conteudo.startsWith(filtros + SEPARADOR_CURSOR)) {
+            throw new CursorInvalidoException();
+        }
+        return conteudo.substring(filtros.length() + SEPARADOR_CURSOR.length());
+    }
+
+    private <T> T exclusivo(String numeroConta, Supplier<T> acao) {
+        MotorSaldos motor = motorSaldos.getIfAvailable();
+        return motor == null ? acao.get() : motor.executarExclusivo(numeroConta, acao);
+    }
+
+    // Sem o motor, uma transação comum como antes; com ele, a ação roda na thread da partição,
+    // que não tem transação aberta, e é repetida se a conta mudar no meio
+    private <T> T exclusivo(String numeroConta, String operacao, Supplier<T> acao) {
+        MotorSaldos motor = motorSaldos.getIfAvailable();
+        if (motor == null) {
+            return transacao.execute(status -> acao.get());
+        }
+        return motor.executarExclusivo(numeroConta, () -> retentativa.executar(operacao, acao));
+    }
 
     private Conta buscarContaAtivaPorNumero(String numeroConta) {
         return repository.findByNumeroAndAtivaTrue(numeroConta)
                 .orElseThrow(() -> new EntidadeNaoEncontradaException("conta"));
     }
 
+    private Conta buscarContaParaAtualizacao(String numeroConta) {
+        if (!travaPessimista) {
+            return buscarContaAtivaPorNumero(numeroConta);
+        }
+        return repository.buscarAtivaParaAtualizacao(numeroConta)
+                .orElseThrow(() -> new EntidadeNaoEncontradaException("conta"));
+    }
+
     @PreAuthorize("hasRole('GERENTE')")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public ContaResumoDTO aplicarRendimento(String numeroConta) {
-        Conta conta = buscarContaAtivaPorNumero(numeroConta);
+        return exclusivo(numeroConta, () -> retentativa.executar("aplicarRendimento", () -> {
+            travas.travar(numeroConta);
+            contaCache.invalidar(numeroConta);
+            Conta conta = buscarContaParaAtualizacao(numeroConta);
 
-        if (conta instanceof ContaPoupanca poupanca) {
-            poupanca.aplicarRendimento();
-            return ContaResumoDTO.fromEntity(repository.save(poupanca));
-        }
-        throw new RendimentoInvalidoException();
+            if (conta instanceof ContaPoupanca poupanca) {
+                subSaldos.consolidar(poupanca);
+                Dinheiro saldoAnterior = poupanca.getSaldo();
+
+                poupanca.aplicarRendimento();
+                livroRazao.registrar(poupanca, saldoAnterior, TipoLancamento.RENDIMENTO);
+                return ContaResumoDTO.fromEntity(repository.save(poupanca));
+            }
+            throw new RendimentoInvalidoException();
+        }));
+    }
+
+    @PreAuthorize("hasRole('GERENTE')")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void definirModoQuente(String numeroConta, ModoQuenteDTO dto) {
+        exclusivo(numeroConta, "definirModoQuente", () -> {
+            travas.travar(numeroConta);
+            contaCache.invalidar(numeroConta);
+            subSaldos.definirModoQuente(numeroConta, dto.subSaldos());
+            return null;
+        });
     }
 }
@@ -0,0 +1,68 @@
+package com.senai.conta_bancaria.application.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.senai.conta_bancaria.application.dto.ContaExportacaoDTO;
+import com.senai.conta_bancaria.domain.repository.ContaRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Exportação de todas as contas em NDJSON (uma conta por linha) para a conciliação.
+ * As linhas saem conforme o driver entrega e a consulta traz só colunas, sem entidades no
+ * contexto de persistência, então a memória não cresce com o total. A cada
+ * {@code conta.exportacao.intervalo-envio} contas a saída é descarregada para o cliente.
+ * O saldo inclui os sub-saldos de conta quente, como em {@code GET /api/conta/{numero}}.
+ */
+@Service
+public class ExportacaoContaService {
+
+    private final ContaRepository repository;
+    private final ObjectMapper objectMapper;
+    private final int intervaloEnvio;
+
+    public ExportacaoContaService(ContaRepository repository,
+                                  ObjectMapper objectMapper,
+                                  @Value("${conta.exportacao.intervalo-envio:1000}") int intervaloEnvio) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.intervaloEnvio = intervaloEnvio;
+    }
+
+    /**
+     * Escreve as contas em {@code saida} e devolve quantas foram exportadas.
+     * Não fecha {@code saida}.
+     */
+    @PreAuthorize("hasRole('GERENTE')")
+    @Transactional(readOnly = true)
+    public long exportar(OutputStream saida) {
+        long total = 0;
+
+        try (Stream<ContaRepository.ContaExportacao> contas = repository.streamParaExportacao();
+             JsonGenerator gerador = objectMapper.getFactory().createGenerator(saida)) {
+            gerador.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            gerador.setRootValueSeparator(null);
+
+            Iterator<ContaRepository.ContaExportacao> iterador = contas.iterator();
+            while (iterador.hasNext()) {
+                gerador.writeObject(ContaExportacaoDTO.fromExportacao(iterador.next()));
+                gerador.writeRaw('\n');
+
+                if (++total % intervaloEnvio == 0) {
+                    gerador.flush();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao escrever a exportação de contas", e);
+        }
+        return total;
+    }
+}
@@ -5,9 +5,11 @@ import com.senai.conta_bancaria.application.dto.GerenteRegistroDTO;
 import com.senai.conta_bancaria.application.dto.GerenteResponseDTO;
 import com.senai.conta_bancaria.domain.entity.Gerente;
 import com.senai.conta_bancaria.domain.enums.Role;
+import com.senai.conta_bancaria.domain.event.UsuarioAlteradoEvent;
 import com.senai.conta_bancaria.domain.exception.EntidadeNaoEncontradaException;
 import com.senai.conta_bancaria.domain.repository.GerenteRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -20,6 +22,7 @@ public class GerenteService {
 
     private final GerenteRepository gerenteRepository;
     private final PasswordEncoder passwordEncoder;
+    private final ApplicationEventPublisher eventos;
 
     @PreAuthorize("hasRole('ADMIN')")
     public GerenteResponseDTO registrarGerente(GerenteRegistroDTO dto) {
@@ -33,7 +36,9 @@ public class GerenteService {
         gerente.setSenha(passwordEncoder.encode(dto.senha()));
         gerente.setRole(Role.GERENTE);
 
-        return GerenteResponseDTO.fromEntity(gerenteRepository.save(gerente));
+        var salvo = gerenteRepository.save(gerente);
+        eventos.publishEvent(UsuarioAlteradoEvent.de(salvo));
+        return GerenteResponseDTO.fromEntity(salvo);
     }
 
     @PreAuthorize("hasAnyRole('ADMIN')")
@@ -54,13 +59,19 @@ public class GerenteService {
     @PreAuthorize("hasRole('ADMIN')")
     public GerenteResponseDTO atualizarGerente(String cpf, GerenteAtualizadoDTO dto) {
         var gerente = buscarGerentePorCpfEAtivo(cpf);
+        String emailAnterior = gerente.getEmail();
 
         gerente.setNome(dto.nome());
         gerente.setCpf(dto.cpf());
         gerente.setEmail(dto.email());
         gerente.setSenha(dto.senha());
 
-        return GerenteResponseDTO.fromEntity(gerenteRepository.save(gerente));
+        var salvo = gerenteRepository.save(gerente);
+        if (!emailAnterior.equals(salvo.getEmail())) {
+            eventos.publishEvent(UsuarioAlteradoEvent.emailSubstituido(emailAnterior));
+        }
+        eventos.publishEvent(UsuarioAlteradoEvent.de(salvo));
+        return GerenteResponseDTO.fromEntity(salvo);
     }
 
     @PreAuthorize("hasRole('ADMIN')")
@@ -69,7 +80,7 @@ public class GerenteService {
 
         gerente.setAtivo(false);
 
-        gerenteRepository.save(gerente);
+        eventos.publishEvent(UsuarioAlteradoEvent.de(gerenteRepository.save(gerente)));
     }
 
     private Gerente buscarGerentePorCpfEAtivo(String cpf) {
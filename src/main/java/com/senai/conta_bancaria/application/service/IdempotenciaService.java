@@ -0,0 +1,191 @@
+package com.senai.conta_bancaria.application.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.senai.conta_bancaria.application.dto.ContaResumoDTO;
+import com.senai.conta_bancaria.domain.entity.ChaveIdempotencia;
+import com.senai.conta_bancaria.domain.exception.ChaveIdempotenciaInvalidaException;
+import com.senai.conta_bancaria.domain.repository.ChaveIdempotenciaRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Suporte ao header {@code Idempotency-Key} nas operações de dinheiro.
+ * Reenvios são atendidos pelo cache em memória ou pela tabela {@code chave_idempotencia},
+ * sem tocar nas contas; requisições simultâneas com a mesma chave esperam a primeira terminar.
+ * A chave vale por usuário autenticado e só para a mesma requisição: reenviá-la com outro
+ * valor, conta ou destino responde 422 em vez de devolver a resposta anterior.
+ */
+@Service
+public class IdempotenciaService {
+
+    private final ChaveIdempotenciaRepository repository;
+    private final Cache<String, ChaveIdempotencia> respostas;
+    private final ConcurrentHashMap<String, CompletableFuture<ChaveIdempotencia>> emAndamento = new ConcurrentHashMap<>();
+    private final Duration retencao;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public IdempotenciaService(ChaveIdempotenciaRepository repository,
+                               @Value("${conta.idempotencia.cache.tamanho-maximo:100000}") long tamanhoMaximo,
+                               @Value("${conta.idempotencia.retencao:24h}") Duration retencao) {
+        this.repository = repository;
+        this.retencao = retencao;
+        this.respostas = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfterWrite(retencao)
+                .build();
+    }
+
+    /**
+     * Chave de idempotência de uma requisição. {@code chave} já vem prefixada pelo usuário
+     * autenticado (resumida, para caber na coluna) e {@code impressao} resume os dados enviados.
+     * Sem o header, {@code chave} é nula e nada é guardado.
+     */
+    public record Requisicao(String chave, String operacao, String numeroConta, String impressao) {}
+
+    /**
+     * Monta a {@link Requisicao} na thread da requisição, onde está o usuário autenticado.
+     * {@code dados} são os campos do corpo que tornam a operação diferente (valor, destino).
+     */
+    public Requisicao requisicao(String chaveIdempotencia, String operacao, String numeroConta, Object... dados) {
+        if (chaveIdempotencia == null || chaveIdempotencia.isBlank()) {
+            return new Requisicao(null, operacao, numeroConta, null);
+        }
+
+        Authentication autenticacao = SecurityContextHolder.getContext().getAuthentication();
+        String titular = autenticacao == null ? "" : autenticacao.getName();
+
+        StringBuilder conteudo = new StringBuilder(operacao).append('\n').append(numeroConta);
+        for (Object dado : dados) {
+            conteudo.append('\n').append(dado instanceof BigDecimal valor
+                    ? valor.stripTrailingZeros().toPlainString()
+                    : String.valueOf(dado));
+        }
+        return new Requisicao(resumo(titular + '\n' + chaveIdempotencia), operacao, numeroConta,
+                resumo(conteudo.toString()));
+    }
+
+    /**
+     * Executa {@code acao} uma única vez por chave. A ação deve chamar {@link #gravar}
+     * dentro da própria transação, para que a resposta fique salva junto com a operação.
+     */
+    public ContaResumoDTO executar(Requisicao requisicao, Supplier<ContaResumoDTO> acao) {
+        String chave = requisicao.chave();
+        if (chave == null) {
+            return acao.get();
+        }
+
+        ChaveIdempotencia emCache = respostas.getIfPresent(chave);
+        if (emCache != null) {
+            return conferir(emCache, requisicao);
+        }
+
+        CompletableFuture<ChaveIdempotencia> execucao = new CompletableFuture<>();
+        CompletableFuture<ChaveIdempotencia> concorrente = emAndamento.putIfAbsent(chave, execucao);
+        if (concorrente != null) {
+            return conferir(aguardar(concorrente), requisicao);
+        }
+
+        try {
+            ChaveIdempotencia registro = repository.findById(chave)
+                    .orElseGet(() -> executarUmaVez(requisicao, acao));
+
+            respostas.put(chave, registro);
+            execucao.complete(registro);
+            return conferir(registro, requisicao);
+        } catch (RuntimeException e) {
+            execucao.completeExceptionally(e);
+            throw e;
+        } finally {
+            emAndamento.remove(chave, execucao);
+        }
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public ContaResumoDTO gravar(Requisicao requisicao, ContaResumoDTO resposta) {
+        if (requisicao == null || requisicao.chave() == null) {
+            return resposta;
+        }
+
+        // persist (e não save/merge): se outra instância gravou a chave antes, o commit falha
+        entityManager.persist(montar(requisicao, resposta));
+        return resposta;
+    }
+
+    @Scheduled(cron = "${conta.idempotencia.limpeza-cron:0 0 3 * * *}")
+    @Transactional
+    public void removerExpiradas() {
+        repository.deleteByCriadaEmBefore(LocalDateTime.now().minus(retencao));
+    }
+
+    private ChaveIdempotencia executarUmaVez(Requisicao requisicao, Supplier<ContaResumoDTO> acao) {
+        try {
+            return montar(requisicao, acao.get());
+        } catch (DataIntegrityViolationException e) {
+            // Outra instância executou a mesma chave primeiro; a nossa transação foi desfeita
+            return repository.findById(requisicao.chave()).orElseThrow(() -> e);
+        }
+    }
+
+    private static ChaveIdempotencia montar(Requisicao requisicao, ContaResumoDTO resposta) {
+        return ChaveIdempotencia.builder()
+                .chave(requisicao.chave())
+                .operacao(requisicao.operacao())
+                .numeroConta(requisicao.numeroConta())
+                .impressao(requisicao.impressao())
+                .numeroResposta(resposta.numero())
+                .tipoResposta(resposta.tipo())
+                .saldoResposta(resposta.saldo())
+                .criadaEm(LocalDateTime.now())
+                .build();
+    }
+
+    private ChaveIdempotencia aguardar(CompletableFuture<ChaveIdempotencia> execucao) {
+        try {
+            return execucao.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw e;
+        }
+    }
+
+    private ContaResumoDTO conferir(ChaveIdempotencia registro, Requisicao requisicao) {
+        if (!registro.getImpressao().equals(requisicao.impressao())) {
+            throw new ChaveIdempotenciaInvalidaException();
+        }
+        return new ContaResumoDTO(registro.getNumeroResposta(), registro.getTipoResposta(), registro.getSaldoResposta());
+    }
+
+    private static String resumo(String conteudo) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(sha256.digest(conteudo.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+}
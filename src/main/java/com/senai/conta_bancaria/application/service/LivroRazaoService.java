@@ -0,0 +1,266 @@
+package com.senai.conta_bancaria.application.service;
+
+import com.senai.conta_bancaria.domain.entity.Conta;
+import com.senai.conta_bancaria.domain.entity.Lancamento;
+import com.senai.conta_bancaria.domain.entity.SaldoConsolidado;
+import com.senai.conta_bancaria.domain.enums.TipoLancamento;
+import com.senai.conta_bancaria.domain.repository.LancamentoRepository;
+import com.senai.conta_bancaria.domain.repository.SaldoConsolidadoRepository;
+import com.senai.conta_bancaria.domain.valueobject.Dinheiro;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.IncorrectUpdateSemanticsDataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Diário de lançamentos das contas. Toda movimentação de saldo vira um lançamento
+ * e, a cada {@code conta.lancamentos.intervalo-consolidacao} lançamentos, o saldo
+ * é consolidado para que a leitura só precise somar a cauda do diário.
+ */
+@Service
+@Transactional(propagation = Propagation.MANDATORY)
+public class LivroRazaoService {
+
+    private final LancamentoRepository lancamentoRepository;
+    private final SaldoConsolidadoRepository consolidadoRepository;
+    private final ResumoSaldoClienteService resumoSaldos;
+    private final int intervaloConsolidacao;
+
+    public LivroRazaoService(LancamentoRepository lancamentoRepository,
+                             SaldoConsolidadoRepository consolidadoRepository,
+                             ResumoSaldoClienteService resumoSaldos,
+                             @Value("${conta.lancamentos.intervalo-consolidacao:100}") int intervaloConsolidacao) {
+        this.lancamentoRepository = lancamentoRepository;
+        this.consolidadoRepository = consolidadoRepository;
+        this.resumoSaldos = resumoSaldos;
+        this.intervaloConsolidacao = intervaloConsolidacao;
+    }
+
+    /**
+     * Movimentação de {@code valor} (positivo crédito, negativo débito) na conta.
+     * Com {@code lancamentoPendenteId}, confirma um crédito já gravado fora da sequência
+     * em vez de inserir um novo lançamento.
+     */
+    public record Movimento(Conta conta, Dinheiro saldoAnterior, Dinheiro valor, TipoLancamento tipo,
+                            String transferenciaId, String lancamentoPendenteId) {
+
+        public static Movimento de(Conta conta, Dinheiro saldoAnterior, TipoLancamento tipo, String transferenciaId) {
+            return new Movimento(conta, saldoAnterior, conta.getSaldo().subtrair(saldoAnterior),
+                    tipo, transferenciaId, null);
+        }
+    }
+
+    /**
+     * Registra a diferença entre o saldo atual da conta e {@code saldoAnterior}.
+     */
+    public void registrar(Conta conta, Dinheiro saldoAnterior, TipoLancamento tipo) {
+        registrarMovimentos(List.of(Movimento.de(conta, saldoAnterior, tipo, null)));
+    }
+
+    /**
+     * Grava as duas pernas da transferência juntas, no mesmo lote de inserts.
+     */
+    public void registrarTransferencia(Conta origem, Dinheiro saldoAnteriorOrigem,
+                                       Conta destino, Dinheiro saldoAnteriorDestino) {
+        String transferenciaId = UUID.randomUUID().toString();
+
+        registrarMovimentos(List.of(
+                Movimento.de(origem, saldoAnteriorOrigem, TipoLancamento.TRANSFERENCIA_ENVIADA, transferenciaId),
+                Movimento.de(destino, saldoAnteriorDestino, TipoLancamento.TRANSFERENCIA_RECEBIDA, transferenciaId)
+        ));
+    }
+
+    /**
+     * Versão em lote de {@link #registrarTransferencia}. Os valores vêm de cada transferência,
+     * não do saldo final, porque a mesma conta pode aparecer em vários itens do lote.
+     */
+    public void registrarTransferencias(List<TransferenciaEfetuada> transferencias) {
+        List<Movimento> movimentos = new ArrayList<>(transferencias.size() * 2);
+
+        for (TransferenciaEfetuada transferencia : transferencias) {
+            String transferenciaId = UUID.randomUUID().toString();
+            movimentos.add(new Movimento(transferencia.origem(), transferencia.saldoAnteriorOrigem(),
+                    transferencia.debito(), TipoLancamento.TRANSFERENCIA_ENVIADA, transferenciaId, null));
+            movimentos.add(new Movimento(transferencia.destino(), transferencia.saldoAnteriorDestino(),
+                    transferencia.credito(), TipoLancamento.TRANSFERENCIA_RECEBIDA, transferenciaId, null));
+        }
+
+        registrarMovimentos(movimentos);
+    }
+
+    public record TransferenciaEfetuada(Conta origem, Dinheiro saldoAnteriorOrigem, Dinheiro debito,
+                                        Conta destino, Dinheiro saldoAnteriorDestino, Dinheiro credito) {}
+
+    /**
+     * Grava os movimentos em ordem: um único flush das contas e um único saveAll,
+     * para o Hibernate mandar tudo em batch.
+     */
+    public void registrarMovimentos(List<Movimento> movimentos) {
+        Map<String, Conta> contas = new LinkedHashMap<>();
+        Map<String, Long> sequenciasAnteriores = new HashMap<>();
+        List<Lancamento> novos = new ArrayList<>(movimentos.size());
+        Map<String, Long> pendentesConfirmados = new LinkedHashMap<>();
+        Map<String, Dinheiro> deltasPorCliente = new HashMap<>();
+
+        for (Movimento movimento : movimentos) {
+            Conta conta = movimento.conta();
+            contas.putIfAbsent(conta.getId(), conta);
+            sequenciasAnteriores.putIfAbsent(conta.getId(), conta.getSequenciaLancamento());
+            if (conta.getCliente() != null) {
+                deltasPorCliente.merge(conta.getCliente().getId(), movimento.valor(), Dinheiro::somar);
+            }
+
+            novos.addAll(montar(movimento));
+            if (movimento.lancamentoPendenteId() != null) {
+                // montar() só adicionou a abertura (se houver); o crédito já existe no diário
+                pendentesConfirmados.put(movimento.lancamentoPendenteId(), conta.getSequenciaLancamento());
+            }
+        }
+
+        gravarContaAntes();
+        lancamentoRepository.saveAll(novos);
+        pendentesConfirmados.forEach((id, sequencia) -> {
+            if (lancamentoRepository.confirmarSequencia(id, sequencia) != 1) {
+                throw new IncorrectUpdateSemanticsDataAccessException("Lançamento pendente " + id + " já confirmado");
+            }
+        });
+
+        contas.forEach((id, conta) ->
+                consolidarSeNecessario(conta, sequenciasAnteriores.get(id), conta.getSequenciaLancamento()));
+        resumoSaldos.aplicar(deltasPorCliente);
+    }
+
+    /**
+     * Débito que já foi aplicado direto na linha da conta, sem carregá-la.
+     * {@code sequencia} é a atribuída pelo próprio UPDATE; {@code clienteId} vem junto
+     * porque {@code conta} é só uma referência e ler o cliente dela iria ao banco.
+     */
+    public void registrarDebito(Conta conta, String clienteId, long sequencia, Dinheiro valor, TipoLancamento tipo) {
+        lancamentoRepository.save(Lancamento.builder()
+                .conta(conta)
+                .sequencia(sequencia)
+                .tipo(tipo)
+                .valor(valor.negar().toBigDecimal())
+                .dataHora(LocalDateTime.now())
+                .build());
+
+        consolidarSeNecessario(conta, sequencia - 1, sequencia);
+        if (clienteId != null) {
+            resumoSaldos.aplicar(Map.of(clienteId, valor.negar()));
+        }
+    }
+
+    /**
+     * Perna de crédito de uma transferência cuja conta de destino ainda não foi atualizada.
+     * Fica fora da sequência até {@link Movimento#lancamentoPendenteId()} confirmá-la.
+     */
+    public Lancamento registrarCreditoPendente(Conta destino, Dinheiro valor, String transferenciaId) {
+        return lancamentoRepository.save(Lancamento.builder()
+                .conta(destino)
+                .tipo(TipoLancamento.TRANSFERENCIA_RECEBIDA)
+                .valor(valor.toBigDecimal())
+                .transferenciaId(transferenciaId)
+                .dataHora(LocalDateTime.now())
+                .build());
+    }
+
+    /**
+     * Depósito em conta quente: fica fora da sequência até o sub-saldo ser consolidado,
+     * quando entra como um único {@link TipoLancamento#CONSOLIDACAO_SUBSALDOS}.
+     */
+    public void registrarCreditoEmSubSaldo(Conta conta, int slot, BigDecimal valor) {
+        lancamentoRepository.save(Lancamento.builder()
+                .conta(conta)
+                .subSaldo(slot)
+                .tipo(TipoLancamento.DEPOSITO)
+                .valor(valor)
+                .dataHora(LocalDateTime.now())
+                .build());
+    }
+
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public BigDecimal saldoAtual(Conta conta) {
+        return saldoAtual(conta.getId(), conta.getSequenciaLancamento(), conta.getSaldo());
+    }
+
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public BigDecimal saldoAtual(String contaId, long sequenciaLancamento, Dinheiro saldoDaConta) {
+        // Conta sem nenhum lançamento ainda: o saldo de abertura é o da própria conta
+        if (sequenciaLancamento == 0) {
+            return saldoDaConta.toBigDecimal();
+        }
+        return saldoPeloDiario(contaId);
+    }
+
+    private BigDecimal saldoPeloDiario(String contaId) {
+        Optional<SaldoConsolidado> consolidado = consolidadoRepository.findFirstByContaIdOrderBySequenciaDesc(contaId);
+
+        BigDecimal base = consolidado.map(SaldoConsolidado::getSaldo).orElse(BigDecimal.ZERO);
+        long sequencia = consolidado.map(SaldoConsolidado::getSequencia).orElse(0L);
+
+        return base.add(lancamentoRepository.somarAposSequencia(contaId, sequencia));
+    }
+
+    private List<Lancamento> montar(Movimento movimento) {
+        Conta conta = movimento.conta();
+        LocalDateTime agora = LocalDateTime.now();
+        List<Lancamento> novos = new ArrayList<>(2);
+        long sequencia = conta.getSequenciaLancamento();
+
+        // Primeira movimentação: o saldo que a conta já tinha entra como abertura
+        if (sequencia == 0 && movimento.saldoAnterior().signum() != 0) {
+            novos.add(Lancamento.builder()
+                    .conta(conta)
+                    .sequencia(++sequencia)
+                    .tipo(TipoLancamento.ABERTURA)
+                    .valor(movimento.saldoAnterior().toBigDecimal())
+                    .dataHora(agora)
+                    .build());
+        }
+
+        ++sequencia;
+        if (movimento.lancamentoPendenteId() == null) {
+            novos.add(Lancamento.builder()
+                    .conta(conta)
+                    .sequencia(sequencia)
+                    .tipo(movimento.tipo())
+                    .valor(movimento.valor().toBigDecimal())
+                    .transferenciaId(movimento.transferenciaId())
+                    .dataHora(agora)
+                    .build());
+        }
+
+        conta.setSequenciaLancamento(sequencia);
+        return novos;
+    }
+
+    // O Hibernate executa inserts antes de updates; sem esse flush, duas transações
+    // concorrentes colidiriam na sequência do lançamento antes da checagem de @Version
+    private void gravarContaAntes() {
+        lancamentoRepository.flush();
+    }
+
+    private void consolidarSeNecessario(Conta conta, long sequenciaAnterior, long sequenciaAtual) {
+        if (sequenciaAnterior / intervaloConsolidacao == sequenciaAtual / intervaloConsolidacao) {
+            return;
+        }
+
+        consolidadoRepository.save(SaldoConsolidado.builder()
+                .conta(conta)
+                .sequencia(sequenciaAtual)
+                .saldo(saldoPeloDiario(conta.getId()))
+                .dataHora(LocalDateTime.now())
+                .build());
+    }
+}
@@ -0,0 +1,117 @@
+package com.senai.conta_bancaria.application.service;
+
+import com.senai.conta_bancaria.domain.entity.FamiliaRefreshToken;
+import com.senai.conta_bancaria.domain.entity.Usuario;
+import com.senai.conta_bancaria.domain.event.UsuarioAlteradoEvent;
+import com.senai.conta_bancaria.domain.repository.FamiliaRefreshTokenRepository;
+import com.senai.conta_bancaria.infrastructure.security.JwtService;
+import com.senai.conta_bancaria.infrastructure.security.RevogacaoRefreshTokens;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Refresh tokens rotativos. Cada login abre uma família; cada refresh aceita só o jti atual
+ * da família, revoga esse jti e emite o próximo. Um jti já trocado apresentado de novo é
+ * reuso (token vazado ou replay) e revoga a família inteira. Token de família já revogada
+ * (usuário alterado) ou removida só é recusado. Reusos em {@code security.refresh.reuso}.
+ */
+@Service
+public class RefreshTokenService {
+
+    private final FamiliaRefreshTokenRepository familias;
+    private final RevogacaoRefreshTokens revogados;
+    private final JwtService jwt;
+    private final Counter reusos;
+    private final long validadeSegundos;
+
+    public RefreshTokenService(FamiliaRefreshTokenRepository familias,
+                               RevogacaoRefreshTokens revogados,
+                               JwtService jwt,
+                               MeterRegistry metricas,
+                               @Value("${security.jwt.refresh-expiration:604800}") long validadeSegundos) {
+        this.familias = familias;
+        this.revogados = revogados;
+        this.jwt = jwt;
+        this.reusos = metricas.counter("security.refresh.reuso");
+        this.validadeSegundos = validadeSegundos;
+    }
+
+    public String emitir(Usuario usuario) {
+        String familia = UUID.randomUUID().toString();
+        String jti = UUID.randomUUID().toString();
+        LocalDateTime agora = LocalDateTime.now();
+
+        familias.save(FamiliaRefreshToken.builder()
+                .id(familia)
+                .email(usuario.getEmail())
+                .jtiAtual(jti)
+                .revogada(false)
+                .criadaEm(agora)
+                .atualizadaEm(agora)
+                .build());
+
+        return jwt.generateRefreshToken(usuario.getEmail(), usuario.getRole().name(), usuario.getVersao(), jti, familia);
+    }
+
+    /**
+     * Troca o refresh token por um novo par. O caso comum custa uma checagem em memória
+     * e um UPDATE condicional, sem buscar o usuário nem a família.
+     */
+    public Map<String, String> rotacionar(String refreshToken) {
+        JwtService.TokenVerificado token = jwt.verificar(refreshToken)
+                .filter(JwtService.TokenVerificado::isRefresh)
+                .orElseThrow(() -> new BadCredentialsException("Refresh token inválido ou expirado"));
+
+        if (revogados.isRevogado(token.jti())) {
+            throw reuso(token);
+        }
+
+        String novoJti = UUID.randomUUID().toString();
+        if (familias.rotacionar(token.familia(), token.jti(), novoJti, LocalDateTime.now()) == 0) {
+            throw trocaRecusada(token);
+        }
+        revogados.revogar(token.jti(), token.familia(), LocalDateTime.ofInstant(token.expiraEm(), ZoneId.systemDefault()));
+
+        return Map.of(
+                "accessToken", jwt.generateAccessToken(token.email(), token.role(), token.versao()),
+                "refreshToken", jwt.generateRefreshToken(token.email(), token.role(), token.versao(),
+                        novoJti, token.familia())
+        );
+    }
+
+    // Papel, senha, e-mail ou desativação mudaram: as sessões abertas precisam de novo login
+    @EventListener
+    public void aoAlterarUsuario(UsuarioAlteradoEvent evento) {
+        familias.revogarPorEmail(evento.email());
+    }
+
+    @Scheduled(cron = "${security.refresh.limpeza-cron:0 15 * * * *}")
+    public void removerFamiliasVencidas() {
+        familias.removerAtualizadasAntesDe(LocalDateTime.now().minusSeconds(validadeSegundos));
+    }
+
+    // 0 linhas na troca. Família ainda ativa: outro refresh (talvez em outra instância) trocou este
+    // jti antes, é reuso. Família revogada ou removida: a sessão já tinha sido encerrada
+    private BadCredentialsException trocaRecusada(JwtService.TokenVerificado token) {
+        if (familias.existsByIdAndRevogadaFalse(token.familia())) {
+            return reuso(token);
+        }
+        return new BadCredentialsException("Sessão encerrada; faça login novamente");
+    }
+
+    private BadCredentialsException reuso(JwtService.TokenVerificado token) {
+        familias.revogar(token.familia());
+        reusos.increment();
+        return new BadCredentialsException("Refresh token já utilizado; a sessão foi encerrada");
+    }
+}
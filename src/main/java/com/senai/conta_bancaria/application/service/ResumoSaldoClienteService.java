@@ -0,0 +1,159 @@
+package com.senai.conta_bancaria.application.service;
+
+import com.senai.conta_bancaria.application.dto.ResumoSaldoClienteDTO;
+import com.senai.conta_bancaria.domain.entity.ResumoSaldoCliente;
+import com.senai.conta_bancaria.domain.exception.EntidadeNaoEncontradaException;
+import com.senai.conta_bancaria.domain.repository.ClienteRepository;
+import com.senai.conta_bancaria.domain.repository.ResumoSaldoClienteRepository;
+import com.senai.conta_bancaria.domain.repository.SubSaldoContaRepository;
+import com.senai.conta_bancaria.domain.valueobject.Dinheiro;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Saldo total e quantidade de contas por cliente sem somar as contas na leitura.
+ * Movimentações aplicam um delta na mesma transação (via {@link LivroRazaoService});
+ * criação e desativação de contas recalculam o cliente. Cliente ainda sem linha (criado fora do
+ * {@link ClienteService}) ganha a linha por recálculo logo depois do commit da primeira movimentação.
+ * A reconstrução diária corrige qualquer divergência e conta as correções em
+ * {@code conta.resumo.divergencias}.
+ */
+@Slf4j
+@Service
+public class ResumoSaldoClienteService {
+
+    private final ResumoSaldoClienteRepository repository;
+    private final ClienteRepository clienteRepository;
+    private final SubSaldoContaRepository subSaldoRepository;
+    private final TransactionTemplate transacao;
+    private final TransactionTemplate novaTransacao;
+    private final Counter divergencias;
+
+    public ResumoSaldoClienteService(ResumoSaldoClienteRepository repository,
+                                     ClienteRepository clienteRepository,
+                                     SubSaldoContaRepository subSaldoRepository,
+                                     TransactionTemplate transacao,
+                                     MeterRegistry metricas) {
+        this.repository = repository;
+        this.clienteRepository = clienteRepository;
+        this.subSaldoRepository = subSaldoRepository;
+        this.transacao = transacao;
+        this.novaTransacao = new TransactionTemplate(transacao.getTransactionManager());
+        this.novaTransacao.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.divergencias = metricas.counter("conta.resumo.divergencias");
+    }
+
+    /**
+     * Aplica os deltas de saldo por cliente. Os clientes são atualizados sempre na mesma ordem
+     * para que transferências cruzadas entre dois clientes não travem uma à outra.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void aplicar(Map<String, Dinheiro> deltasPorCliente) {
+        LocalDateTime agora = LocalDateTime.now();
+        new TreeMap<>(deltasPorCliente).forEach((clienteId, delta) -> {
+            if (repository.aplicarDelta(clienteId, delta.toBigDecimal(), agora) == 0) {
+                criarDepoisDoCommit(clienteId);
+            }
+        });
+    }
+
+    // Sem linha o delta não tem onde somar. Depois do commit as contas já têm esta movimentação
+    // (o motor de saldos grava as linhas das contas só depois de aplicar), então o recálculo a inclui.
+    // A movimentação já foi confirmada: uma falha aqui fica para a reconstrução diária
+    private void criarDepoisDoCommit(String clienteId) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                // Se outra movimentação criou a linha ao mesmo tempo, a segunda tentativa a encontra e trava
+                for (int tentativa = 1; ; tentativa++) {
+                    try {
+                        novaTransacao.executeWithoutResult(status -> recalcular(clienteId));
+                        return;
+                    } catch (RuntimeException e) {
+                        if (tentativa == 2) {
+                            log.warn("Resumo do cliente {} não criado; fica para a reconstrução", clienteId, e);
+                            return;
+                        }
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Recalcula o cliente a partir das contas ativas. As alterações das contas
+     * precisam estar gravadas (flush) antes da chamada.
+     */
+    @Transactional
+    public void recalcular(String clienteId) {
+        ResumoSaldoCliente resumo = repository.travar(clienteId)
+                .orElseGet(() -> ResumoSaldoCliente.builder().clienteId(clienteId).build());
+        ResumoSaldoCliente calculado = calcular(clienteId);
+
+        if (resumo.getSaldoTotal() != null && (!calculado.getSaldoTotal().equals(resumo.getSaldoTotal())
+                || calculado.getQuantidadeCorrente() != resumo.getQuantidadeCorrente()
+                || calculado.getQuantidadePoupanca() != resumo.getQuantidadePoupanca())) {
+            divergencias.increment();
+        }
+
+        resumo.setSaldoTotal(calculado.getSaldoTotal());
+        resumo.setQuantidadeCorrente(calculado.getQuantidadeCorrente());
+        resumo.setQuantidadePoupanca(calculado.getQuantidadePoupanca());
+        resumo.setUltimaMovimentacao(calculado.getUltimaMovimentacao());
+        repository.save(resumo);
+    }
+
+    private ResumoSaldoCliente calcular(String clienteId) {
+        ResumoSaldoClienteRepository.TotaisContas totais = repository.somarContasAtivas(clienteId);
+
+        return ResumoSaldoCliente.builder()
+                .clienteId(clienteId)
+                .saldoTotal(Dinheiro.de(totais.getSaldoTotal()))
+                .quantidadeCorrente(totais.getQuantidadeCorrente().intValue())
+                .quantidadePoupanca(totais.getQuantidadePoupanca().intValue())
+                .ultimaMovimentacao(repository.buscarUltimaMovimentacao(clienteId).orElse(null))
+                .build();
+    }
+
+    // Um cliente por transação: a trava de cada resumo fica presa só pelo tempo do recálculo
+    @Scheduled(cron = "${conta.resumo.reconstrucao-cron:0 30 3 * * *}")
+    public void reconstruirTodos() {
+        for (String clienteId : clienteRepository.listarIds()) {
+            transacao.executeWithoutResult(status -> recalcular(clienteId));
+        }
+    }
+
+    /**
+     * Uma leitura do resumo mais a soma dos sub-saldos ainda não consolidados do cliente,
+     * que só existem em contas quentes. Cliente que ainda não tem linha é somado pelas contas.
+     */
+    @PreAuthorize("hasRole('GERENTE')")
+    @Transactional(readOnly = true)
+    public ResumoSaldoClienteDTO buscarPorCpf(String cpf) {
+        ResumoSaldoCliente resumo = repository.buscarPorCpfAtivo(cpf)
+                .or(() -> clienteRepository.buscarIdAtivoPorCpf(cpf).map(this::calcular))
+                .orElseThrow(() -> new EntidadeNaoEncontradaException("cliente"));
+
+        return new ResumoSaldoClienteDTO(
+                cpf,
+                resumo.getSaldoTotal().toBigDecimal().add(subSaldoRepository.somarPorCliente(resumo.getClienteId())),
+                resumo.getQuantidadeCorrente(),
+                resumo.getQuantidadePoupanca(),
+                resumo.getUltimaMovimentacao()
+        );
+    }
+}
@@ -0,0 +1,131 @@
+package com.senai.conta_bancaria.application.service;
+
+import com.senai.conta_bancaria.application.dto.ContaResumoDTO;
+import com.senai.conta_bancaria.domain.entity.Conta;
+import com.senai.conta_bancaria.domain.entity.SubSaldoConta;
+import com.senai.conta_bancaria.domain.enums.TipoLancamento;
+import com.senai.conta_bancaria.domain.exception.EntidadeNaoEncontradaException;
+import com.senai.conta_bancaria.domain.exception.ValoresNegativosException;
+import com.senai.conta_bancaria.domain.repository.ContaRepository;
+import com.senai.conta_bancaria.domain.repository.SubSaldoContaRepository;
+import com.senai.conta_bancaria.domain.valueobject.Dinheiro;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Modo "conta quente": o saldo da conta fica espalhado em N sub-saldos.
+ * Créditos caem num sub-saldo aleatório com um UPDATE atômico, sem tocar a linha da conta;
+ * débitos e leituras somam os sub-saldos. Saldo real = conta.saldo + soma dos sub-saldos.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(propagation = Propagation.MANDATORY)
+public class SubSaldoService {
+
+    private final SubSaldoContaRepository subSaldoRepository;
+    private final ContaRepository contaRepository;
+    private final LivroRazaoService livroRazao;
+
+    // Só decide qual caminho o depósito toma; a conta carregada continua sendo a fonte da verdade
+    private final Set<String> numerosQuentes = ConcurrentHashMap.newKeySet();
+
+    @Scheduled(fixedDelayString = "${conta.quente.atualizacao-ms:30000}")
+    @Transactional(propagation = Propagation.REQUIRED, readOnly = true)
+    public void atualizarContasQuentes() {
+        List<String> atuais = contaRepository.listarNumerosContasQuentes();
+        numerosQuentes.retainAll(atuais);
+        numerosQuentes.addAll(atuais);
+    }
+
+    public boolean isQuente(String numeroConta) {
+        return numerosQuentes.contains(numeroConta);
+    }
+
+    @Transactional(propagation = Propagation.REQUIRED)
+    public void definirModoQuente(String numeroConta, int quantidadeSubSaldos) {
+        Conta conta = contaRepository.buscarAtivaParaAtualizacao(numeroConta)
+                .orElseThrow(() -> new EntidadeNaoEncontradaException("conta"));
+
+        consolidar(conta);
+        subSaldoRepository.deleteAll(subSaldoRepository.findAllByContaId(conta.getId()));
+        subSaldoRepository.flush();
+
+        for (int slot = 0; slot < quantidadeSubSaldos; slot++) {
+            subSaldoRepository.save(SubSaldoConta.builder()
+                    .conta(conta)
+                    .slot(slot)
+                    .saldo(BigDecimal.ZERO)
+                    .build());
+        }
+
+        conta.setContaQuente(quantidadeSubSaldos > 0);
+        conta.setQuantidadeSubSaldos(quantidadeSubSaldos);
+        contaRepository.save(conta);
+
+        if (quantidadeSubSaldos > 0) {
+            numerosQuentes.add(numeroConta);
+        } else {
+            numerosQuentes.remove(numeroConta);
+        }
+    }
+
+    public ContaResumoDTO depositar(Conta conta, BigDecimal valor) {
+        if (valor.compareTo(BigDecimal.ZERO) <= 0) {
+            throw new ValoresNegativosException("deposito");
+        }
+
+        int slot = ThreadLocalRandom.current().nextInt(conta.getQuantidadeSubSaldos());
+        subSaldoRepository.creditar(conta.getId(), slot, valor);
+        livroRazao.registrarCreditoEmSubSaldo(conta, slot, valor);
+
+        return new ContaResumoDTO(conta.getNumero(), conta.getTipo(), saldoTotal(conta));
+    }
+
+    /**
+     * Traz os sub-saldos para {@code conta.saldo}. Deve ser chamado antes de qualquer débito,
+     * com a conta já travada, para que o limite seja checado contra o saldo inteiro.
+     */
+    public void consolidar(Conta conta) {
+        if (conta.getQuantidadeSubSaldos() == 0) {
+            return;
+        }
+
+        BigDecimal total = BigDecimal.ZERO;
+        for (SubSaldoConta subSaldo : subSaldoRepository.travarPorConta(conta.getId())) {
+            total = total.add(subSaldo.getSaldo());
+            subSaldo.setSaldo(BigDecimal.ZERO);
+        }
+
+        if (total.signum() != 0) {
+            Dinheiro saldoAnterior = conta.getSaldo();
+            conta.setSaldo(saldoAnterior.somar(Dinheiro.de(total)));
+            livroRazao.registrar(conta, saldoAnterior, TipoLancamento.CONSOLIDACAO_SUBSALDOS);
+        }
+    }
+
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public BigDecimal saldoPendente(Conta conta) {
+        return saldoPendente(conta.getId(), conta.getQuantidadeSubSaldos());
+    }
+
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public BigDecimal saldoPendente(String contaId, int quantidadeSubSaldos) {
+        if (quantidadeSubSaldos == 0) {
+            return BigDecimal.ZERO;
+        }
+        return subSaldoRepository.somarPorConta(contaId);
+    }
+
+    private BigDecimal saldoTotal(Conta conta) {
+        return conta.getSaldo().toBigDecimal().add(subSaldoRepository.somarPorConta(conta.getId()));
+    }
+}
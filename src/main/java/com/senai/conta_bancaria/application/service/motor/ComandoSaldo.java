@@ -0,0 +1,39 @@
+package com.senai.conta_bancaria.application.service.motor;
+
+import com.senai.conta_bancaria.application.dto.ContaResumoDTO;
+import com.senai.conta_bancaria.application.service.IdempotenciaService.Requisicao;
+import com.senai.conta_bancaria.domain.valueobject.Dinheiro;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Comandos aceitos pelas partições do {@link MotorSaldos}. Todo comando é roteado
+ * pela partição dona de {@link #numeroConta()}.
+ */
+sealed interface ComandoSaldo {
+
+    String numeroConta();
+
+    record Sacar(String numeroConta, Dinheiro valor, Requisicao requisicao,
+                 CompletableFuture<ContaResumoDTO> resultado) implements ComandoSaldo {}
+
+    record Depositar(String numeroConta, Dinheiro valor, Requisicao requisicao,
+                     CompletableFuture<ContaResumoDTO> resultado) implements ComandoSaldo {}
+
+    record Transferir(String numeroConta, String contaDestino, Dinheiro valor, Requisicao requisicao,
+                      CompletableFuture<ContaResumoDTO> resultado) implements ComandoSaldo {}
+
+    // Perna de crédito de uma transferência entre partições; o lançamento já está gravado como pendente.
+    // contaId é a conta do lançamento: o crédito vale mesmo que ela tenha sido desativada depois do débito
+    record Creditar(String numeroConta, String contaId, String lancamentoId, Dinheiro valor,
+                    int tentativa) implements ComandoSaldo {
+
+        Creditar(String numeroConta, String contaId, String lancamentoId, Dinheiro valor) {
+            this(numeroConta, contaId, lancamentoId, valor, 0);
+        }
+    }
+
+    // Operação administrativa que precisa da conta fora da memória enquanto roda
+    record Exclusivo<T>(String numeroConta, Supplier<T> acao, CompletableFuture<T> resultado) implements ComandoSaldo {}
+}
@@ -0,0 +1,211 @@
+package com.senai.conta_bancaria.application.service.motor;
+
+import com.senai.conta_bancaria.application.dto.ContaResumoDTO;
+import com.senai.conta_bancaria.application.service.ContaCacheService;
+import com.senai.conta_bancaria.application.service.IdempotenciaService;
+import com.senai.conta_bancaria.application.service.IdempotenciaService.Requisicao;
+import com.senai.conta_bancaria.application.service.LivroRazaoService;
+import com.senai.conta_bancaria.application.service.SubSaldoService;
+import com.senai.conta_bancaria.domain.entity.Conta;
+import com.senai.conta_bancaria.domain.repository.ContaRepository;
+import com.senai.conta_bancaria.domain.repository.LancamentoRepository;
+import com.senai.conta_bancaria.domain.valueobject.Dinheiro;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Motor de saldos em memória ({@code conta.motor.habilitado=true}).
+ * As contas são divididas em partições pelo hash do número; cada partição tem uma única
+ * thread escritora, então o caminho quente não usa travas nem disputa linhas no banco.
+ * A gravação é feita em lotes (write-behind), uma transação por lote.
+ * <p>
+ * Pressupõe que esta instância é a única a alterar saldos enquanto o motor estiver ligado.
+ */
+@Service
+@ConditionalOnProperty(name = "conta.motor.habilitado", havingValue = "true")
+public class MotorSaldos implements SmartLifecycle {
+
+    private final ContaRepository contaRepository;
+    private final LancamentoRepository lancamentoRepository;
+    private final SubSaldoService subSaldos;
+    private final TransactionTemplate transacao;
+    private final ParticaoSaldos[] particoes;
+    private final boolean preCarregar;
+    private final List<Thread> threads = new ArrayList<>();
+    private volatile boolean rodando;
+
+    public MotorSaldos(ContaRepository contaRepository,
+                       LancamentoRepository lancamentoRepository,
+                       LivroRazaoService livroRazao,
+                       SubSaldoService subSaldos,
+                       IdempotenciaService idempotencia,
+                       ContaCacheService contaCache,
+                       TransactionTemplate transacao,
+                       MeterRegistry metricas,
+                       @Value("${conta.motor.particoes:4}") int quantidadeParticoes,
+                       @Value("${conta.motor.tamanho-fila:8192}") int tamanhoFila,
+                       @Value("${conta.motor.tamanho-lote:256}") int tamanhoLote,
+                       @Value("${conta.motor.pre-carregar:false}") boolean preCarregar) {
+        if (quantidadeParticoes <= 0) {
+            throw new IllegalArgumentException("A quantidade de partições deve ser maior que zero");
+        }
+        this.contaRepository = contaRepository;
+        this.lancamentoRepository = lancamentoRepository;
+        this.subSaldos = subSaldos;
+        this.transacao = transacao;
+        this.preCarregar = preCarregar;
+        this.particoes = new ParticaoSaldos[quantidadeParticoes];
+
+        Counter adiamentos = metricas.counter("conta.motor.creditos.adiados");
+        Counter creditosFalhos = metricas.counter("conta.motor.creditos.falhos");
+        for (int i = 0; i < quantidadeParticoes; i++) {
+            particoes[i] = new ParticaoSaldos(tamanhoFila, tamanhoLote, this,
+                    contaRepository, livroRazao, idempotencia, contaCache, transacao, adiamentos, creditosFalhos);
+            Gauge.builder("conta.motor.fila", particoes[i], ParticaoSaldos::tamanhoFila)
+                    .tag("particao", String.valueOf(i))
+                    .register(metricas);
+        }
+    }
+
+    public ContaResumoDTO sacar(String numeroConta, Dinheiro valor, Requisicao requisicao) {
+        CompletableFuture<ContaResumoDTO> resultado = new CompletableFuture<>();
+        enviar(new ComandoSaldo.Sacar(numeroConta, valor, requisicao, resultado));
+        return aguardar(resultado);
+    }
+
+    public ContaResumoDTO depositar(String numeroConta, Dinheiro valor, Requisicao requisicao) {
+        CompletableFuture<ContaResumoDTO> resultado = new CompletableFuture<>();
+        enviar(new ComandoSaldo.Depositar(numeroConta, valor, requisicao, resultado));
+        return aguardar(resultado);
+    }
+
+    public ContaResumoDTO transferir(String numeroConta, String contaDestino, Dinheiro valor,
+                                     Requisicao requisicao) {
+        return aguardar(transferirAsync(numeroConta, contaDestino, valor, requisicao));
+    }
+
+    public CompletableFuture<ContaResumoDTO> transferirAsync(String numeroConta, String contaDestino,
+                                                             Dinheiro valor, Requisicao requisicao) {
+        CompletableFuture<ContaResumoDTO> resultado = new CompletableFuture<>();
+        enviar(new ComandoSaldo.Transferir(numeroConta, contaDestino, valor, requisicao, resultado));
+        return resultado;
+    }
+
+    /**
+     * Roda {@code acao} na thread da partição da conta, com a conta fora da memória.
+     * Serve para operações administrativas que gravam direto no banco.
+     */
+    public <T> T executarExclusivo(String numeroConta, Supplier<T> acao) {
+        CompletableFuture<T> resultado = new CompletableFuture<>();
+        enviar(new ComandoSaldo.Exclusivo<>(numeroConta, acao, resultado));
+        return aguardar(resultado);
+    }
+
+    ParticaoSaldos particaoDe(String numeroConta) {
+        return particoes[Math.floorMod(numeroConta.hashCode(), particoes.length)];
+    }
+
+    void encaminharCredito(ComandoSaldo.Creditar credito) {
+        particaoDe(credito.numeroConta()).enviarCredito(credito);
+    }
+
+    @Override
+    public void start() {
+        for (ParticaoSaldos particao : particoes) {
+            particao.iniciar();
+        }
+        recuperar();
+
+        for (int i = 0; i < particoes.length; i++) {
+            Thread thread = new Thread(particoes[i], "motor-saldos-" + i);
+            thread.start();
+            threads.add(thread);
+        }
+        rodando = true;
+    }
+
+    @Override
+    public void stop() {
+        rodando = false;
+        for (ParticaoSaldos particao : particoes) {
+            particao.parar();
+        }
+        for (Thread thread : threads) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        threads.clear();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return rodando;
+    }
+
+    // Sobe antes do servidor web e só para depois que ele drenou as requisições em andamento
+    @Override
+    public int getPhase() {
+        return WebServerApplicationContext.START_STOP_LIFECYCLE_PHASE - 1024;
+    }
+
+    /**
+     * Reconstrói o estado antes de aceitar comandos: consolida os sub-saldos de contas quentes
+     * (o motor guarda o saldo inteiro na conta), carrega as contas se configurado e
+     * reenvia os créditos de transferências entre partições que não chegaram ao destino.
+     * O banco é a fonte da verdade: cada resposta só saiu depois do commit do seu lote.
+     */
+    private void recuperar() {
+        transacao.executeWithoutResult(status -> contaRepository.listarNumerosContasQuentes().forEach(numero ->
+                contaRepository.buscarAtivaParaAtualizacao(numero).ifPresent(subSaldos::consolidar)));
+
+        if (preCarregar) {
+            for (Conta conta : contaRepository.findAllByAtivaTrue()) {
+                particaoDe(conta.getNumero()).carregar(conta);
+            }
+        }
+
+        lancamentoRepository.listarCreditosPendentes().forEach(credito -> encaminharCredito(
+                new ComandoSaldo.Creditar(credito.getNumeroConta(), credito.getContaId(), credito.getId(),
+                        Dinheiro.de(credito.getValor()))));
+    }
+
+    private void enviar(ComandoSaldo comando) {
+        if (!rodando) {
+            throw new IllegalStateException("Motor de saldos parado");
+        }
+        try {
+            particaoDe(comando.numeroConta()).enviar(comando);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Envio ao motor de saldos interrompido", e);
+        }
+    }
+
+    private static <T> T aguardar(CompletableFuture<T> resultado) {
+        try {
+            return resultado.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,411 @@
+package com.senai.conta_bancaria.application.service.motor;
+
+import com.senai.conta_bancaria.application.dto.ContaResumoDTO;
+import com.senai.conta_bancaria.application.service.ContaCacheService;
+import com.senai.conta_bancaria.application.service.IdempotenciaService;
+import com.senai.conta_bancaria.application.service.LivroRazaoService;
+import com.senai.conta_bancaria.domain.entity.Conta;
+import com.senai.conta_bancaria.domain.enums.TipoLancamento;
+import com.senai.conta_bancaria.domain.exception.EntidadeNaoEncontradaException;
+import com.senai.conta_bancaria.domain.repository.ContaRepository;
+import com.senai.conta_bancaria.domain.valueobject.Dinheiro;
+import io.micrometer.core.instrument.Counter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.IncorrectUpdateSemanticsDataAccessException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Uma partição do {@link MotorSaldos}: uma única thread consome a fila de comandos,
+ * aplica-os nas contas em memória e grava cada lote em uma transação.
+ * As respostas só são liberadas depois do commit do lote.
+ */
+@Slf4j
+final class ParticaoSaldos implements Runnable {
+
+    private static final long ESPERA_MS = 10;
+    private static final long ESPERA_CREDITO_BASE_MS = 100;
+    private static final long ESPERA_CREDITO_MAXIMA_MS = 30_000;
+
+    private final ArrayBlockingQueue<ComandoSaldo> fila;
+    // Créditos entre partições que não couberam na fila; não podem bloquear a partição de origem
+    private final Queue<ComandoSaldo.Creditar> creditosExcedentes = new ConcurrentLinkedQueue<>();
+    // Créditos que falharam e esperam a próxima tentativa; só a thread da partição mexe nesta fila
+    private final PriorityQueue<CreditoAdiado> creditosAdiados =
+            new PriorityQueue<>(Comparator.comparingLong(CreditoAdiado::quando));
+    private final int tamanhoLote;
+    private final MotorSaldos motor;
+    private final ContaRepository repository;
+    private final LivroRazaoService livroRazao;
+    private final IdempotenciaService idempotencia;
+    private final ContaCacheService contaCache;
+    private final TransactionTemplate transacao;
+    private final Counter adiamentos;
+    private final Counter creditosFalhos;
+
+    // Só a thread da partição lê ou altera este mapa
+    private final Map<String, Conta> contas = new HashMap<>();
+    private volatile boolean rodando = true;
+
+    ParticaoSaldos(int tamanhoFila, int tamanhoLote, MotorSaldos motor, ContaRepository repository,
+                   LivroRazaoService livroRazao, IdempotenciaService idempotencia, ContaCacheService contaCache,
+                   TransactionTemplate transacao, Counter adiamentos, Counter creditosFalhos) {
+        this.fila = new ArrayBlockingQueue<>(tamanhoFila);
+        this.tamanhoLote = tamanhoLote;
+        this.motor = motor;
+        this.repository = repository;
+        this.livroRazao = livroRazao;
+        this.idempotencia = idempotencia;
+        this.contaCache = contaCache;
+        this.transacao = transacao;
+        this.adiamentos = adiamentos;
+        this.creditosFalhos = creditosFalhos;
+    }
+
+    /**
+     * Bloqueia enquanto a fila estiver cheia: é a contrapressão do motor.
+     */
+    void enviar(ComandoSaldo comando) throws InterruptedException {
+        fila.put(comando);
+    }
+
+    void enviarCredito(ComandoSaldo.Creditar credito) {
+        if (!fila.offer(credito)) {
+            creditosExcedentes.add(credito);
+        }
+    }
+
+    /**
+     * Prepara a partição para uma nova thread. Descarta o que ficou em memória de uma execução
+     * anterior: o banco pode ter mudado enquanto o motor estava parado, e os créditos adiados
+     * continuam pendentes no banco, de onde a recuperação os reenvia.
+     */
+    void iniciar() {
+        contas.clear();
+        creditosAdiados.clear();
+        rodando = true;
+    }
+
+    // Só antes de a thread iniciar
+    void carregar(Conta conta) {
+        contas.put(conta.getNumero(), conta);
+    }
+
+    void parar() {
+        rodando = false;
+    }
+
+    int tamanhoFila() {
+        return fila.size() + creditosExcedentes.size();
+    }
+
+    @Override
+    public void run() {
+        List<ComandoSaldo> lote = new ArrayList<>(tamanhoLote);
+
+        while (rodando || tamanhoFila() > 0) {
+            try {
+                long agora = System.currentTimeMillis();
+                while (lote.size() < tamanhoLote && !creditosAdiados.isEmpty()
+                        && creditosAdiados.peek().quando() <= agora) {
+                    lote.add(creditosAdiados.poll().credito());
+                }
+
+                ComandoSaldo.Creditar excedente;
+                while (lote.size() < tamanhoLote && (excedente = creditosExcedentes.poll()) != null) {
+                    lote.add(excedente);
+                }
+
+                ComandoSaldo primeiro = fila.poll(ESPERA_MS, TimeUnit.MILLISECONDS);
+                if (primeiro != null) {
+                    lote.add(primeiro);
+                    fila.drainTo(lote, tamanhoLote - lote.size());
+                }
+
+                executar(lote);
+            } catch (InterruptedException e) {
+                // A parada é controlada por "rodando"; a fila ainda é esvaziada antes de sair
+                Thread.interrupted();
+            } catch (RuntimeException e) {
+                log.error("Falha inesperada na partição do motor de saldos", e);
+            } finally {
+                lote.clear();
+            }
+        }
+    }
+
+    private void executar(List<ComandoSaldo> lote) {
+        List<ComandoSaldo> pendentes = new ArrayList<>(lote.size());
+
+        for (ComandoSaldo comando : lote) {
+            if (comando instanceof ComandoSaldo.Exclusivo<?> exclusivo) {
+                processar(pendentes);
+                pendentes.clear();
+                executarExclusivo(exclusivo);
+            } else {
+                pendentes.add(comando);
+            }
+        }
+        processar(pendentes);
+    }
+
+    private <T> void executarExclusivo(ComandoSaldo.Exclusivo<T> comando) {
+        // A ação grava direto no banco; a conta é recarregada no próximo comando
+        contas.remove(comando.numeroConta());
+        try {
+            comando.resultado().complete(comando.acao().get());
+        } catch (RuntimeException e) {
+            comando.resultado().completeExceptionally(e);
+        }
+    }
+
+    private void processar(List<ComandoSaldo> comandos) {
+        if (comandos.isEmpty()) {
+            return;
+        }
+
+        Lote lote = new Lote();
+        for (ComandoSaldo comando : comandos) {
+            try {
+                aplicar(comando, lote);
+            } catch (RuntimeException e) {
+                // Validação de domínio: nada foi alterado na memória
+                falhar(comando, e);
+            }
+        }
+        if (lote.aplicados.isEmpty()) {
+            return;
+        }
+
+        try {
+            transacao.executeWithoutResult(status -> gravar(lote));
+        } catch (RuntimeException e) {
+            lote.contas.keySet().forEach(contas::remove);
+
+            if (lote.aplicados.size() == 1) {
+                falhar(lote.aplicados.get(0).comando(), e);
+                return;
+            }
+            // Um comando derrubou o lote inteiro: refaz um a um para isolar o culpado
+            lote.aplicados.forEach(aplicado -> processar(List.of(aplicado.comando())));
+            return;
+        }
+
+        lote.contas.values().forEach(conta -> conta.setVersao(conta.getVersao() + 1));
+        contaCache.invalidar(lote.contas.keySet());
+        lote.aplicados.forEach(this::concluir);
+    }
+
+    private void aplicar(ComandoSaldo comando, Lote lote) {
+        switch (comando) {
+            case ComandoSaldo.Sacar sacar -> {
+                Conta conta = conta(sacar.numeroConta());
+                Dinheiro saldoAnterior = conta.getSaldo();
+
+                conta.sacar(sacar.valor());
+                lote.movimentar(conta, saldoAnterior, TipoLancamento.SAQUE, null);
+                lote.aplicados.add(new Aplicado(comando, ContaResumoDTO.fromEntity(conta), null));
+            }
+            case ComandoSaldo.Depositar depositar -> {
+                Conta conta = conta(depositar.numeroConta());
+                Dinheiro saldoAnterior = conta.getSaldo();
+
+                conta.depositar(depositar.valor());
+                lote.movimentar(conta, saldoAnterior, TipoLancamento.DEPOSITO, null);
+                lote.aplicados.add(new Aplicado(comando, ContaResumoDTO.fromEntity(conta), null));
+            }
+            case ComandoSaldo.Transferir transferir -> aplicarTransferencia(transferir, lote);
+            case ComandoSaldo.Creditar creditar -> {
+                Conta conta = contaDoCredito(creditar);
+                Dinheiro saldoAnterior = conta.getSaldo();
+
+                conta.depositar(creditar.valor());
+                lote.contas.put(conta.getNumero(), conta);
+                lote.movimentos.add(new LivroRazaoService.Movimento(conta, saldoAnterior, creditar.valor(),
+                        TipoLancamento.TRANSFERENCIA_RECEBIDA, null, creditar.lancamentoId()));
+                lote.aplicados.add(new Aplicado(comando, null, null));
+            }
+            case ComandoSaldo.Exclusivo<?> exclusivo -> throw new IllegalStateException("Comando exclusivo fora de ordem");
+        }
+    }
+
+    private void aplicarTransferencia(ComandoSaldo.Transferir transferir, Lote lote) {
+        Conta origem = conta(transferir.numeroConta());
+        String transferenciaId = UUID.randomUUID().toString();
+
+        if (motor.particaoDe(transferir.contaDestino()) == this) {
+            Conta destino = conta(transferir.contaDestino());
+            Dinheiro saldoAnteriorOrigem = origem.getSaldo();
+            Dinheiro saldoAnteriorDestino = destino.getSaldo();
+
+            origem.transferir(transferir.valor(), destino);
+            lote.movimentar(origem, saldoAnteriorOrigem, TipoLancamento.TRANSFERENCIA_ENVIADA, transferenciaId);
+            lote.movimentar(destino, saldoAnteriorDestino, TipoLancamento.TRANSFERENCIA_RECEBIDA, transferenciaId);
+            lote.aplicados.add(new Aplicado(transferir, ContaResumoDTO.fromEntity(origem), null));
+            return;
+        }
+
+        // Destino em outra partição: debita aqui e manda o crédito depois do commit
+        String destinoId = repository.buscarIdAtivaPorNumero(transferir.contaDestino())
+                .orElseThrow(() -> new EntidadeNaoEncontradaException("conta"));
+        Dinheiro saldoAnterior = origem.getSaldo();
+
+        origem.sacar(transferir.valor());
+        lote.movimentar(origem, saldoAnterior, TipoLancamento.TRANSFERENCIA_ENVIADA, transferenciaId);
+        lote.aplicados.add(new Aplicado(transferir, ContaResumoDTO.fromEntity(origem),
+                new CreditoPendente(destinoId, transferenciaId)));
+    }
+
+    private void gravar(Lote lote) {
+        livroRazao.registrarMovimentos(lote.movimentos);
+
+        for (Conta conta : lote.contas.values()) {
+            if (repository.gravarSaldo(conta.getId(), conta.getSaldo(),
+                    conta.getSequenciaLancamento(), conta.getVersao()) != 1) {
+                throw new ObjectOptimisticLockingFailureException(Conta.class, conta.getId());
+            }
+        }
+
+        for (Aplicado aplicado : lote.aplicados) {
+            switch (aplicado.comando()) {
+                case ComandoSaldo.Sacar sacar -> idempotencia.gravar(sacar.requisicao(), aplicado.resposta());
+                case ComandoSaldo.Depositar depositar -> idempotencia.gravar(depositar.requisicao(), aplicado.resposta());
+                case ComandoSaldo.Transferir transferir -> {
+                    if (aplicado.credito() != null) {
+                        aplicado.credito().lancamentoId = livroRazao.registrarCreditoPendente(
+                                repository.getReferenceById(aplicado.credito().contaId),
+                                transferir.valor(), aplicado.credito().transferenciaId).getId();
+                    }
+                    idempotencia.gravar(transferir.requisicao(), aplicado.resposta());
+                }
+                default -> { }
+            }
+        }
+    }
+
+    private void concluir(Aplicado aplicado) {
+        switch (aplicado.comando()) {
+            case ComandoSaldo.Sacar sacar -> sacar.resultado().complete(aplicado.resposta());
+            case ComandoSaldo.Depositar depositar -> depositar.resultado().complete(aplicado.resposta());
+            case ComandoSaldo.Transferir transferir -> {
+                if (aplicado.credito() != null) {
+                    motor.encaminharCredito(new ComandoSaldo.Creditar(transferir.contaDestino(),
+                            aplicado.credito().contaId, aplicado.credito().lancamentoId, transferir.valor()));
+                }
+                transferir.resultado().complete(aplicado.resposta());
+            }
+            default -> { }
+        }
+    }
+
+    private void falhar(ComandoSaldo comando, RuntimeException erro) {
+        CompletableFuture<ContaResumoDTO> resultado = switch (comando) {
+            case ComandoSaldo.Sacar sacar -> sacar.resultado();
+            case ComandoSaldo.Depositar depositar -> depositar.resultado();
+            case ComandoSaldo.Transferir transferir -> transferir.resultado();
+            default -> null;
+        };
+
+        if (resultado != null) {
+            resultado.completeExceptionally(erro);
+        } else if (comando instanceof ComandoSaldo.Creditar creditar) {
+            adiar(creditar, erro);
+        }
+    }
+
+    /**
+     * O débito já foi confirmado, então o crédito não pode ser descartado: falha do banco
+     * (lote derrubado, versão da conta alterada por fora) volta para a partição com espera crescente
+     * até dar certo. Se o motor parar antes, o lançamento continua pendente no banco e é reenviado
+     * na recuperação. Erro de domínio não passa com nova tentativa: fica registrado e o lançamento
+     * pendente espera correção manual.
+     */
+    private void adiar(ComandoSaldo.Creditar creditar, RuntimeException erro) {
+        if (erro instanceof IncorrectUpdateSemanticsDataAccessException) {
+            // Reenvio de um crédito que outro comando já confirmou
+            log.info("Crédito pendente {} já confirmado na conta {}", creditar.lancamentoId(), creditar.numeroConta());
+            return;
+        }
+        if (!(erro instanceof DataAccessException || erro instanceof TransactionException)) {
+            log.error("Crédito pendente {} de {} recusado pela conta {}; lançamento fica pendente",
+                    creditar.lancamentoId(), creditar.valor(), creditar.numeroConta(), erro);
+            creditosFalhos.increment();
+            return;
+        }
+
+        long espera = Math.min(ESPERA_CREDITO_MAXIMA_MS, ESPERA_CREDITO_BASE_MS << Math.min(creditar.tentativa(), 16));
+        log.warn("Crédito pendente {} não aplicado na conta {}; nova tentativa em {} ms",
+                creditar.lancamentoId(), creditar.numeroConta(), espera, erro);
+        adiamentos.increment();
+        creditosAdiados.add(new CreditoAdiado(new ComandoSaldo.Creditar(creditar.numeroConta(), creditar.contaId(),
+                creditar.lancamentoId(), creditar.valor(), creditar.tentativa() + 1),
+                System.currentTimeMillis() + espera));
+    }
+
+    private Conta conta(String numeroConta) {
+        Conta conta = contas.get(numeroConta);
+        if (conta == null) {
+            conta = repository.findByNumeroAndAtivaTrue(numeroConta)
+                    .orElseThrow(() -> new EntidadeNaoEncontradaException("conta"));
+            contas.put(numeroConta, conta);
+        }
+        return conta;
+    }
+
+    // Pela conta do lançamento, ativa ou não. Conta desativada não fica na memória: nenhum
+    // outro comando pode movimentá-la
+    private Conta contaDoCredito(ComandoSaldo.Creditar creditar) {
+        Conta conta = contas.get(creditar.numeroConta());
+        if (conta != null) {
+            return conta;
+        }
+        conta = repository.findById(creditar.contaId())
+                .orElseThrow(() -> new EntidadeNaoEncontradaException("conta"));
+        if (conta.isAtiva()) {
+            contas.put(conta.getNumero(), conta);
+        }
+        return conta;
+    }
+
+    private static final class Lote {
+        private final List<LivroRazaoService.Movimento> movimentos = new ArrayList<>();
+        private final Map<String, Conta> contas = new LinkedHashMap<>();
+        private final List<Aplicado> aplicados = new ArrayList<>();
+
+        private void movimentar(Conta conta, Dinheiro saldoAnterior, TipoLancamento tipo, String transferenciaId) {
+            contas.put(conta.getNumero(), conta);
+            movimentos.add(LivroRazaoService.Movimento.de(conta, saldoAnterior, tipo, transferenciaId));
+        }
+    }
+
+    private record CreditoAdiado(ComandoSaldo.Creditar credito, long quando) {}
+
+    private record Aplicado(ComandoSaldo comando, ContaResumoDTO resposta, CreditoPendente credito) {}
+
+    private static final class CreditoPendente {
+        private final String contaId;
+        private final String transferenciaId;
+        private String lancamentoId;
+
+        private CreditoPendente(String contaId, String transferenciaId) {
+            this.contaId = contaId;
+            this.transferenciaId = transferenciaId;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.senai.conta_bancaria.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Guarda a resposta de uma operação de dinheiro para devolvê-la em reenvios com a mesma chave
+@Entity
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "chave_idempotencia")
+public class ChaveIdempotencia {
+    @Id
+    @Column(length = 100)
+    private String chave;
+
+    @Column(nullable = false, length = 30)
+    private String operacao;
+
+    @Column(nullable = false, length = 20)
+    private String numeroConta;
+
+    // SHA-256 da operação, conta e dados enviados; reenvio com dados diferentes é rejeitado
+    @Column(nullable = false, length = 64)
+    private String impressao;
+
+    @Column(nullable = false, length = 20)
+    private String numeroResposta;
+
+    @Column(nullable = false, length = 20)
+    private String tipoResposta;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal saldoResposta;
+
+    @Column(nullable = false)
+    private LocalDateTime criadaEm;
+}
@@ -12,6 +12,7 @@ import java.util.List;
 @AllArgsConstructor
 @NoArgsConstructor
 @SuperBuilder
+@Cacheable(false)
 @Table(name = "cliente",
         uniqueConstraints = {
                 @UniqueConstraint(columnNames = "cpf")
@@ -3,11 +3,12 @@ package com.senai.conta_bancaria.domain.entity;
 import com.senai.conta_bancaria.domain.exception.SaldoInsuficienteException;
 import com.senai.conta_bancaria.domain.exception.TransferirParaMesmaContaException;
 import com.senai.conta_bancaria.domain.exception.ValoresNegativosException;
+import com.senai.conta_bancaria.domain.valueobject.Dinheiro;
 import jakarta.persistence.*;
+import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.experimental.SuperBuilder;
-import java.math.BigDecimal;
 
 @Entity
 @Data
@@ -19,6 +20,12 @@ import java.math.BigDecimal;
         uniqueConstraints =  {
                 @UniqueConstraint(name = "uk_conta_numero", columnNames = "numero"),
                 @UniqueConstraint(name = "uk_cliente_tipo", columnNames = {"cliente_id", "tipo_conta"})
+        },
+        // Listagem paginada por número (keyset), com filtros opcionais de tipo e faixa de saldo
+        indexes = {
+                @Index(name = "idx_conta_ativa_numero", columnList = "ativa, numero"),
+                @Index(name = "idx_conta_tipo_ativa_numero", columnList = "tipo_conta, ativa, numero"),
+                @Index(name = "idx_conta_ativa_saldo", columnList = "ativa, saldo")
         })
 public abstract class Conta {
     @Id
@@ -28,12 +35,30 @@ public abstract class Conta {
     @Column(nullable = false, length = 20)
     private String numero;
 
-    @Column(nullable = false, precision = 4)
-    private BigDecimal saldo;
+    @Column(nullable = false, precision = 19, scale = 2)
+    private Dinheiro saldo;
 
     @Column(nullable = false)
     private boolean ativa;
 
+    @Version
+    @Column(nullable = false)
+    private Long versao;
+
+    // Sequência do último lançamento registrado para a conta
+    @Builder.Default
+    @Column(nullable = false)
+    private long sequenciaLancamento = 0L;
+
+    // Conta quente: depósitos caem em sub-saldos (SubSaldoConta) em vez de disputar esta linha
+    @Builder.Default
+    @Column(nullable = false)
+    private boolean contaQuente = false;
+
+    @Builder.Default
+    @Column(nullable = false)
+    private int quantidadeSubSaldos = 0;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "cliente_id",
             foreignKey = @ForeignKey(name = "fk_conta_cliente"))
@@ -45,26 +70,26 @@ public abstract class Conta {
     // Obriga quem herdar a implementar esse metodo e retornar uma string
     public abstract String getTipo();
 
-    public void sacar(BigDecimal valor) {
+    public void sacar(Dinheiro valor) {
         validarValorMaiorQueZero(valor, "saque");
-        if(valor.compareTo(saldo) > 0) {
+        if(valor.maiorQue(saldo)) {
             throw new SaldoInsuficienteException("saque");
         }
-        saldo = saldo.subtract(valor);
+        saldo = saldo.subtrair(valor);
     }
 
-    public void depositar(BigDecimal valor) {
+    public void depositar(Dinheiro valor) {
         validarValorMaiorQueZero(valor, "deposito");
-        saldo = saldo.add(valor);
+        saldo = saldo.somar(valor);
     }
 
-    protected static void validarValorMaiorQueZero(BigDecimal valor,String operacao) {
-        if(valor.compareTo(BigDecimal.ZERO) <= 0) {
+    protected static void validarValorMaiorQueZero(Dinheiro valor,String operacao) {
+        if(valor.signum() <= 0) {
             throw new ValoresNegativosException(operacao);
         }
     }
 
-    public void transferir(BigDecimal valor, Conta contaDestino) {
+    public void transferir(Dinheiro valor, Conta contaDestino) {
         if(this.id.equals(contaDestino.getId())) {
             throw new TransferirParaMesmaContaException();
         }
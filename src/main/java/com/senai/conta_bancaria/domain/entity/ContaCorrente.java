@@ -1,6 +1,7 @@
 package com.senai.conta_bancaria.domain.entity;
 
 import com.senai.conta_bancaria.domain.exception.SaldoInsuficienteException;
+import com.senai.conta_bancaria.domain.valueobject.Dinheiro;
 import jakarta.persistence.Column;
 import jakarta.persistence.DiscriminatorValue;
 import jakarta.persistence.Entity;
@@ -20,7 +21,7 @@ import java.math.BigDecimal;
 public class ContaCorrente extends Conta {
 
     @Column(precision = 19, scale = 2)
-    private BigDecimal limite;
+    private Dinheiro limite;
 
     @Column(precision = 19, scale = 2)
     private BigDecimal taxa;
@@ -31,16 +32,16 @@ public class ContaCorrente extends Conta {
     }
 
     @Override
-    public void sacar(BigDecimal valor) {
+    public void sacar(Dinheiro valor) {
         validarValorMaiorQueZero(valor, "saque");
 
-        BigDecimal custoSaque = valor.multiply(taxa);
-        BigDecimal totalSaque = valor.add(custoSaque);
+        Dinheiro custoSaque = valor.multiplicar(taxa);
+        Dinheiro totalSaque = valor.somar(custoSaque);
 
-        if(getSaldo().add(limite).compareTo(totalSaque) < 0) {
+        if(getSaldo().somar(limite).menorQue(totalSaque)) {
             throw new SaldoInsuficienteException("saque");
         }
 
-        this.setSaldo(this.getSaldo().subtract(totalSaque));
+        this.setSaldo(this.getSaldo().subtrair(totalSaque));
     }
 }
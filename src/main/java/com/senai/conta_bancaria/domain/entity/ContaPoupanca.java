@@ -1,5 +1,6 @@
 package com.senai.conta_bancaria.domain.entity;
 
+import com.senai.conta_bancaria.domain.valueobject.Dinheiro;
 import jakarta.persistence.Column;
 import jakarta.persistence.DiscriminatorValue;
 import jakarta.persistence.Entity;
@@ -18,7 +19,7 @@ import java.math.BigDecimal;
 @NoArgsConstructor
 public class ContaPoupanca extends Conta{
 
-    @Column(precision = 5)
+    @Column(precision = 7, scale = 4)
     private BigDecimal rendimento;
 
     @Override
@@ -27,7 +28,7 @@ public class ContaPoupanca extends Conta{
     }
 
     public void aplicarRendimento() {
-        BigDecimal valorRendimento = getSaldo().multiply(rendimento);
-        setSaldo(getSaldo().add(valorRendimento));
+        Dinheiro valorRendimento = getSaldo().multiplicar(rendimento);
+        setSaldo(getSaldo().somar(valorRendimento));
     }
 }
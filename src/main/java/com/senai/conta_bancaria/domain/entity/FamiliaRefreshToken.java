@@ -0,0 +1,40 @@
+package com.senai.conta_bancaria.domain.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Sessão aberta por um login: só o refresh token com jtiAtual troca por um novo
+@Entity
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "familia_refresh_token")
+public class FamiliaRefreshToken {
+    @Id
+    @Column(length = 36)
+    private String id;
+
+    @Column(nullable = false)
+    private String email;
+
+    @Column(nullable = false, length = 36)
+    private String jtiAtual;
+
+    @Column(nullable = false)
+    private boolean revogada;
+
+    @Column(nullable = false)
+    private LocalDateTime criadaEm;
+
+    @Column(nullable = false)
+    private LocalDateTime atualizadaEm;
+}
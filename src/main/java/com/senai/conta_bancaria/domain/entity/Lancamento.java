@@ -0,0 +1,50 @@
+package com.senai.conta_bancaria.domain.entity;
+
+import com.senai.conta_bancaria.domain.enums.TipoLancamento;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Lançamentos são só inseridos, nunca alterados: o saldo é a soma deles
+@Entity
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "lancamento",
+        uniqueConstraints = {
+                @UniqueConstraint(name = "uk_lancamento_conta_sequencia", columnNames = {"conta_id", "sequencia"})
+        })
+public class Lancamento {
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private String id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "conta_id", foreignKey = @ForeignKey(name = "fk_lancamento_conta"))
+    private Conta conta;
+
+    // Nulo enquanto o crédito estiver num sub-saldo de conta quente, ainda não consolidado
+    private Long sequencia;
+
+    private Integer subSaldo;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 30)
+    private TipoLancamento tipo;
+
+    // Positivo para crédito, negativo para débito
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal valor;
+
+    @Column(length = 36)
+    private String transferenciaId;
+
+    @Column(nullable = false)
+    private LocalDateTime dataHora;
+}
@@ -0,0 +1,34 @@
+package com.senai.conta_bancaria.domain.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Refresh token já trocado: apresentá-lo de novo é reuso e encerra a família
+@Entity
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "refresh_token_revogado")
+public class RefreshTokenRevogado {
+    @Id
+    @Column(length = 36)
+    private String jti;
+
+    @Column(nullable = false, length = 36)
+    private String familiaId;
+
+    @Column(nullable = false)
+    private LocalDateTime expiraEm;
+
+    @Column(nullable = false)
+    private LocalDateTime revogadoEm;
+}
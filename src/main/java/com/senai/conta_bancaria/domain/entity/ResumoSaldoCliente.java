@@ -0,0 +1,42 @@
+package com.senai.conta_bancaria.domain.entity;
+
+import com.senai.conta_bancaria.domain.valueobject.Dinheiro;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Totais das contas ativas de um cliente, mantidos por delta a cada movimentação.
+ * O saldo é o consolidado das contas: créditos ainda em sub-saldos entram na consolidação.
+ */
+@Entity
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "resumo_saldo_cliente")
+public class ResumoSaldoCliente {
+    @Id
+    @Column(length = 255)
+    private String clienteId;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private Dinheiro saldoTotal;
+
+    @Column(nullable = false)
+    private int quantidadeCorrente;
+
+    @Column(nullable = false)
+    private int quantidadePoupanca;
+
+    private LocalDateTime ultimaMovimentacao;
+}
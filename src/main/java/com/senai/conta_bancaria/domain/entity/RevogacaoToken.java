@@ -0,0 +1,31 @@
+package com.senai.conta_bancaria.domain.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Tokens de acesso do e-mail com versão abaixo de versaoMinima deixam de valer
+@Entity
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "revogacao_token")
+public class RevogacaoToken {
+    @Id
+    @Column(length = 255)
+    private String email;
+
+    @Column(nullable = false)
+    private long versaoMinima;
+
+    @Column(nullable = false)
+    private LocalDateTime alteradoEm;
+}
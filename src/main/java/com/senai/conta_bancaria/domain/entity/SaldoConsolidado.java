@@ -0,0 +1,39 @@
+package com.senai.conta_bancaria.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Fotografia periódica do saldo: saldo = consolidado + lançamentos com sequência maior
+@Entity
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "saldo_consolidado",
+        uniqueConstraints = {
+                @UniqueConstraint(name = "uk_consolidado_conta_sequencia", columnNames = {"conta_id", "sequencia"})
+        })
+public class SaldoConsolidado {
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private String id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "conta_id", foreignKey = @ForeignKey(name = "fk_consolidado_conta"))
+    private Conta conta;
+
+    @Column(nullable = false)
+    private Long sequencia;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal saldo;
+
+    @Column(nullable = false)
+    private LocalDateTime dataHora;
+}
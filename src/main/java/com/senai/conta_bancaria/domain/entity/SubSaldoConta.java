@@ -0,0 +1,41 @@
+package com.senai.conta_bancaria.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+
+@Entity
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "sub_saldo_conta",
+        uniqueConstraints = {
+                @UniqueConstraint(name = "uk_sub_saldo_conta_slot", columnNames = {"conta_id", "slot"})
+        })
+public class SubSaldoConta {
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private String id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "conta_id", foreignKey = @ForeignKey(name = "fk_sub_saldo_conta"))
+    private Conta conta;
+
+    @Column(nullable = false)
+    private int slot;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal saldo;
+
+    // Incrementada a cada crédito; compõe o ETag da conta quente
+    @Builder.Default
+    @Column(nullable = false)
+    private long versao = 0L;
+}
@@ -6,6 +6,8 @@ import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import lombok.*;
 import lombok.experimental.SuperBuilder;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Getter
 @Setter
@@ -14,6 +16,9 @@ import lombok.experimental.SuperBuilder;
 @NoArgsConstructor
 @AllArgsConstructor
 @Inheritance(strategy = InheritanceType.JOINED)
+// Na hierarquia só Gerente fica no cache; Cliente desliga com @Cacheable(false)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "conta.usuario")
 public abstract class Usuario {
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
@@ -42,4 +47,7 @@ public abstract class Usuario {
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     protected Role role;
+
+    @Version
+    protected Long versao;
 }
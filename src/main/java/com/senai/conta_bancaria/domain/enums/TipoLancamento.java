@@ -0,0 +1,12 @@
+package com.senai.conta_bancaria.domain.enums;
+
+public enum TipoLancamento {
+    ABERTURA,
+    DEPOSITO,
+    SAQUE,
+    TRANSFERENCIA_ENVIADA,
+    TRANSFERENCIA_RECEBIDA,
+    RENDIMENTO,
+    AJUSTE,
+    CONSOLIDACAO_SUBSALDOS
+}
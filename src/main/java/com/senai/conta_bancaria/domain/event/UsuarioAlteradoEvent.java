@@ -0,0 +1,19 @@
+package com.senai.conta_bancaria.domain.event;
+
+import com.senai.conta_bancaria.domain.entity.Usuario;
+
+/**
+ * Publicado depois de gravar uma mudança que afeta tokens já emitidos: papel, e-mail,
+ * senha ou desativação. {@code versao} é a do usuário já gravado.
+ */
+public record UsuarioAlteradoEvent(String email, Long versao, boolean ativo) {
+
+    public static UsuarioAlteradoEvent de(Usuario usuario) {
+        return new UsuarioAlteradoEvent(usuario.getEmail(), usuario.getVersao(), Boolean.TRUE.equals(usuario.getAtivo()));
+    }
+
+    // E-mail antigo de quem trocou de e-mail: nenhum token emitido para ele vale mais
+    public static UsuarioAlteradoEvent emailSubstituido(String email) {
+        return new UsuarioAlteradoEvent(email, null, false);
+    }
+}
@@ -0,0 +1,7 @@
+package com.senai.conta_bancaria.domain.exception;
+
+public class ChaveIdempotenciaInvalidaException extends RuntimeException {
+    public ChaveIdempotenciaInvalidaException() {
+        super("A chave de idempotência já foi usada em uma requisição com outros dados.");
+    }
+}
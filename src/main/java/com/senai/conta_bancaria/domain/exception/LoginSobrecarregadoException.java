@@ -0,0 +1,7 @@
+package com.senai.conta_bancaria.domain.exception;
+
+public class LoginSobrecarregadoException extends RuntimeException {
+    public LoginSobrecarregadoException() {
+        super("Muitos logins em andamento. Tente novamente em instantes.");
+    }
+}
@@ -1,7 +1,10 @@
 package com.senai.conta_bancaria.domain.repository;
 
 import com.senai.conta_bancaria.domain.entity.Cliente;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -9,7 +12,19 @@ import java.util.Optional;
 
 @Repository
 public interface ClienteRepository extends JpaRepository<Cliente, String> {
+    // As contas vêm no mesmo select: ClienteResponseDTO sempre percorre a lista
+    @EntityGraph(attributePaths = "contas")
     Optional<Cliente> findByCpfAndAtivoTrue(String cpf);
 
+    @EntityGraph(attributePaths = "contas")
     List<Cliente> findAllByAtivoTrue();
+
+    @Query("select c.id from Cliente c")
+    List<String> listarIds();
+
+    @Query("select c.id from Cliente c where c.cpf = :cpf and c.ativo = true")
+    Optional<String> buscarIdAtivoPorCpf(@Param("cpf") String cpf);
+
+    @Query("select c.versao from Cliente c where c.cpf = :cpf and c.ativo = true")
+    Optional<Long> buscarVersaoAtiva(@Param("cpf") String cpf);
 }
@@ -1,17 +1,133 @@
 package com.senai.conta_bancaria.domain.repository;
 
 import com.senai.conta_bancaria.domain.entity.Conta;
-import com.senai.conta_bancaria.domain.entity.ContaCorrente;
+import com.senai.conta_bancaria.domain.valueobject.Dinheiro;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface ContaRepository extends JpaRepository<Conta, String> {
+public interface ContaRepository extends JpaRepository<Conta, String>, JpaSpecificationExecutor<Conta>,
+        ContaRepositoryCustom {
 
     List<Conta> findAllByAtivaTrue();
     Optional<Conta> findByNumeroAndAtivaTrue(String numero);
 
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select c from Conta c where c.numero = :numero and c.ativa = true")
+    Optional<Conta> buscarAtivaParaAtualizacao(@Param("numero") String numero);
+
+    List<Conta> findAllByNumeroInAndAtivaTrue(Collection<String> numeros);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select c from Conta c where c.numero in :numeros and c.ativa = true order by c.numero")
+    List<Conta> buscarAtivasParaAtualizacao(@Param("numeros") Collection<String> numeros);
+
+    @Query("select c.numero from Conta c where c.contaQuente = true and c.ativa = true")
+    List<String> listarNumerosContasQuentes();
+
+    // Exportação: lida em blocos pelo driver; no MySQL exige useCursorFetch=true na URL.
+    // Só colunas, com os sub-saldos somados como no saldo de buscarContaPorNumero
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("select c.numero as numero, c.tipoConta as tipoConta, cl.cpf as cpfCliente, c.saldo as saldo, " +
+            "c.ativa as ativa, " +
+            "(select coalesce(sum(s.saldo), 0) from SubSaldoConta s where s.conta = c) as saldoSubSaldos " +
+            "from Conta c left join c.cliente cl order by c.numero")
+    Stream<ContaExportacao> streamParaExportacao();
+
+    interface ContaExportacao {
+        String getNumero();
+        String getTipoConta();
+        String getCpfCliente();
+        Dinheiro getSaldo();
+        boolean isAtiva();
+        BigDecimal getSaldoSubSaldos();
+    }
+
+    // Leitura sem entidade: só as colunas, nada entra no contexto de persistência
+    @Query("select c.id as id, c.numero as numero, c.tipoConta as tipoConta, c.cliente.id as clienteId, " +
+            "c.saldo as saldo, c.sequenciaLancamento as sequenciaLancamento, " +
+            "c.quantidadeSubSaldos as quantidadeSubSaldos " +
+            "from Conta c where c.numero = :numero and c.ativa = true")
+    Optional<ContaLeitura> buscarLeituraAtiva(@Param("numero") String numero);
+
+    interface ContaLeitura {
+        String getId();
+        String getNumero();
+        String getTipoConta();
+        String getClienteId();
+        Dinheiro getSaldo();
+        long getSequenciaLancamento();
+        int getQuantidadeSubSaldos();
+    }
+
+    // Versão da linha mais a dos sub-saldos: créditos em conta quente não tocam a linha da conta
+    @Query("select c.numero as numero, c.versao as versao, " +
+            "(select coalesce(sum(s.versao), 0) from SubSaldoConta s where s.conta = c) as versaoSubSaldos " +
+            "from Conta c where c.numero = :numero and c.ativa = true")
+    Optional<VersaoConta> buscarVersaoAtiva(@Param("numero") String numero);
+
+    @Query("select c.numero as numero, c.versao as versao, " +
+            "(select coalesce(sum(s.versao), 0) from SubSaldoConta s where s.conta = c) as versaoSubSaldos " +
+            "from Conta c where c.cliente.cpf = :cpf order by c.numero")
+    List<VersaoConta> listarVersoesPorCpfCliente(@Param("cpf") String cpf);
+
+    interface VersaoConta {
+        String getNumero();
+        Long getVersao();
+        Long getVersaoSubSaldos();
+    }
+
+    @Query("select c.id from Conta c where c.numero = :numero and c.ativa = true")
+    Optional<String> buscarIdAtivaPorNumero(@Param("numero") String numero);
+
+    // Débito, taxa e limite num único UPDATE; 0 linhas = não debitou (o chamador decide o motivo)
+    // SQL nativo porque saldo e limite são Dinheiro na entidade; ROUND segue Dinheiro.ARREDONDAMENTO
+    @Modifying
+    @Query(value = "update conta_dto set saldo = saldo - (:valor + round(:valor * coalesce(taxa, 0), 2)), " +
+            "sequencia_lancamento = sequencia_lancamento + 1, versao = versao + 1 " +
+            "where numero = :numero and tipo_conta = 'CORRENTE' and ativa = true and conta_quente = false " +
+            "and sequencia_lancamento > 0 and :valor > 0 " +
+            "and saldo + coalesce(limite, 0) >= :valor + round(:valor * coalesce(taxa, 0), 2)",
+            nativeQuery = true)
+    int debitarCorrente(@Param("numero") String numero, @Param("valor") BigDecimal valor);
+
+    @Query("select c.id as id, c.cliente.id as clienteId, c.saldo as saldo, " +
+            "c.sequenciaLancamento as sequencia, c.taxa as taxa " +
+            "from ContaCorrente c where c.numero = :numero and c.ativa = true")
+    Optional<SaldoCorrente> buscarSaldoCorrente(@Param("numero") String numero);
+
+    interface SaldoCorrente {
+        String getId();
+        String getClienteId();
+        Dinheiro getSaldo();
+        long getSequencia();
+        BigDecimal getTaxa();
+    }
+
+    // Escrita do motor de saldos: a conta vem da memória, então a checagem de versão é feita aqui
+    @Modifying
+    @Query("update Conta c set c.saldo = :saldo, c.sequenciaLancamento = :sequencia, c.versao = c.versao + 1 " +
+            "where c.id = :id and c.versao = :versao")
+    int gravarSaldo(@Param("id") String id, @Param("saldo") Dinheiro saldo,
+                    @Param("sequencia") long sequencia, @Param("versao") Long versao);
+
 }
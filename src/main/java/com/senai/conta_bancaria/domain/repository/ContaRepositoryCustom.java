@@ -0,0 +1,28 @@
+package com.senai.conta_bancaria.domain.repository;
+
+import com.senai.conta_bancaria.domain.entity.Conta;
+import com.senai.conta_bancaria.domain.valueobject.Dinheiro;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Consultas de leitura que devolvem só as colunas usadas, sem montar entidades.
+ */
+public interface ContaRepositoryCustom {
+
+    /**
+     * Até {@code limite} contas que atendem {@code filtro}, ordenadas pelo número.
+     * Traz também a soma dos sub-saldos, que só conta quente tem.
+     */
+    List<ResumoConta> listarResumos(Specification<Conta> filtro, int limite);
+
+    record ResumoConta(String numero, String tipoConta, Dinheiro saldo, BigDecimal saldoSubSaldos) {
+
+        // O mesmo saldo de GET /api/conta/{numero}: a linha mais os créditos ainda em sub-saldos
+        public Dinheiro saldoTotal() {
+            return saldo.somar(Dinheiro.de(saldoSubSaldos));
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.senai.conta_bancaria.domain.repository;
+
+import com.senai.conta_bancaria.domain.entity.Conta;
+import com.senai.conta_bancaria.domain.entity.SubSaldoConta;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+class ContaRepositoryCustomImpl implements ContaRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<ResumoConta> listarResumos(Specification<Conta> filtro, int limite) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ResumoConta> consulta = cb.createQuery(ResumoConta.class);
+        Root<Conta> conta = consulta.from(Conta.class);
+
+        // Subconsulta correlacionada: conta fria não tem linhas em sub_saldo_conta e soma zero
+        Subquery<BigDecimal> subSaldos = consulta.subquery(BigDecimal.class);
+        Root<SubSaldoConta> subSaldo = subSaldos.from(SubSaldoConta.class);
+        subSaldos.select(cb.sum(subSaldo.<BigDecimal>get("saldo")))
+                .where(cb.equal(subSaldo.get("conta"), conta));
+
+        // Expressão de construtor: o Hibernate devolve os records direto do ResultSet
+        consulta.select(cb.construct(ResumoConta.class,
+                        conta.get("numero"), conta.get("tipoConta"), conta.get("saldo"),
+                        cb.coalesce(subSaldos, BigDecimal.ZERO)))
+                .where(filtro.toPredicate(conta, consulta, cb))
+                .orderBy(cb.asc(conta.get("numero")));
+
+        return entityManager.createQuery(consulta)
+                .setMaxResults(limite)
+                .getResultList();
+    }
+}
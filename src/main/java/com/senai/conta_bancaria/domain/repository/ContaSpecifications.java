@@ -0,0 +1,42 @@
+package com.senai.conta_bancaria.domain.repository;
+
+import com.senai.conta_bancaria.domain.entity.Conta;
+import com.senai.conta_bancaria.domain.valueobject.Dinheiro;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Filtros da listagem paginada de contas. Só entram no SQL os filtros informados,
+ * para que o banco possa usar o índice correspondente.
+ */
+public final class ContaSpecifications {
+
+    private ContaSpecifications() {
+    }
+
+    public static Specification<Conta> ativa() {
+        return (root, query, cb) -> cb.isTrue(root.get("ativa"));
+    }
+
+    public static Specification<Conta> numeroApos(String numero) {
+        return (root, query, cb) -> cb.greaterThan(root.get("numero"), numero);
+    }
+
+    public static Specification<Conta> doTipo(String tipoConta) {
+        return (root, query, cb) -> cb.equal(root.get("tipoConta"), tipoConta);
+    }
+
+    /**
+     * Conta quente passa sempre: a linha não tem os créditos ainda em sub-saldos,
+     * então o saldo total dela é conferido depois da consulta.
+     */
+    public static Specification<Conta> saldoMinimo(Dinheiro saldo) {
+        return (root, query, cb) -> cb.or(
+                cb.greaterThanOrEqualTo(root.get("saldo"), saldo),
+                cb.isTrue(root.get("contaQuente")));
+    }
+
+    // Sub-saldos só somam, então linha acima do máximo já basta para excluir
+    public static Specification<Conta> saldoMaximo(Dinheiro saldo) {
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("saldo"), saldo);
+    }
+}
@@ -0,0 +1,42 @@
+package com.senai.conta_bancaria.domain.repository;
+
+import com.senai.conta_bancaria.domain.entity.FamiliaRefreshToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface FamiliaRefreshTokenRepository extends JpaRepository<FamiliaRefreshToken, String> {
+
+    // Troca condicional: 0 linhas = jti já trocado, família revogada ou família removida
+    @Transactional
+    @Modifying
+    @Query("update FamiliaRefreshToken f set f.jtiAtual = :novoJti, f.atualizadaEm = :agora " +
+            "where f.id = :id and f.jtiAtual = :jti and f.revogada = false")
+    int rotacionar(@Param("id") String id, @Param("jti") String jti,
+                   @Param("novoJti") String novoJti, @Param("agora") LocalDateTime agora);
+
+    // Sem readOnly: lida no primário, logo depois da troca que falhou, e não numa réplica atrasada
+    @Transactional
+    boolean existsByIdAndRevogadaFalse(String id);
+
+    @Transactional
+    @Modifying
+    @Query("update FamiliaRefreshToken f set f.revogada = true where f.id = :id")
+    int revogar(@Param("id") String id);
+
+    @Transactional
+    @Modifying
+    @Query("update FamiliaRefreshToken f set f.revogada = true where f.email = :email and f.revogada = false")
+    int revogarPorEmail(@Param("email") String email);
+
+    @Transactional
+    @Modifying
+    @Query("delete from FamiliaRefreshToken f where f.atualizadaEm < :limite")
+    int removerAtualizadasAntesDe(@Param("limite") LocalDateTime limite);
+}
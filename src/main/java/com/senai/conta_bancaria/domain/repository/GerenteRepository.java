@@ -1,7 +1,10 @@
 package com.senai.conta_bancaria.domain.repository;
 
 import com.senai.conta_bancaria.domain.entity.Gerente;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -9,7 +12,22 @@ import java.util.Optional;
 
 @Repository
 public interface GerenteRepository extends JpaRepository<Gerente, String> {
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "conta.consultas-referencia")
+    })
     Optional<Gerente> findByEmail(String email);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "conta.consultas-referencia")
+    })
     Optional<Gerente> findByCpfAndAtivoTrue(String cpf);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "conta.consultas-referencia")
+    })
     List<Gerente> findAllByAtivoTrue();
-}
\ No newline at end of file
+}
@@ -0,0 +1,36 @@
+package com.senai.conta_bancaria.domain.repository;
+
+import com.senai.conta_bancaria.domain.entity.Lancamento;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Repository
+public interface LancamentoRepository extends JpaRepository<Lancamento, String> {
+
+    @Query("select coalesce(sum(l.valor), 0) from Lancamento l " +
+            "where l.conta.id = :contaId and l.sequencia > :sequencia")
+    BigDecimal somarAposSequencia(@Param("contaId") String contaId, @Param("sequencia") long sequencia);
+
+    @Modifying
+    @Query("update Lancamento l set l.sequencia = :sequencia where l.id = :id and l.sequencia is null")
+    int confirmarSequencia(@Param("id") String id, @Param("sequencia") long sequencia);
+
+    // Pernas de crédito de transferências que ainda não chegaram à conta de destino
+    @Query("select l.id as id, c.id as contaId, c.numero as numeroConta, l.valor as valor " +
+            "from Lancamento l join l.conta c " +
+            "where l.sequencia is null and l.subSaldo is null order by l.dataHora")
+    List<CreditoPendente> listarCreditosPendentes();
+
+    interface CreditoPendente {
+        String getId();
+        String getContaId();
+        String getNumeroConta();
+        BigDecimal getValor();
+    }
+}
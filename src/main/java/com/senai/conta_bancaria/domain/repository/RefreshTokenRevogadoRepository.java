@@ -0,0 +1,24 @@
+package com.senai.conta_bancaria.domain.repository;
+
+import com.senai.conta_bancaria.domain.entity.RefreshTokenRevogado;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface RefreshTokenRevogadoRepository extends JpaRepository<RefreshTokenRevogado, String> {
+    List<RefreshTokenRevogado> findByExpiraEmAfter(LocalDateTime agora);
+
+    List<RefreshTokenRevogado> findByRevogadoEmAfter(LocalDateTime desde);
+
+    @Transactional
+    @Modifying
+    @Query("delete from RefreshTokenRevogado r where r.expiraEm < :agora")
+    int removerVencidos(@Param("agora") LocalDateTime agora);
+}
@@ -0,0 +1,48 @@
+package com.senai.conta_bancaria.domain.repository;
+
+import com.senai.conta_bancaria.domain.entity.ResumoSaldoCliente;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface ResumoSaldoClienteRepository extends JpaRepository<ResumoSaldoCliente, String> {
+
+    // Soma atômica no banco: duas contas do mesmo cliente movimentando juntas não perdem delta
+    @Modifying
+    @Query(value = "update resumo_saldo_cliente set saldo_total = saldo_total + :delta, " +
+            "ultima_movimentacao = :agora where cliente_id = :clienteId", nativeQuery = true)
+    int aplicarDelta(@Param("clienteId") String clienteId, @Param("delta") BigDecimal delta,
+                     @Param("agora") LocalDateTime agora);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select r from ResumoSaldoCliente r where r.clienteId = :clienteId")
+    Optional<ResumoSaldoCliente> travar(@Param("clienteId") String clienteId);
+
+    @Query("select r from ResumoSaldoCliente r " +
+            "where r.clienteId = (select c.id from Cliente c where c.cpf = :cpf and c.ativo = true)")
+    Optional<ResumoSaldoCliente> buscarPorCpfAtivo(@Param("cpf") String cpf);
+
+    @Query(value = "select coalesce(sum(saldo), 0) as saldoTotal, " +
+            "coalesce(sum(case when tipo_conta = 'CORRENTE' then 1 else 0 end), 0) as quantidadeCorrente, " +
+            "coalesce(sum(case when tipo_conta = 'POUPANCA' then 1 else 0 end), 0) as quantidadePoupanca " +
+            "from conta_dto where cliente_id = :clienteId and ativa = true", nativeQuery = true)
+    TotaisContas somarContasAtivas(@Param("clienteId") String clienteId);
+
+    @Query("select max(l.dataHora) from Lancamento l where l.conta.cliente.id = :clienteId")
+    Optional<LocalDateTime> buscarUltimaMovimentacao(@Param("clienteId") String clienteId);
+
+    interface TotaisContas {
+        BigDecimal getSaldoTotal();
+        Number getQuantidadeCorrente();
+        Number getQuantidadePoupanca();
+    }
+}
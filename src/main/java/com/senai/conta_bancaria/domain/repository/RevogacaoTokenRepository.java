@@ -0,0 +1,22 @@
+package com.senai.conta_bancaria.domain.repository;
+
+import com.senai.conta_bancaria.domain.entity.RevogacaoToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface RevogacaoTokenRepository extends JpaRepository<RevogacaoToken, String> {
+    List<RevogacaoToken> findByAlteradoEmAfter(LocalDateTime desde);
+
+    @Transactional
+    @Modifying
+    @Query("delete from RevogacaoToken r where r.alteradoEm < :limite")
+    int removerAlteradasAntesDe(@Param("limite") LocalDateTime limite);
+}
@@ -0,0 +1,12 @@
+package com.senai.conta_bancaria.domain.repository;
+
+import com.senai.conta_bancaria.domain.entity.SaldoConsolidado;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface SaldoConsolidadoRepository extends JpaRepository<SaldoConsolidado, String> {
+    Optional<SaldoConsolidado> findFirstByContaIdOrderBySequenciaDesc(String contaId);
+}
@@ -0,0 +1,35 @@
+package com.senai.conta_bancaria.domain.repository;
+
+import com.senai.conta_bancaria.domain.entity.SubSaldoConta;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Repository
+public interface SubSaldoContaRepository extends JpaRepository<SubSaldoConta, String> {
+
+    @Modifying
+    @Query("update SubSaldoConta s set s.saldo = s.saldo + :valor, s.versao = s.versao + 1 " +
+            "where s.conta.id = :contaId and s.slot = :slot")
+    int creditar(@Param("contaId") String contaId, @Param("slot") int slot, @Param("valor") BigDecimal valor);
+
+    @Query("select coalesce(sum(s.saldo), 0) from SubSaldoConta s where s.conta.id = :contaId")
+    BigDecimal somarPorConta(@Param("contaId") String contaId);
+
+    @Query("select coalesce(sum(s.saldo), 0) from SubSaldoConta s " +
+            "where s.conta.cliente.id = :clienteId and s.conta.ativa = true")
+    BigDecimal somarPorCliente(@Param("clienteId") String clienteId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from SubSaldoConta s where s.conta.id = :contaId order by s.slot")
+    List<SubSaldoConta> travarPorConta(@Param("contaId") String contaId);
+
+    List<SubSaldoConta> findAllByContaId(String contaId);
+}
@@ -1,11 +1,22 @@
 package com.senai.conta_bancaria.domain.repository;
 
 import com.senai.conta_bancaria.domain.entity.Taxa;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
-import java.util.Optional;
+import java.util.List;
 
 @Repository
 public interface TaxaRepository extends JpaRepository<Taxa, String> {
-}
\ No newline at end of file
+
+    // Resultado no cache de consultas; qualquer escrita em taxa o invalida
+    @Override
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "conta.consultas-referencia")
+    })
+    List<Taxa> findAll();
+}
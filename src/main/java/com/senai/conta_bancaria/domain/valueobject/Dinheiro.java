@@ -0,0 +1,72 @@
+package com.senai.conta_bancaria.domain.valueobject;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Valor monetário em centavos. Soma e subtração estouram com {@link ArithmeticException}
+ * em vez de dar a volta; multiplicação por taxa ou rendimento arredonda para o centavo
+ * com {@link #ARREDONDAMENTO}, o mesmo do {@code ROUND} do SQL usado nos débitos diretos no banco.
+ */
+public record Dinheiro(long centavos) implements Comparable<Dinheiro> {
+
+    public static final Dinheiro ZERO = new Dinheiro(0);
+    public static final RoundingMode ARREDONDAMENTO = RoundingMode.HALF_UP;
+    private static final int ESCALA = 2;
+
+    public static Dinheiro deCentavos(long centavos) {
+        return centavos == 0 ? ZERO : new Dinheiro(centavos);
+    }
+
+    /**
+     * Converte da representação decimal da API e do banco; frações de centavo são arredondadas.
+     */
+    public static Dinheiro de(BigDecimal valor) {
+        return deCentavos(valor.movePointRight(ESCALA).setScale(0, ARREDONDAMENTO).longValueExact());
+    }
+
+    public Dinheiro somar(Dinheiro outro) {
+        return deCentavos(Math.addExact(centavos, outro.centavos));
+    }
+
+    public Dinheiro subtrair(Dinheiro outro) {
+        return deCentavos(Math.subtractExact(centavos, outro.centavos));
+    }
+
+    public Dinheiro multiplicar(BigDecimal fator) {
+        if (fator.signum() == 0 || centavos == 0) {
+            return ZERO;
+        }
+        return deCentavos(BigDecimal.valueOf(centavos).multiply(fator).setScale(0, ARREDONDAMENTO).longValueExact());
+    }
+
+    public Dinheiro negar() {
+        return deCentavos(Math.negateExact(centavos));
+    }
+
+    public int signum() {
+        return Long.signum(centavos);
+    }
+
+    public boolean menorQue(Dinheiro outro) {
+        return centavos < outro.centavos;
+    }
+
+    public boolean maiorQue(Dinheiro outro) {
+        return centavos > outro.centavos;
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(centavos, ESCALA);
+    }
+
+    @Override
+    public int compareTo(Dinheiro outro) {
+        return Long.compare(centavos, outro.centavos);
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+}
@@ -0,0 +1,58 @@
+package com.senai.conta_bancaria.infrastructure.concurrency;
+
+import com.senai.conta_bancaria.domain.exception.LoginSobrecarregadoException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Threads só para hash de senha (BCrypt), fora das threads do Tomcat: uma rajada de logins
+ * disputa estas threads e não as das operações de dinheiro. Com todas ocupadas e a fila
+ * cheia o login é recusado na hora ({@link LoginSobrecarregadoException}, 429).
+ * Fila em {@code security.login.hash.fila} e recusas em {@code security.login.hash.recusados}.
+ */
+@Component
+public class ExecutorHashSenha {
+
+    private final ThreadPoolExecutor executor;
+    private final Counter recusados;
+
+    public ExecutorHashSenha(@Value("${security.login.hash.threads:0}") int threads,
+                             @Value("${security.login.hash.tamanho-fila:64}") int tamanhoFila,
+                             MeterRegistry metricas) {
+        // 0: uma thread por processador, já que o hash só usa CPU
+        int quantidade = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.executor = new ThreadPoolExecutor(quantidade, quantidade, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(tamanhoFila),
+                Thread.ofPlatform().name("hash-senha-", 0).daemon(true).factory(),
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.recusados = metricas.counter("security.login.hash.recusados");
+        Gauge.builder("security.login.hash.fila", executor, e -> e.getQueue().size())
+                .register(metricas);
+    }
+
+    public <T> CompletableFuture<T> executar(Supplier<T> tarefa) {
+        try {
+            return CompletableFuture.supplyAsync(tarefa, executor);
+        } catch (RejectedExecutionException e) {
+            recusados.increment();
+            throw new LoginSobrecarregadoException();
+        }
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,85 @@
+package com.senai.conta_bancaria.infrastructure.concurrency;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.OptimisticLockException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Executa uma operação em transação própria e a repete quando outra transação
+ * alterou a mesma conta antes (conflito de {@code @Version}).
+ * O orçamento de tentativas pode ser ajustado por operação com
+ * {@code conta.retentativa.<operacao>.max-tentativas}.
+ */
+@Component
+public class ExecutorRetentativa {
+
+    private final TransactionTemplate transacao;
+    private final Environment environment;
+    private final MeterRegistry metricas;
+    private final int tentativasPadrao;
+    private final long esperaBaseMs;
+    private final long esperaMaximaMs;
+
+    public ExecutorRetentativa(TransactionTemplate transacao,
+                               Environment environment,
+                               MeterRegistry metricas,
+                               @Value("${conta.retentativa.max-tentativas:5}") int tentativasPadrao,
+                               @Value("${conta.retentativa.espera-base-ms:5}") long esperaBaseMs,
+                               @Value("${conta.retentativa.espera-maxima-ms:200}") long esperaMaximaMs) {
+        this.transacao = transacao;
+        this.environment = environment;
+        this.metricas = metricas;
+        this.tentativasPadrao = tentativasPadrao;
+        this.esperaBaseMs = esperaBaseMs;
+        this.esperaMaximaMs = esperaMaximaMs;
+    }
+
+    public <T> T executar(String operacao, Supplier<T> acao) {
+        int maxTentativas = environment.getProperty(
+                "conta.retentativa." + operacao + ".max-tentativas", Integer.class, tentativasPadrao);
+
+        for (int tentativa = 1; ; tentativa++) {
+            try {
+                return transacao.execute(status -> acao.get());
+            } catch (OptimisticLockingFailureException | OptimisticLockException e) {
+                contador("conta.retentativa.conflitos", operacao).increment();
+
+                if (tentativa >= maxTentativas) {
+                    contador("conta.retentativa.esgotadas", operacao).increment();
+                    throw e;
+                }
+
+                contador("conta.retentativa.tentativas", operacao).increment();
+                aguardar(tentativa, e);
+            }
+        }
+    }
+
+    // Backoff exponencial com jitter completo para espalhar as transações que colidiram
+    private void aguardar(int tentativa, RuntimeException conflito) {
+        long espera = ThreadLocalRandom.current().nextLong(tetoEspera(tentativa) + 1);
+        try {
+            Thread.sleep(espera);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw conflito;
+        }
+    }
+
+    // Maior espera possível depois da tentativa informada; o deslocamento limitado evita estouro
+    long tetoEspera(int tentativa) {
+        return Math.min(esperaMaximaMs, esperaBaseMs << Math.min(tentativa - 1, 16));
+    }
+
+    private Counter contador(String nome, String operacao) {
+        return metricas.counter(nome, "operacao", operacao);
+    }
+}
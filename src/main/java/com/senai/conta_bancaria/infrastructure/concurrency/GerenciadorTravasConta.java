@@ -0,0 +1,98 @@
+package com.senai.conta_bancaria.infrastructure.concurrency;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Travas por número de conta distribuídas em faixas (striping).
+ * As faixas são sempre adquiridas em ordem crescente de índice, então
+ * A→B e B→A disputam as mesmas travas na mesma ordem e não entram em deadlock.
+ */
+@Component
+public class GerenciadorTravasConta {
+
+    private final ReentrantLock[] faixas;
+
+    public GerenciadorTravasConta(@Value("${conta.travas.faixas:1024}") int quantidadeFaixas) {
+        if (quantidadeFaixas <= 0) {
+            throw new IllegalArgumentException("A quantidade de faixas deve ser maior que zero");
+        }
+        this.faixas = new ReentrantLock[quantidadeFaixas];
+        for (int i = 0; i < quantidadeFaixas; i++) {
+            faixas[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Trava as contas informadas até o fim da transação corrente.
+     * Fora de transação, devolve um {@link Travas} que deve ser fechado pelo chamador.
+     */
+    public Travas travar(String... numerosConta) {
+        Travas travas = adquirir(indices(Arrays.asList(numerosConta)));
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    travas.close();
+                }
+            });
+        }
+        return travas;
+    }
+
+    public Travas travar(Collection<String> numerosConta) {
+        return travar(numerosConta.toArray(String[]::new));
+    }
+
+    private int[] indices(Collection<String> numerosConta) {
+        return numerosConta.stream()
+                .mapToInt(numero -> Math.floorMod(numero.hashCode(), faixas.length))
+                .distinct()
+                .sorted()
+                .toArray();
+    }
+
+    private Travas adquirir(int[] indices) {
+        int adquiridas = 0;
+        try {
+            for (int indice : indices) {
+                faixas[indice].lock();
+                adquiridas++;
+            }
+        } catch (RuntimeException e) {
+            liberar(indices, adquiridas);
+            throw e;
+        }
+        return new Travas(indices);
+    }
+
+    private void liberar(int[] indices, int quantidade) {
+        for (int i = quantidade - 1; i >= 0; i--) {
+            faixas[indices[i]].unlock();
+        }
+    }
+
+    public final class Travas implements AutoCloseable {
+        private final int[] indices;
+        private boolean liberadas;
+
+        private Travas(int[] indices) {
+            this.indices = indices;
+        }
+
+        @Override
+        public void close() {
+            if (!liberadas) {
+                liberadas = true;
+                liberar(indices, indices.length);
+            }
+        }
+    }
+}
@@ -2,10 +2,12 @@ package com.senai.conta_bancaria.infrastructure.config;
 
 import com.senai.conta_bancaria.domain.entity.Gerente;
 import com.senai.conta_bancaria.domain.enums.Role;
+import com.senai.conta_bancaria.domain.event.UsuarioAlteradoEvent;
 import com.senai.conta_bancaria.domain.repository.GerenteRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 
@@ -16,6 +18,7 @@ public class AdminBootstrap implements CommandLineRunner {
 
     private final GerenteRepository gerenteRepository;
     private final PasswordEncoder passwordEncoder;
+    private final ApplicationEventPublisher eventos;
 
     @Value("${sistema.admin.email}")
     private String adminEmail;
@@ -27,9 +30,9 @@ public class AdminBootstrap implements CommandLineRunner {
     public void run(String... args) {
         gerenteRepository.findByEmail(adminEmail).ifPresentOrElse(
                 gerente -> {
-                    if (!gerente.isAtivo()) {
+                    if (!Boolean.TRUE.equals(gerente.getAtivo())) {
                         gerente.setAtivo(true);
-                        gerenteRepository.save(gerente);
+                        eventos.publishEvent(UsuarioAlteradoEvent.de(gerenteRepository.save(gerente)));
                     }
                 },
                 () -> {
@@ -39,8 +42,9 @@ public class AdminBootstrap implements CommandLineRunner {
                             .cpf("00000000000")
                             .senha(passwordEncoder.encode(adminSenha))
                             .role(Role.ADMIN)
+                            .ativo(true)
                             .build();
-                    gerenteRepository.save(admin);
+                    eventos.publishEvent(UsuarioAlteradoEvent.de(gerenteRepository.save(admin)));
                     System.out.println("Usuário admin provisório criado: " + adminEmail);
                 }
         );
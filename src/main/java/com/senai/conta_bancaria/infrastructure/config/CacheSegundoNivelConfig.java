@@ -0,0 +1,58 @@
+package com.senai.conta_bancaria.infrastructure.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import java.time.Duration;
+import java.util.List;
+import java.util.OptionalLong;
+
+/**
+ * Cache de segundo nível do Hibernate (Taxa e Gerente) em memória, via JCache sobre o Caffeine.
+ * Cada instância tem o seu: a expiração limita por quanto tempo uma instância enxerga um dado
+ * alterado em outra, e {@code DELETE /actuator/cachesegundonivel} força a invalidação.
+ */
+@Configuration
+public class CacheSegundoNivelConfig {
+
+    // Os nomes precisam bater com os @Cache das entidades e as dicas dos repositórios
+    public static final String REGIAO_TAXA = "conta.taxa";
+    public static final String REGIAO_USUARIO = "conta.usuario";
+    public static final String REGIAO_CONSULTAS_REFERENCIA = "conta.consultas-referencia";
+
+    @Bean(destroyMethod = "close")
+    public CacheManager gerenciadorCacheSegundoNivel(
+            @Value("${conta.cache.referencia.tamanho-maximo:10000}") long tamanhoMaximo,
+            @Value("${conta.cache.referencia.expiracao:10m}") Duration expiracao) {
+        // Provedor próprio: cada contexto Spring (inclusive os dos testes) fica com as suas regiões
+        CacheManager gerenciador = new CaffeineCachingProvider().getCacheManager();
+
+        for (String regiao : List.of(REGIAO_TAXA, REGIAO_USUARIO, REGIAO_CONSULTAS_REFERENCIA,
+                RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME)) {
+            CaffeineConfiguration<Object, Object> configuracao = new CaffeineConfiguration<>();
+            configuracao.setMaximumSize(OptionalLong.of(tamanhoMaximo));
+            configuracao.setExpireAfterWrite(OptionalLong.of(expiracao.toNanos()));
+            configuracao.setStatisticsEnabled(true);
+            gerenciador.createCache(regiao, configuracao);
+        }
+
+        // Sem limite nem expiração: perder um carimbo de atualização faria uma consulta antiga parecer atual
+        CaffeineConfiguration<Object, Object> carimbos = new CaffeineConfiguration<>();
+        carimbos.setStatisticsEnabled(true);
+        gerenciador.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME, carimbos);
+
+        return gerenciador;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer cacheSegundoNivel(CacheManager gerenciadorCacheSegundoNivel) {
+        return propriedades -> propriedades.put(ConfigSettings.CACHE_MANAGER, gerenciadorCacheSegundoNivel);
+    }
+}
@@ -0,0 +1,72 @@
+package com.senai.conta_bancaria.infrastructure.config;
+
+import com.senai.conta_bancaria.infrastructure.persistence.DataSourceLeituraEscrita;
+import com.senai.conta_bancaria.infrastructure.persistence.MonitorAtrasoReplica;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Réplica de leitura, ligada quando {@code conta.replica.url} está configurada.
+ * O primário continua vindo de {@code spring.datasource.*}; o Flyway e as escritas usam só ele.
+ */
+@Configuration
+@ConditionalOnProperty(name = "conta.replica.url")
+public class ReplicaConfig {
+
+    @Bean(defaultCandidate = false)
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource dataSourcePrimario(DataSourceProperties propriedades) {
+        HikariDataSource dataSource = propriedades.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        dataSource.setPoolName("primario");
+        return dataSource;
+    }
+
+    @Bean(defaultCandidate = false)
+    @ConfigurationProperties("conta.replica.hikari")
+    public HikariDataSource dataSourceReplica(@Value("${conta.replica.url}") String url,
+                                              @Value("${conta.replica.username:}") String usuario,
+                                              @Value("${conta.replica.password:}") String senha) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(url)
+                .username(usuario)
+                .password(senha)
+                .build();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    public MonitorAtrasoReplica monitorAtrasoReplica(@Qualifier("dataSourcePrimario") DataSource primario,
+                                                     @Qualifier("dataSourceReplica") DataSource replica,
+                                                     @Value("${conta.replica.atraso-maximo:5s}") Duration atrasoMaximo,
+                                                     MeterRegistry metricas) {
+        return new MonitorAtrasoReplica(primario, replica, atrasoMaximo, metricas);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("dataSourcePrimario") DataSource primario,
+                                 @Qualifier("dataSourceReplica") DataSource replica,
+                                 MonitorAtrasoReplica monitor) {
+        DataSourceLeituraEscrita roteado = new DataSourceLeituraEscrita(primario, replica, monitor);
+        roteado.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(roteado);
+    }
+}
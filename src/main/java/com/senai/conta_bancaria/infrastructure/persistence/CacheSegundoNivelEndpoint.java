@@ -0,0 +1,64 @@
+package com.senai.conta_bancaria.infrastructure.persistence;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Estatísticas e invalidação do cache de segundo nível desta instância.
+ * Quem altera taxa ou gerente por fora do Hibernate (script, outra instância) chama o
+ * DELETE em cada instância; sem isso a entrada antiga vive até expirar.
+ */
+@Component
+@Endpoint(id = "cachesegundonivel")
+@RequiredArgsConstructor
+public class CacheSegundoNivelEndpoint {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    public record EstatisticaRegiao(long acertos, long faltas, long insercoes, long elementosEmMemoria) {
+    }
+
+    @ReadOperation
+    public Map<String, EstatisticaRegiao> regioes() {
+        Statistics estatisticas = sessionFactory().getStatistics();
+        Map<String, EstatisticaRegiao> regioes = new TreeMap<>();
+
+        for (String regiao : estatisticas.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics regiaoEstatisticas = estatisticas.getCacheRegionStatistics(regiao);
+            if (regiaoEstatisticas != null) {
+                regioes.put(regiao, new EstatisticaRegiao(
+                        regiaoEstatisticas.getHitCount(),
+                        regiaoEstatisticas.getMissCount(),
+                        regiaoEstatisticas.getPutCount(),
+                        regiaoEstatisticas.getElementCountInMemory()
+                ));
+            }
+        }
+        return regioes;
+    }
+
+    @DeleteOperation
+    public void invalidarTudo() {
+        sessionFactory().getCache().evictAllRegions();
+    }
+
+    @DeleteOperation
+    public void invalidarRegiao(@Selector String regiao) {
+        sessionFactory().getCache().evictRegion(regiao);
+    }
+
+    private SessionFactory sessionFactory() {
+        return entityManagerFactory.unwrap(SessionFactory.class);
+    }
+}
@@ -0,0 +1,59 @@
+package com.senai.conta_bancaria.infrastructure.persistence;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Manda transações {@code readOnly} para a réplica e o resto para o primário.
+ * A leitura volta para o primário quando a réplica está atrasada além do limite
+ * ou quando a mesma requisição já gravou algo (para ler o que acabou de escrever).
+ * <p>
+ * Precisa ficar atrás de um {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}:
+ * o destino só é decidido no primeiro comando SQL, quando a transação já está marcada como somente leitura.
+ */
+public class DataSourceLeituraEscrita extends AbstractRoutingDataSource {
+
+    private static final String ATRIBUTO_ESCREVEU = DataSourceLeituraEscrita.class.getName() + ".escreveu";
+
+    enum Destino { PRIMARIO, REPLICA }
+
+    private final MonitorAtrasoReplica monitor;
+
+    public DataSourceLeituraEscrita(DataSource primario, DataSource replica, MonitorAtrasoReplica monitor) {
+        this.monitor = monitor;
+        setTargetDataSources(Map.of(Destino.PRIMARIO, primario, Destino.REPLICA, replica));
+        setDefaultTargetDataSource(primario);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                marcarEscritaNaRequisicao();
+            }
+            return Destino.PRIMARIO;
+        }
+        if (escreveuNaRequisicao() || !monitor.isReplicaDisponivel()) {
+            return Destino.PRIMARIO;
+        }
+        return Destino.REPLICA;
+    }
+
+    private static void marcarEscritaNaRequisicao() {
+        RequestAttributes requisicao = RequestContextHolder.getRequestAttributes();
+        if (requisicao != null) {
+            requisicao.setAttribute(ATRIBUTO_ESCREVEU, Boolean.TRUE, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    private static boolean escreveuNaRequisicao() {
+        RequestAttributes requisicao = RequestContextHolder.getRequestAttributes();
+        return requisicao != null
+                && requisicao.getAttribute(ATRIBUTO_ESCREVEU, RequestAttributes.SCOPE_REQUEST) != null;
+    }
+}
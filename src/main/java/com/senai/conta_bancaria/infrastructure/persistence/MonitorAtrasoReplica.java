@@ -0,0 +1,81 @@
+package com.senai.conta_bancaria.infrastructure.persistence;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Mede o atraso da réplica com um batimento: a cada verificação lê o valor que já chegou na réplica
+ * ({@code replica_batimento}) e grava o instante atual no primário.
+ * O atraso é a idade do batimento mais antigo que esta instância gravou e a réplica ainda não
+ * mostra; réplica com todos os batimentos anteriores está em dia, sem somar o intervalo entre
+ * verificações. Enquanto o atraso passar de {@code conta.replica.atraso-maximo}, ou a réplica não
+ * responder, as leituras vão para o primário. Atraso em {@code conta.replica.atraso}.
+ */
+public class MonitorAtrasoReplica {
+
+    private static final int MAXIMO_PENDENTES = 1024;
+
+    private final JdbcTemplate primario;
+    private final JdbcTemplate replica;
+    private final long atrasoMaximoMs;
+
+    // Batimentos gravados no primário que a réplica ainda não mostrou, do mais antigo ao mais novo
+    private final Deque<Long> pendentes = new ArrayDeque<>();
+    private long ultimoConfirmado;
+
+    private volatile long atrasoMs = Long.MAX_VALUE;
+
+    public MonitorAtrasoReplica(DataSource primario, DataSource replica, Duration atrasoMaximo, MeterRegistry metricas) {
+        this.primario = new JdbcTemplate(primario);
+        this.replica = new JdbcTemplate(replica);
+        this.atrasoMaximoMs = atrasoMaximo.toMillis();
+
+        Gauge.builder("conta.replica.atraso", this, monitor -> monitor.atrasoMs / 1000.0)
+                .baseUnit("seconds")
+                .register(metricas);
+    }
+
+    @Scheduled(fixedDelayString = "${conta.replica.verificacao-ms:1000}")
+    public synchronized void verificar() {
+        try {
+            Long instante = replica.queryForObject("select instante_ms from replica_batimento where id = 1", Long.class);
+            long agora = System.currentTimeMillis();
+            atrasoMs = instante == null ? Long.MAX_VALUE : medir(instante, agora);
+
+            primario.update("update replica_batimento set instante_ms = ? where id = 1", agora);
+            pendentes.addLast(agora);
+            // Réplica parada há muito tempo: o mais antigo que sobra já passa de qualquer limite razoável
+            if (pendentes.size() > MAXIMO_PENDENTES) {
+                pendentes.removeFirst();
+            }
+        } catch (DataAccessException e) {
+            atrasoMs = Long.MAX_VALUE;
+        }
+    }
+
+    private long medir(long instante, long agora) {
+        while (!pendentes.isEmpty() && pendentes.peekFirst() <= instante) {
+            ultimoConfirmado = pendentes.removeFirst();
+        }
+        if (pendentes.isEmpty()) {
+            // Na primeira verificação ainda não há batimento desta instância para comparar
+            return ultimoConfirmado > 0 ? 0 : Math.max(0, agora - instante);
+        }
+        // Parada no último batimento confirmado: falta o seguinte, o primeiro pendente.
+        // Valor desconhecido (de antes desta instância ou de outra) conta desde o próprio valor
+        long desde = ultimoConfirmado > 0 && instante >= ultimoConfirmado ? pendentes.peekFirst() : instante;
+        return Math.max(0, agora - desde);
+    }
+
+    public boolean isReplicaDisponivel() {
+        return atrasoMs <= atrasoMaximoMs;
+    }
+}
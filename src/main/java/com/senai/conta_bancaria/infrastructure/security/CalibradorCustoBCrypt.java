@@ -0,0 +1,38 @@
+package com.senai.conta_bancaria.infrastructure.security;
+
+import org.springframework.security.crypto.bcrypt.BCrypt;
+
+import java.time.Duration;
+
+/**
+ * Mede o BCrypt nesta máquina. O custo usado é o fixado em {@code security.senha.custo}, o mesmo em
+ * todas as instâncias; a medição só aponta a instância em que esse custo passa do orçamento e o maior
+ * custo que caberia nela, para ajustar a configuração de todas de uma vez.
+ */
+final class CalibradorCustoBCrypt {
+
+    private static final String SENHA_MEDICAO = "Calibracao@123";
+
+    private CalibradorCustoBCrypt() {
+    }
+
+    static Duration medir(int custo) {
+        // A primeira execução paga aquecimento da JIT; só a segunda é medida
+        BCrypt.hashpw(SENHA_MEDICAO, BCrypt.gensalt(custo));
+        long inicio = System.nanoTime();
+        BCrypt.hashpw(SENHA_MEDICAO, BCrypt.gensalt(custo));
+        return Duration.ofNanos(Math.max(1, System.nanoTime() - inicio));
+    }
+
+    // Mede o custo mínimo e projeta os demais: cada ponto de custo dobra o tempo
+    static int calibrar(Duration orcamento, int custoMinimo, int custoMaximo) {
+        long nanos = medir(custoMinimo).toNanos();
+
+        int custo = custoMinimo;
+        while (custo < custoMaximo && nanos * 2 <= orcamento.toNanos()) {
+            custo++;
+            nanos *= 2;
+        }
+        return custo;
+    }
+}
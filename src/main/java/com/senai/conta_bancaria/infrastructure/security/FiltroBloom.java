@@ -0,0 +1,64 @@
+package com.senai.conta_bancaria.infrastructure.security;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtro de Bloom para strings: "não contém" é certeza, "talvez contém" pede a checagem exata.
+ * Seguro para leituras e escritas concorrentes; não remove elementos (refaz-se um novo).
+ */
+final class FiltroBloom {
+
+    private final AtomicLongArray bits;
+    private final int totalBits;
+    private final int funcoes;
+
+    FiltroBloom(int capacidade, double taxaFalsoPositivo) {
+        double ln2 = Math.log(2);
+        long ideal = (long) Math.ceil(-capacidade * Math.log(taxaFalsoPositivo) / (ln2 * ln2));
+        this.totalBits = (int) Math.min(Math.max(ideal, 64), Integer.MAX_VALUE - 64);
+        this.funcoes = Math.max(1, (int) Math.round((double) totalBits / capacidade * ln2));
+        this.bits = new AtomicLongArray((totalBits + 63) / 64);
+    }
+
+    void adicionar(String valor) {
+        long hash = hash64(valor);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < funcoes; i++) {
+            int bit = posicao(h1 + i * h2);
+            bits.accumulateAndGet(bit >>> 6, 1L << bit, (palavra, mascara) -> palavra | mascara);
+        }
+    }
+
+    boolean talvezContem(String valor) {
+        long hash = hash64(valor);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < funcoes; i++) {
+            int bit = posicao(h1 + i * h2);
+            if ((bits.get(bit >>> 6) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int posicao(int combinado) {
+        return (combinado & Integer.MAX_VALUE) % totalBits;
+    }
+
+    // FNV-1a de 64 bits seguido da mistura final do MurmurHash3, para espalhar bem as duas metades
+    private static long hash64(String valor) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < valor.length(); i++) {
+            hash ^= valor.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
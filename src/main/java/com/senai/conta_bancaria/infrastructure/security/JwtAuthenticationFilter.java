@@ -5,14 +5,17 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Optional;
 
 @Component
 @RequiredArgsConstructor
@@ -20,6 +23,11 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final UsuarioDetailsService userDetailsService;
+    private final RevogacaoTokens revogacoes;
+
+    // Sem estado: o papel vem da claim e nenhuma requisição autenticada consulta o banco
+    @Value("${security.jwt.sem-estado:true}")
+    private boolean semEstado;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -28,9 +36,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         final String authHeader = request.getHeader("Authorization");
         final String jwt;
-        final String email;
-
-
+        final Optional<JwtService.TokenVerificado> token;
 
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
             filterChain.doFilter(request, response);
@@ -38,13 +44,15 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
 
         jwt = authHeader.substring(7); // remove "Bearer "
-        email = jwtService.extractEmail(jwt);
+        // Assinatura e expiração conferidas uma vez; inválido, revogado ou refresh segue sem autenticação
+        token = jwtService.verificar(jwt).filter(t -> !t.isRefresh() && !revogacoes.isRevogado(t));
 
-        if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(email);
+        if (token.isPresent() && SecurityContextHolder.getContext().getAuthentication() == null) {
+            UserDetails userDetails = semEstado
+                    ? pelasClaims(token.get())
+                    : this.userDetailsService.loadUserByUsername(token.get().email());
 
-            // Valida se token não expirou
-            if (jwtService.isTokenValid(jwt, userDetails)) {
+            if (userDetails != null && userDetails.isEnabled() && userDetails.getUsername().equals(token.get().email())) {
                 UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                         userDetails,
                         null,
@@ -60,4 +68,15 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response);
     }
+
+    // Token antigo sem papel não autentica no modo sem estado
+    private UserDetails pelasClaims(JwtService.TokenVerificado token) {
+        if (token.role() == null) {
+            return null;
+        }
+        return User.withUsername(token.email())
+                .password("")
+                .roles(token.role())
+                .build();
+    }
 }
@@ -1,86 +1,170 @@
 package com.senai.conta_bancaria.infrastructure.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.Date;
-import java.util.Map;
+import java.util.HexFormat;
+import java.util.Optional;
 
 @Service
 public class JwtService {
 
     private final Key key;
+    // Imutável e thread-safe: montado uma vez em vez de a cada token
+    private final JwtParser parser;
     private final long accessExpSeconds;
     private final long refreshExpSeconds;
+    private final Duration expiracaoMaximaCache;
+    // Tokens já verificados, pelo SHA-256 do token; cada entrada vence junto com o token
+    private final Cache<String, TokenVerificado> verificados;
 
     public JwtService(
             @Value("${security.jwt.secret}") String secret,
             @Value("${security.jwt.access-expiration:900}") long accessExpSeconds, // 15min
-            @Value("${security.jwt.refresh-expiration:604800}") long refreshExpSeconds // 7 dias
+            @Value("${security.jwt.refresh-expiration:604800}") long refreshExpSeconds, // 7 dias
+            @Value("${security.jwt.cache.tamanho-maximo:10000}") long tamanhoMaximoCache,
+            @Value("${security.jwt.cache.expiracao-maxima:5m}") Duration expiracaoMaximaCache,
+            MeterRegistry metricas
     ) {
         this.key = Keys.hmacShaKeyFor(secret.getBytes());
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(key)
+                .build();
         this.accessExpSeconds = accessExpSeconds;
         this.refreshExpSeconds = refreshExpSeconds;
+        this.expiracaoMaximaCache = expiracaoMaximaCache;
+        this.verificados = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximoCache)
+                .expireAfter(Expiry.creating((String chave, TokenVerificado token) -> tempoNoCache(token)))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(metricas, verificados, "tokens");
+    }
+
+    /**
+     * Claims de um token cuja assinatura e validade já foram conferidas.
+     * {@code versao} é a do usuário na emissão (vazia nos tokens antigos); {@code jti} e
+     * {@code familia} só existem nos refresh tokens.
+     */
+    public record TokenVerificado(String email, String role, Long versao, String jti, String familia,
+                                  Instant expiraEm) {
+
+        static TokenVerificado de(Claims claims) {
+            Date expiracao = claims.getExpiration();
+            return new TokenVerificado(
+                    claims.getSubject(),
+                    claims.get("role", String.class),
+                    claims.get("ver", Long.class),
+                    claims.getId(),
+                    claims.get("fam", String.class),
+                    expiracao == null ? null : expiracao.toInstant()
+            );
+        }
+
+        public boolean isRefresh() {
+            return familia != null;
+        }
+
+        boolean expirado(Instant agora) {
+            return expiraEm != null && !expiraEm.isAfter(agora);
+        }
     }
 
-    public String generateAccessToken(String email, String role) {
+    public String generateAccessToken(String email, String role, Long versao) {
         Instant now = Instant.now();
         return Jwts.builder()
                 .setSubject(email)
                 .claim("role", role)
+                .claim("ver", versao)
                 .setIssuedAt(Date.from(now))
                 .setExpiration(Date.from(now.plusSeconds(accessExpSeconds)))
                 .signWith(key, SignatureAlgorithm.HS256)
                 .compact();
     }
 
-    public String generateRefreshToken(String email) {
+    /**
+     * Refresh token de uma família ({@code fam}); o {@code jti} muda a cada troca.
+     * Leva papel e versão para a troca não precisar buscar o usuário.
+     */
+    public String generateRefreshToken(String email, String role, Long versao, String jti, String familia) {
         Instant now = Instant.now();
         return Jwts.builder()
                 .setSubject(email)
+                .setId(jti)
+                .claim("fam", familia)
+                .claim("role", role)
+                .claim("ver", versao)
                 .setIssuedAt(Date.from(now))
                 .setExpiration(Date.from(now.plusSeconds(refreshExpSeconds)))
                 .signWith(key, SignatureAlgorithm.HS256)
                 .compact();
     }
 
-    public String extractEmail(String token) {
-        return parseClaims(token).getSubject();
-    }
+    /**
+     * Verifica o token uma única vez por requisição. Vazio quando a assinatura não confere,
+     * o token está malformado ou expirou.
+     */
+    public Optional<TokenVerificado> verificar(String token) {
+        String chave = resumo(token);
+        TokenVerificado verificado = verificados.getIfPresent(chave);
 
-    public String extractRole(String token) {
-        return (String) parseClaims(token).get("role");
+        if (verificado == null) {
+            Optional<TokenVerificado> resultado = verificarAssinatura(token);
+            resultado.ifPresent(t -> verificados.put(chave, t));
+            return resultado;
+        }
+        if (verificado.expirado(Instant.now())) {
+            verificados.invalidate(chave);
+            return Optional.empty();
+        }
+        return Optional.of(verificado);
     }
 
-    private Claims parseClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    // Sem o cache: valida HMAC e expiração com o parser compartilhado
+    Optional<TokenVerificado> verificarAssinatura(String token) {
+        try {
+            return Optional.of(TokenVerificado.de(parseClaims(token)));
+        } catch (JwtException | IllegalArgumentException e) {
+            return Optional.empty();
+        }
     }
 
-    public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String email = extractEmail(token);
-        return (email.equals(userDetails.getUsername()) && !isTokenExpired(token));
+    private Claims parseClaims(String token) {
+        return parser.parseClaimsJws(token).getBody();
     }
 
-    private boolean isTokenExpired(String token) {
-        Date expiration = parseClaims(token).getExpiration();
-        return expiration.before(new Date());
+    private Duration tempoNoCache(TokenVerificado token) {
+        if (token.expiraEm() == null) {
+            return expiracaoMaximaCache;
+        }
+        Duration restante = Duration.between(Instant.now(), token.expiraEm());
+        if (restante.isNegative()) {
+            return Duration.ZERO;
+        }
+        return restante.compareTo(expiracaoMaximaCache) < 0 ? restante : expiracaoMaximaCache;
     }
 
-    public boolean isValid(String token) {
+    // O token em si não fica na memória do cache, só o seu resumo
+    private static String resumo(String token) {
         try {
-            parseClaims(token);
-            return true;
-        } catch (JwtException e) {
-            return false;
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(sha256.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,93 @@
+package com.senai.conta_bancaria.infrastructure.security;
+
+import com.senai.conta_bancaria.domain.entity.RefreshTokenRevogado;
+import com.senai.conta_bancaria.domain.repository.RefreshTokenRevogadoRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Ids ({@code jti}) de refresh tokens já trocados, em memória. O filtro de Bloom responde
+ * o caso comum — nunca revogado — sem tocar no conjunto exato, que só desfaz os falsos positivos.
+ * A tabela {@code refresh_token_revogado} carrega o estado na subida e traz, a cada
+ * {@code security.refresh.revogacao.verificacao-ms}, o que outras instâncias revogaram.
+ */
+@Component
+public class RevogacaoRefreshTokens {
+
+    // Releitura com folga para não perder linhas gravadas por transações que terminaram atrasadas
+    private static final Duration FOLGA_LEITURA = Duration.ofSeconds(5);
+
+    private final RefreshTokenRevogadoRepository repository;
+    private final int capacidadeFiltro;
+    private final double taxaFalsoPositivo;
+    // jti -> vencimento do token, para descartar quando não puder mais ser apresentado
+    private final Map<String, LocalDateTime> revogados = new ConcurrentHashMap<>();
+
+    private volatile FiltroBloom filtro;
+    private volatile LocalDateTime ultimaLeitura;
+
+    public RevogacaoRefreshTokens(RefreshTokenRevogadoRepository repository,
+                                  @Value("${security.refresh.bloom.capacidade:100000}") int capacidadeFiltro,
+                                  @Value("${security.refresh.bloom.taxa-falso-positivo:0.01}") double taxaFalsoPositivo,
+                                  MeterRegistry metricas) {
+        this.repository = repository;
+        this.capacidadeFiltro = capacidadeFiltro;
+        this.taxaFalsoPositivo = taxaFalsoPositivo;
+        this.filtro = new FiltroBloom(capacidadeFiltro, taxaFalsoPositivo);
+
+        Gauge.builder("security.refresh.revogados", revogados, Map::size)
+                .register(metricas);
+    }
+
+    public boolean isRevogado(String jti) {
+        return filtro.talvezContem(jti) && revogados.containsKey(jti);
+    }
+
+    public void revogar(String jti, String familiaId, LocalDateTime expiraEm) {
+        repository.save(new RefreshTokenRevogado(jti, familiaId, expiraEm, LocalDateTime.now()));
+        registrar(jti, expiraEm);
+    }
+
+    @PostConstruct
+    @Scheduled(fixedDelayString = "${security.refresh.revogacao.verificacao-ms:2000}")
+    public void sincronizar() {
+        LocalDateTime agora = LocalDateTime.now();
+        List<RefreshTokenRevogado> novos = ultimaLeitura == null
+                ? repository.findByExpiraEmAfter(agora)
+                : repository.findByRevogadoEmAfter(ultimaLeitura.minus(FOLGA_LEITURA));
+
+        for (RefreshTokenRevogado revogado : novos) {
+            registrar(revogado.getJti(), revogado.getExpiraEm());
+        }
+        ultimaLeitura = agora;
+    }
+
+    // Vencidos saem do conjunto; o filtro, que não remove, é refeito só com os que restaram
+    @Scheduled(cron = "${security.refresh.limpeza-cron:0 15 * * * *}")
+    public void limpar() {
+        LocalDateTime agora = LocalDateTime.now();
+        synchronized (this) {
+            revogados.values().removeIf(expiraEm -> expiraEm.isBefore(agora));
+            FiltroBloom novo = new FiltroBloom(capacidadeFiltro, taxaFalsoPositivo);
+            revogados.keySet().forEach(novo::adicionar);
+            filtro = novo;
+        }
+        repository.removerVencidos(agora);
+    }
+
+    // Sincronizado com a troca do filtro para que nenhum id fique fora do filtro novo
+    private synchronized void registrar(String jti, LocalDateTime expiraEm) {
+        revogados.put(jti, expiraEm);
+        filtro.adicionar(jti);
+    }
+}
@@ -0,0 +1,82 @@
+package com.senai.conta_bancaria.infrastructure.security;
+
+import com.senai.conta_bancaria.domain.entity.RevogacaoToken;
+import com.senai.conta_bancaria.domain.event.UsuarioAlteradoEvent;
+import com.senai.conta_bancaria.domain.repository.RevogacaoTokenRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Versão mínima aceita nos tokens de acesso, por e-mail, para a autenticação sem estado.
+ * Só guarda quem mudou dentro da validade de um token de acesso: depois disso nenhum
+ * token antigo continua vivo. A tabela {@code revogacao_token} leva as revogações às
+ * outras instâncias, que a leem a cada {@code security.jwt.revogacao.verificacao-ms}.
+ */
+@Component
+public class RevogacaoTokens {
+
+    // Releitura com folga para não perder linhas gravadas por transações que terminaram atrasadas
+    private static final Duration FOLGA_LEITURA = Duration.ofSeconds(5);
+
+    private record Revogacao(long versaoMinima, LocalDateTime alteradoEm) {
+    }
+
+    private final RevogacaoTokenRepository repository;
+    private final Duration retencao;
+    private final Map<String, Revogacao> revogacoes = new ConcurrentHashMap<>();
+
+    private volatile LocalDateTime ultimaLeitura;
+
+    public RevogacaoTokens(RevogacaoTokenRepository repository,
+                           @Value("${security.jwt.access-expiration:900}") long accessExpSeconds,
+                           MeterRegistry metricas) {
+        this.repository = repository;
+        this.retencao = Duration.ofSeconds(accessExpSeconds);
+
+        Gauge.builder("security.jwt.revogacoes", revogacoes, Map::size)
+                .register(metricas);
+    }
+
+    public boolean isRevogado(JwtService.TokenVerificado token) {
+        Revogacao revogacao = revogacoes.get(token.email());
+        return revogacao != null && (token.versao() == null || token.versao() < revogacao.versaoMinima());
+    }
+
+    @EventListener
+    public void aoAlterarUsuario(UsuarioAlteradoEvent evento) {
+        // Desativado (ou e-mail abandonado): nenhuma versão serve
+        long versaoMinima = evento.ativo() && evento.versao() != null ? evento.versao() : Long.MAX_VALUE;
+        LocalDateTime agora = LocalDateTime.now();
+
+        repository.save(new RevogacaoToken(evento.email(), versaoMinima, agora));
+        revogacoes.put(evento.email(), new Revogacao(versaoMinima, agora));
+    }
+
+    @PostConstruct
+    @Scheduled(fixedDelayString = "${security.jwt.revogacao.verificacao-ms:2000}")
+    public void sincronizar() {
+        LocalDateTime agora = LocalDateTime.now();
+        LocalDateTime limite = agora.minus(retencao);
+        LocalDateTime desde = ultimaLeitura == null ? limite : ultimaLeitura.minus(FOLGA_LEITURA);
+
+        for (RevogacaoToken revogacao : repository.findByAlteradoEmAfter(desde)) {
+            revogacoes.merge(revogacao.getEmail(),
+                    new Revogacao(revogacao.getVersaoMinima(), revogacao.getAlteradoEm()),
+                    (atual, lida) -> lida.alteradoEm().isBefore(atual.alteradoEm()) ? atual : lida);
+        }
+        ultimaLeitura = agora;
+
+        revogacoes.values().removeIf(revogacao -> revogacao.alteradoEm().isBefore(limite));
+        repository.removerAlteradasAntesDe(limite);
+    }
+}
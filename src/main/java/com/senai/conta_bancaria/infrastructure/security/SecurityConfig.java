@@ -1,6 +1,8 @@
 package com.senai.conta_bancaria.infrastructure.security;
 
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -13,6 +15,9 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.*;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
+import java.time.Duration;
+
+@Slf4j
 @Configuration
 @RequiredArgsConstructor
 public class SecurityConfig {
@@ -25,6 +30,7 @@ public class SecurityConfig {
                 .csrf(AbstractHttpConfigurer::disable)
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers("/auth/**", "/swagger-ui/**", "/v3/api-docs/**").permitAll()
+                        .requestMatchers("/actuator/cachesegundonivel/**").hasRole("ADMIN")
 
                         // GERENTE
                         .requestMatchers(HttpMethod.GET, "/gerentes").hasRole("ADMIN")
@@ -52,9 +58,17 @@ public class SecurityConfig {
         return http.build();
     }
 
+    // Custo fixo na configuração: com o mesmo custo em todas as instâncias, o hash refeito no login
+    // (gravado com custo menor) não depende de qual instância atendeu
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${security.senha.custo:12}") int custo,
+                                           @Value("${security.senha.orcamento-hash:250ms}") Duration orcamento) {
+        Duration tempo = CalibradorCustoBCrypt.medir(custo);
+        if (tempo.compareTo(orcamento) > 0) {
+            log.warn("Hash do BCrypt com custo {} levou {} ms, acima do orçamento de {}; nesta instância cabe o custo {}",
+                    custo, tempo.toMillis(), orcamento, CalibradorCustoBCrypt.calibrar(orcamento, 4, custo));
+        }
+        return new BCryptPasswordEncoder(custo);
     }
 
     @Bean
@@ -1,31 +1,69 @@
 package com.senai.conta_bancaria.infrastructure.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.senai.conta_bancaria.domain.event.UsuarioAlteradoEvent;
 import com.senai.conta_bancaria.domain.repository.UsuarioRepository;
-import lombok.RequiredArgsConstructor;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
 
-import java.util.List;
+import java.time.Duration;
 
+/**
+ * Usuários por e-mail para o modo com estado ({@code security.jwt.sem-estado=false}).
+ * Alterações feitas nesta instância removem a entrada via {@link UsuarioAlteradoEvent};
+ * as de outra instância aparecem em no máximo {@code security.usuario.cache.expiracao}.
+ * Taxa de acerto em {@code security.usuario.cache.taxa-acerto} e {@code cache.gets{cache=usuarios}}.
+ */
 @Service
-@RequiredArgsConstructor
 public class UsuarioDetailsService implements UserDetailsService {
 
     private final UsuarioRepository repository;
+    private final Cache<String, UserDetails> usuarios;
+
+    public UsuarioDetailsService(UsuarioRepository repository,
+                                 MeterRegistry metricas,
+                                 @Value("${security.usuario.cache.tamanho-maximo:10000}") long tamanhoMaximo,
+                                 @Value("${security.usuario.cache.expiracao:1m}") Duration expiracao) {
+        this.repository = repository;
+        this.usuarios = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfterWrite(expiracao)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(metricas, usuarios, "usuarios");
+        Gauge.builder("security.usuario.cache.taxa-acerto", usuarios, cache -> cache.stats().hitRate())
+                .register(metricas);
+    }
 
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
+        // E-mail inexistente não entra no cache: o usuário recém-criado aparece na hora
+        return usuarios.get(email, this::carregar);
+    }
+
+    // Depois do commit de quem alterou; sem transação, na hora
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAlterarUsuario(UsuarioAlteradoEvent evento) {
+        usuarios.invalidate(evento.email());
+    }
+
+    private UserDetails carregar(String email) {
         var usuario = repository.findByEmail(email)
                 .orElseThrow(() -> new UsernameNotFoundException("Usuário não encontrado"));
 
-        return new User(
-                usuario.getEmail(),
-                usuario.getSenha(),
-                List.of(new SimpleGrantedAuthority("ROLE_" + usuario.getRole().name()))
-        );
+        return User.withUsername(usuario.getEmail())
+                .password(usuario.getSenha())
+                .roles(usuario.getRole().name())
+                .disabled(!Boolean.TRUE.equals(usuario.getAtivo()))
+                .build();
     }
 }
@@ -8,6 +8,8 @@ import org.springframework.security.core.Authentication;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.CompletableFuture;
+
 @RestController
 @RequestMapping("/auth")
 @RequiredArgsConstructor
@@ -16,13 +18,13 @@ public class AuthController {
     private final AuthService auth;
     private final UsuarioRepository usuarios;
 
+    // Assíncrono: a thread do Tomcat é liberada enquanto o hash da senha é calculado
     @PostMapping("/login")
-    public ResponseEntity<AuthDTO.AuthResponse> login(@RequestBody AuthDTO.LoginRequest req) {
-        var tokens = auth.login(req);
-        return ResponseEntity.ok(new AuthDTO.AuthResponse(
+    public CompletableFuture<ResponseEntity<AuthDTO.AuthResponse>> login(@RequestBody AuthDTO.LoginRequest req) {
+        return auth.login(req).thenApply(tokens -> ResponseEntity.ok(new AuthDTO.AuthResponse(
                 tokens.get("accessToken"),
                 tokens.get("refreshToken")
-        ));
+        )));
     }
 
     @PostMapping("/refresh")
@@ -30,7 +32,7 @@ public class AuthController {
         var newToken = auth.refresh(req.refreshToken());
         return ResponseEntity.ok(new AuthDTO.AuthResponse(
                 newToken.get("accessToken"),
-                req.refreshToken()
+                newToken.get("refreshToken")
         ));
     }
 
@@ -3,7 +3,9 @@ package com.senai.conta_bancaria.interface_ui.controller;
 import com.senai.conta_bancaria.application.dto.ClienteAtualizadoDTO;
 import com.senai.conta_bancaria.application.dto.ClienteRegistroDTO;
 import com.senai.conta_bancaria.application.dto.ClienteResponseDTO;
+import com.senai.conta_bancaria.application.dto.ResumoSaldoClienteDTO;
 import com.senai.conta_bancaria.application.service.ClienteService;
+import com.senai.conta_bancaria.application.service.ResumoSaldoClienteService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -13,9 +15,11 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.net.URI;
 import java.util.List;
@@ -26,6 +30,7 @@ import java.util.List;
 @RequiredArgsConstructor
 public class ClienteController {
     private final ClienteService service;
+    private final ResumoSaldoClienteService resumoSaldos;
 
     @Operation(
             summary = "Criar cliente",
@@ -115,6 +120,10 @@ public class ClienteController {
                             responseCode = "200",
                             description = "Cliente encontrado com sucesso."
                     ),
+                    @ApiResponse(
+                            responseCode = "304",
+                            description = "Cliente e contas não mudaram desde o ETag enviado em If-None-Match."
+                    ),
                     @ApiResponse(
                             responseCode = "404",
                             description = "Cliente não encontrado.",
@@ -127,8 +136,43 @@ public class ClienteController {
     )
     @PreAuthorize( "hasRole('GERENTE')")
     @GetMapping("/cpf/{cpf}")
-    public ResponseEntity<ClienteResponseDTO> buscarClienteAtivoPorCpf(@PathVariable String cpf){
-        return ResponseEntity.ok(service.bucarClienteAtivoPorCpf(cpf));
+    public ResponseEntity<ClienteResponseDTO> buscarClienteAtivoPorCpf(@PathVariable String cpf, WebRequest requisicao){
+        String etag = service.versaoDoCliente(cpf);
+        if (requisicao.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .body(service.bucarClienteAtivoPorCpf(cpf));
+    }
+
+    @Operation(
+            summary = "Resumo de saldo do cliente",
+            description = "Retorna o saldo total e a quantidade de contas ativas do cliente sem somar as contas",
+            parameters = {
+                    @Parameter(
+                            name = "CPF",
+                            description = "CPF do cliente",
+                            example = "12345678910"
+                    )
+            },
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Resumo retornado com sucesso."),
+                    @ApiResponse(
+                            responseCode = "404",
+                            description = "Cliente não encontrado.",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    examples = @ExampleObject(value = "Cliente com CPF 12345678910 não encontrado.")
+                            )
+                    )
+            }
+    )
+    @PreAuthorize( "hasRole('GERENTE')")
+    @GetMapping("/cpf/{cpf}/resumo-saldo")
+    public ResponseEntity<ResumoSaldoClienteDTO> buscarResumoSaldo(@PathVariable String cpf){
+        return ResponseEntity.ok(resumoSaldos.buscarPorCpf(cpf));
     }
 
     @Operation(
@@ -2,9 +2,14 @@ package com.senai.conta_bancaria.interface_ui.controller;
 
 import com.senai.conta_bancaria.application.dto.ContaAtualizacaoDTO;
 import com.senai.conta_bancaria.application.dto.ContaResumoDTO;
+import com.senai.conta_bancaria.application.dto.ModoQuenteDTO;
+import com.senai.conta_bancaria.application.dto.PaginaContasDTO;
+import com.senai.conta_bancaria.application.dto.ResultadoTransferenciaLoteDTO;
+import com.senai.conta_bancaria.application.dto.TransferenciaLoteDTO;
 import com.senai.conta_bancaria.application.dto.TransferenciaDTO;
 import com.senai.conta_bancaria.application.dto.ValorSaqueDepositoDTO;
 import com.senai.conta_bancaria.application.service.ContaService;
+import com.senai.conta_bancaria.application.service.ExportacaoContaService;
 import com.senai.conta_bancaria.domain.entity.Conta;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -15,11 +20,15 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
+import java.math.BigDecimal;
 
 @Tag(name = "Contas", description = "Gerenciamento de contas bancárias dos clientes.")
 @RestController
@@ -27,14 +36,33 @@ import java.util.List;
 @RequiredArgsConstructor
 public class ContaController {
     private final ContaService service;
+    private final ExportacaoContaService exportacaoService;
 
     @Operation(
             summary = "Listar contas",
-            description = "Retorna todas as contas cadastradas do banco de dados",
+            description = "Retorna as contas ativas em páginas ordenadas pelo número. " +
+                    "Para a próxima página, envie o 'proximoCursor' recebido com os mesmos filtros. " +
+                    "O saldo inclui os créditos ainda em sub-saldos de contas quentes; com filtro de saldo, " +
+                    "uma página pode vir menor que o tamanho pedido mesmo havendo 'proximoCursor'.",
+            parameters = {
+                    @Parameter(name = "cursor", description = "Cursor devolvido pela página anterior"),
+                    @Parameter(name = "tamanho", description = "Contas por página (máximo 200)", example = "50"),
+                    @Parameter(name = "tipo", description = "CORRENTE ou POUPANCA", example = "CORRENTE"),
+                    @Parameter(name = "saldoMinimo", description = "Saldo mínimo, inclusive", example = "100.00"),
+                    @Parameter(name = "saldoMaximo", description = "Saldo máximo, inclusive", example = "5000.00")
+            },
             responses = {
                     @ApiResponse(
                             responseCode = "200",
-                            description = "Lista de contas retornadas com sucesso."),
+                            description = "Página de contas retornada com sucesso."),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "Cursor ou filtro inválido.",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    examples = @ExampleObject(value = "O cursor de paginação é inválido ou não pertence a esta listagem.")
+                            )
+                    ),
                     @ApiResponse(
                             responseCode = "404",
                             description = "Contas não encontradas.",
@@ -47,8 +75,37 @@ public class ContaController {
     )
     @PreAuthorize( "hasRole('GERENTE')")
     @GetMapping
-    public ResponseEntity<List<ContaResumoDTO>> listarTodasContas() {
-        return ResponseEntity.ok(service.listarTodasContas());
+    public ResponseEntity<PaginaContasDTO> listarTodasContas(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer tamanho,
+            @RequestParam(required = false) String tipo,
+            @RequestParam(required = false) BigDecimal saldoMinimo,
+            @RequestParam(required = false) BigDecimal saldoMaximo) {
+        return ResponseEntity.ok(service.listarTodasContas(cursor, tamanho, tipo, saldoMinimo, saldoMaximo));
+    }
+
+    @Operation(
+            summary = "Exportar contas",
+            description = "Exporta todas as contas, ativas e inativas, com CPF do cliente e saldo, " +
+                    "em NDJSON (uma conta por linha). As linhas são enviadas conforme são lidas do banco.",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Exportação iniciada.",
+                            content = @Content(
+                                    mediaType = "application/x-ndjson",
+                                    examples = @ExampleObject(value = "{\"numero\":\"123\",\"tipo\":\"CORRENTE\",\"cpfCliente\":\"12345678900\",\"saldo\":150.00,\"ativa\":true}")
+                            )
+                    )
+            }
+    )
+    @PreAuthorize( "hasRole('GERENTE')")
+    @GetMapping(value = "/exportacao", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> exportarContas() {
+        StreamingResponseBody corpo = exportacaoService::exportar;
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(corpo);
     }
 
     @Operation(
@@ -62,6 +119,7 @@ public class ContaController {
             },
             responses = {
                     @ApiResponse(responseCode = "200", description = "Conta encontrada com sucesso."),
+                    @ApiResponse(responseCode = "304", description = "Conta não mudou desde o ETag enviado em If-None-Match."),
                     @ApiResponse(
                             responseCode = "404",
                             description = "Conta não encontrada.",
@@ -74,8 +132,16 @@ public class ContaController {
     )
     @PreAuthorize( "hasRole('GERENTE')")
     @GetMapping("/{numeroConta}")
-    public ResponseEntity<ContaResumoDTO> buscarContaPorNumero(@PathVariable String numeroConta) {
-        return ResponseEntity.ok(service.buscarContaPorNumero(numeroConta));
+    public ResponseEntity<ContaResumoDTO> buscarContaPorNumero(@PathVariable String numeroConta, WebRequest requisicao) {
+        // Versão lida antes do corpo: se a conta mudar no meio, o próximo GET devolve 200 de novo
+        String etag = service.versaoDaConta(numeroConta);
+        if (requisicao.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .body(service.buscarContaPorNumero(numeroConta));
     }
 
     @Operation(
@@ -173,7 +239,11 @@ public class ContaController {
                     @Parameter(
                             name = "numero",
                             description = "Numero da conta que deseja sacar",
-                            example = "1592-8")
+                            example = "1592-8"),
+                    @Parameter(
+                            name = "Idempotency-Key",
+                            description = "Chave única da requisição; reenvios com a mesma chave devolvem a resposta original",
+                            example = "3f2b8c1e-9a4d-4f7e-b1c2-5d6e7f8a9b0c")
             },
             requestBody =  @io.swagger.v3.oas.annotations.parameters.RequestBody(
                     required = true,
@@ -213,8 +283,9 @@ public class ContaController {
     @PreAuthorize( "hasRole('CLIENTE')")
     @PostMapping("/{numeroConta}/sacar")
     public ResponseEntity<ContaResumoDTO> sacar(@PathVariable String numeroConta,
-                                                @Valid @RequestBody ValorSaqueDepositoDTO dto) {
-        return ResponseEntity.ok(service.sacar(numeroConta, dto));
+                                                @Valid @RequestBody ValorSaqueDepositoDTO dto,
+                                                @RequestHeader(value = "Idempotency-Key", required = false) String chaveIdempotencia) {
+        return ResponseEntity.ok(service.sacar(numeroConta, dto, chaveIdempotencia));
     }
 
     @Operation(
@@ -224,7 +295,11 @@ public class ContaController {
                     @Parameter(
                             name = "numero",
                             description = "Numero da conta que deseja depositar",
-                            example = "1592-8")
+                            example = "1592-8"),
+                    @Parameter(
+                            name = "Idempotency-Key",
+                            description = "Chave única da requisição; reenvios com a mesma chave devolvem a resposta original",
+                            example = "3f2b8c1e-9a4d-4f7e-b1c2-5d6e7f8a9b0c")
             },
             requestBody =  @io.swagger.v3.oas.annotations.parameters.RequestBody(
                     required = true,
@@ -263,8 +338,9 @@ public class ContaController {
     @PreAuthorize( "hasRole('CLIENTE')")
     @PostMapping("/{numeroConta}/depositar")
     public ResponseEntity<ContaResumoDTO> depositar(@PathVariable String numeroConta,
-                                                    @Valid @RequestBody ValorSaqueDepositoDTO dto) {
-        return ResponseEntity.ok(service.depositar(numeroConta, dto));
+                                                    @Valid @RequestBody ValorSaqueDepositoDTO dto,
+                                                    @RequestHeader(value = "Idempotency-Key", required = false) String chaveIdempotencia) {
+        return ResponseEntity.ok(service.depositar(numeroConta, dto, chaveIdempotencia));
     }
 
     @Operation(
@@ -274,7 +350,11 @@ public class ContaController {
                     @Parameter(
                             name = "numero",
                             description = "Numero da conta que deseja trasnferir",
-                            example = "1592-8")
+                            example = "1592-8"),
+                    @Parameter(
+                            name = "Idempotency-Key",
+                            description = "Chave única da requisição; reenvios com a mesma chave devolvem a resposta original",
+                            example = "3f2b8c1e-9a4d-4f7e-b1c2-5d6e7f8a9b0c")
             },
             requestBody =  @io.swagger.v3.oas.annotations.parameters.RequestBody(
                     required = true,
@@ -316,8 +396,47 @@ public class ContaController {
     @PreAuthorize( "hasRole('CLIENTE')")
     @PostMapping("/{numeroConta}/transferir")
     public ResponseEntity<ContaResumoDTO> transferir(@PathVariable String numeroConta,
-                                                @Valid @RequestBody TransferenciaDTO dto) {
-        return ResponseEntity.ok(service.transferir(numeroConta, dto));
+                                                @Valid @RequestBody TransferenciaDTO dto,
+                                                @RequestHeader(value = "Idempotency-Key", required = false) String chaveIdempotencia) {
+        return ResponseEntity.ok(service.transferir(numeroConta, dto, chaveIdempotencia));
+    }
+
+    @Operation(
+            summary = "Transferências em lote",
+            description = "Executa várias transferências numa única requisição (ex.: folha de pagamento). " +
+                    "Cada item é aplicado de forma independente e o resultado informa sucesso ou falha por item. " +
+                    "Os itens são gravados em ordem, em blocos com um número limitado de contas.",
+            requestBody =  @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                    required = true,
+                    content = @Content(
+                            schema = @Schema(implementation = TransferenciaLoteDTO.class),
+                            examples = @ExampleObject(name = "Exemplo de lote",
+                                    value = """
+                                        {
+                                          "transferencias": [
+                                            { "contaOrigem": "1592-8", "contaDestino": "2001-3", "valor": 1500.0 },
+                                            { "contaOrigem": "1592-8", "contaDestino": "2002-1", "valor": 2300.0 }
+                                          ]
+                                        }
+                                    """)
+                    )
+            ),
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Lote processado; veja o resultado de cada item."),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "Erro de validação",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    examples = @ExampleObject(value = "O lote deve ter no máximo 1000 transferências")
+                            )
+                    )
+            }
+    )
+    @PreAuthorize( "hasRole('CLIENTE')")
+    @PostMapping("/transferencias/lote")
+    public ResponseEntity<ResultadoTransferenciaLoteDTO> transferirEmLote(@Valid @RequestBody TransferenciaLoteDTO dto) {
+        return ResponseEntity.ok(service.transferirEmLote(dto));
     }
 
     @Operation(
@@ -367,6 +486,43 @@ public class ContaController {
     public ResponseEntity<ContaResumoDTO> aplicarRendimento(@PathVariable String numeroConta) {
         return ResponseEntity.ok(service.aplicarRendimento(numeroConta));
     }
-}
-
 
+    @Operation(
+            summary = "Definir modo conta quente",
+            description = "Espalha o saldo da conta em sub-saldos para aguentar muitos depósitos simultâneos. Use 0 para desligar.",
+            parameters = {
+                    @Parameter(name = "numero",
+                            description = "Numero da conta",
+                            example = "1592-8")
+            },
+            requestBody =  @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                    required = true,
+                    content = @Content(
+                            schema = @Schema(implementation = ModoQuenteDTO.class),
+                            examples = @ExampleObject(name = "Exemplo de modo quente", value = """
+                                        {
+                                          "subSaldos":16
+                                        }
+                                    """)
+                    )
+            ),
+            responses = {
+                    @ApiResponse(responseCode = "204", description = "Modo quente atualizado com sucesso."),
+                    @ApiResponse(
+                            responseCode = "404",
+                            description = "Conta não encontrada.",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    examples = @ExampleObject(value = "Conta 1592-8 não encontrada.")
+                            )
+                    )
+            }
+    )
+    @PreAuthorize( "hasRole('GERENTE')")
+    @PutMapping("/{numeroConta}/modo-quente")
+    public ResponseEntity<Void> definirModoQuente(@PathVariable String numeroConta,
+                                                  @Valid @RequestBody ModoQuenteDTO dto) {
+        service.definirModoQuente(numeroConta, dto);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -5,8 +5,10 @@ import com.senai.conta_bancaria.domain.exception.*;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.ConstraintViolationException;
 import org.springframework.core.convert.ConversionFailedException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -104,6 +106,41 @@ public class GlobalExceptionHandler {
         );
     }
 
+    @ExceptionHandler(ChaveIdempotenciaInvalidaException.class)
+    public ProblemDetail handleChaveIdempotenciaInvalidaException(ChaveIdempotenciaInvalidaException exception,
+                                                                  HttpServletRequest request) {
+        return buildProblem(
+                HttpStatus.UNPROCESSABLE_ENTITY,
+                "Chave de idempotência inválida",
+                exception.getMessage(),
+                request.getRequestURI()
+        );
+    }
+
+    @ExceptionHandler(CursorInvalidoException.class)
+    public ProblemDetail handleCursorInvalidoException(CursorInvalidoException exception,
+                                                       HttpServletRequest request) {
+        return buildProblem(
+                HttpStatus.BAD_REQUEST,
+                "Cursor inválido",
+                exception.getMessage(),
+                request.getRequestURI()
+        );
+    }
+
+    @ExceptionHandler(LoginSobrecarregadoException.class)
+    public ResponseEntity<ProblemDetail> handleLoginSobrecarregadoException(LoginSobrecarregadoException exception,
+                                                                            HttpServletRequest request) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(buildProblem(
+                        HttpStatus.TOO_MANY_REQUESTS,
+                        "Login sobrecarregado",
+                        exception.getMessage(),
+                        request.getRequestURI()
+                ));
+    }
+
     @ExceptionHandler(UsuarioNaoEncontradoException.class)
     public ProblemDetail handleUsuarioNaoEncontradoException(UsuarioNaoEncontradoException exception,
                                                              HttpServletRequest request) {
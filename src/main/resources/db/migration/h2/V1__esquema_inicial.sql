@@ -0,0 +1,133 @@
+-- Esquema inicial: o mesmo que o Hibernate gerava a partir das entidades,
+-- com saldo em numeric(19,2) e rendimento em numeric(7,4)
+
+create table usuario (
+    id    varchar(255) not null,
+    nome  varchar(120) not null,
+    cpf   varchar(11)  not null,
+    email varchar(255) not null,
+    senha varchar(255) not null,
+    ativo boolean      not null,
+    role  varchar(20)  not null,
+    constraint pk_usuario primary key (id),
+    constraint uk_usuario_cpf unique (cpf),
+    constraint uk_usuario_email unique (email)
+);
+
+create table cliente (
+    id varchar(255) not null,
+    constraint pk_cliente primary key (id),
+    constraint fk_cliente_usuario foreign key (id) references usuario (id)
+);
+
+create table gerente (
+    id varchar(255) not null,
+    constraint pk_gerente primary key (id),
+    constraint fk_gerente_usuario foreign key (id) references usuario (id)
+);
+
+create table conta_dto (
+    id                    varchar(255)   not null,
+    tipo_conta            varchar(20)    not null,
+    numero                varchar(20)    not null,
+    saldo                 numeric(19, 2) not null,
+    ativa                 boolean        not null,
+    versao                bigint,
+    sequencia_lancamento  bigint         not null,
+    conta_quente          boolean        not null,
+    quantidade_sub_saldos integer        not null,
+    cliente_id            varchar(255),
+    limite                numeric(19, 2),
+    taxa                  numeric(19, 2),
+    rendimento            numeric(7, 4),
+    constraint pk_conta primary key (id),
+    constraint uk_conta_numero unique (numero),
+    constraint uk_cliente_tipo unique (cliente_id, tipo_conta),
+    constraint fk_conta_cliente foreign key (cliente_id) references cliente (id)
+);
+
+create index idx_conta_ativa_numero on conta_dto (ativa, numero);
+create index idx_conta_tipo_ativa_numero on conta_dto (tipo_conta, ativa, numero);
+create index idx_conta_ativa_saldo on conta_dto (ativa, saldo);
+
+create table codigo_autenticacao (
+    id         varchar(255) not null,
+    codigo     varchar(255) not null,
+    expira_em  timestamp(6) not null,
+    validado   boolean      not null,
+    cliente_id varchar(255),
+    constraint pk_codigo_autenticacao primary key (id),
+    constraint fk_codigo_cliente foreign key (cliente_id) references cliente (id)
+);
+
+create table lancamento (
+    id               varchar(255)   not null,
+    conta_id         varchar(255)   not null,
+    sequencia        bigint,
+    sub_saldo        integer,
+    tipo             varchar(30)    not null,
+    valor            numeric(19, 2) not null,
+    transferencia_id varchar(36),
+    data_hora        timestamp(6) not null,
+    constraint pk_lancamento primary key (id),
+    constraint uk_lancamento_conta_sequencia unique (conta_id, sequencia),
+    constraint fk_lancamento_conta foreign key (conta_id) references conta_dto (id)
+);
+
+create table saldo_consolidado (
+    id        varchar(255)   not null,
+    conta_id  varchar(255)   not null,
+    sequencia bigint         not null,
+    saldo     numeric(19, 2) not null,
+    data_hora timestamp(6) not null,
+    constraint pk_saldo_consolidado primary key (id),
+    constraint uk_consolidado_conta_sequencia unique (conta_id, sequencia),
+    constraint fk_consolidado_conta foreign key (conta_id) references conta_dto (id)
+);
+
+create table sub_saldo_conta (
+    id       varchar(255)   not null,
+    conta_id varchar(255)   not null,
+    slot     integer        not null,
+    saldo    numeric(19, 2) not null,
+    constraint pk_sub_saldo_conta primary key (id),
+    constraint uk_sub_saldo_conta_slot unique (conta_id, slot),
+    constraint fk_sub_saldo_conta foreign key (conta_id) references conta_dto (id)
+);
+
+create table taxa (
+    id         varchar(255)   not null,
+    descricao  varchar(120)   not null,
+    percentual numeric(19, 2) not null,
+    valor_fixo numeric(19, 2) not null,
+    constraint pk_taxa primary key (id)
+);
+
+create table pagamento (
+    id             varchar(255)   not null,
+    conta_id       varchar(255),
+    boleto         varchar(120)   not null,
+    valor_pago     numeric(19, 2) not null,
+    data_pagamento timestamp(6) not null,
+    status         varchar(20)    not null,
+    constraint pk_pagamento primary key (id),
+    constraint fk_pagamento_conta foreign key (conta_id) references conta_dto (id)
+);
+
+create table taxa_pagamento (
+    pagamento_id varchar(255) not null,
+    taxa_id      varchar(255) not null,
+    constraint fk_taxa_pagamento_pagamento foreign key (pagamento_id) references pagamento (id),
+    constraint fk_taxa_pagamento_taxa foreign key (taxa_id) references taxa (id)
+);
+
+create table chave_idempotencia (
+    chave           varchar(100)   not null,
+    operacao        varchar(30)    not null,
+    numero_conta    varchar(20)    not null,
+    numero_resposta varchar(20)    not null,
+    tipo_resposta   varchar(20)    not null,
+    saldo_resposta  numeric(19, 2) not null,
+    criada_em       timestamp(6) not null,
+    constraint pk_chave_idempotencia primary key (chave)
+);
@@ -0,0 +1,18 @@
+-- Índices para os caminhos de busca por chave das consultas derivadas.
+-- Conta por número e usuário por e-mail/CPF já usam as chaves únicas do V1.
+
+-- PagamentoRepository.findByBoleto
+create index idx_pagamento_boleto on pagamento (boleto);
+
+-- CodigoAutenticacaoRepository.findFirstByClienteIdAndValidadoFalseOrderByExpiraEmDesc:
+-- igualdade em cliente_id e validado, ordenação já resolvida pelo índice
+create index idx_codigo_cliente_validado_expira on codigo_autenticacao (cliente_id, validado, expira_em);
+
+-- UsuarioRepository/ClienteRepository/GerenteRepository.findByCpfAndAtivoTrue: cobre o filtro de ativo
+create index idx_usuario_cpf_ativo on usuario (cpf, ativo);
+
+-- ContaRepository.findByNumeroAndAtivaTrue e buscarIdAtivaPorNumero: responde id sem ler a linha
+create index idx_conta_numero_ativa_id on conta_dto (numero, ativa, id);
+
+-- IdempotenciaService: limpeza diária por data de criação
+create index idx_chave_idempotencia_criada_em on chave_idempotencia (criada_em);
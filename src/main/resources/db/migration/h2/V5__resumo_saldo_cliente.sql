@@ -0,0 +1,19 @@
+-- Totais por cliente mantidos por delta; a carga inicial sai das contas ativas
+create table resumo_saldo_cliente (
+    cliente_id          varchar(255)   not null,
+    saldo_total         numeric(19, 2) not null,
+    quantidade_corrente integer        not null,
+    quantidade_poupanca integer        not null,
+    ultima_movimentacao timestamp(6),
+    constraint pk_resumo_saldo_cliente primary key (cliente_id),
+    constraint fk_resumo_saldo_cliente foreign key (cliente_id) references cliente (id)
+);
+
+insert into resumo_saldo_cliente (cliente_id, saldo_total, quantidade_corrente, quantidade_poupanca)
+select cl.id,
+       coalesce(sum(case when c.ativa = true then c.saldo else 0 end), 0),
+       coalesce(sum(case when c.ativa = true and c.tipo_conta = 'CORRENTE' then 1 else 0 end), 0),
+       coalesce(sum(case when c.ativa = true and c.tipo_conta = 'POUPANCA' then 1 else 0 end), 0)
+from cliente cl
+         left join conta_dto c on c.cliente_id = cl.id
+group by cl.id;
@@ -0,0 +1,9 @@
+-- Versão mínima aceita nos tokens de acesso de cada e-mail, por tempo limitado à validade do token
+create table revogacao_token (
+    email         varchar(255) not null,
+    versao_minima bigint       not null,
+    alterado_em   timestamp(6)  not null,
+    constraint pk_revogacao_token primary key (email)
+);
+
+create index idx_revogacao_token_alterado_em on revogacao_token (alterado_em);
@@ -0,0 +1,8 @@
+-- Batimento gravado no primário e lido na réplica para medir o atraso de replicação
+create table replica_batimento (
+    id          integer not null,
+    instante_ms bigint  not null,
+    constraint pk_replica_batimento primary key (id)
+) engine = InnoDB;
+
+insert into replica_batimento (id, instante_ms) values (1, 0);
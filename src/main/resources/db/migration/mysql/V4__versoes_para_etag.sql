@@ -0,0 +1,3 @@
+-- Contadores de alteração usados nos ETags de cliente e de conta quente
+alter table usuario add column versao bigint default 0 not null;
+alter table sub_saldo_conta add column versao bigint default 0 not null;
@@ -0,0 +1,25 @@
+-- Família de refresh tokens: cada login abre uma e cada refresh troca o jti aceito
+create table familia_refresh_token (
+    id            varchar(36)  not null,
+    email         varchar(255) not null,
+    jti_atual     varchar(36)  not null,
+    revogada      boolean      not null,
+    criada_em     datetime(6)  not null,
+    atualizada_em datetime(6)  not null,
+    constraint pk_familia_refresh_token primary key (id)
+) engine = InnoDB;
+
+create index idx_familia_refresh_token_email on familia_refresh_token (email);
+create index idx_familia_refresh_token_atualizada_em on familia_refresh_token (atualizada_em);
+
+-- Ids de refresh tokens já trocados, guardados até o token vencer
+create table refresh_token_revogado (
+    jti         varchar(36)  not null,
+    familia_id  varchar(36)  not null,
+    expira_em   datetime(6)  not null,
+    revogado_em datetime(6)  not null,
+    constraint pk_refresh_token_revogado primary key (jti)
+) engine = InnoDB;
+
+create index idx_refresh_token_revogado_revogado_em on refresh_token_revogado (revogado_em);
+create index idx_refresh_token_revogado_expira_em on refresh_token_revogado (expira_em);
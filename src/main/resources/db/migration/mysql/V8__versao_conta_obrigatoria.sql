@@ -0,0 +1,4 @@
+-- Contas gravadas antes do @Version ficaram com versão nula: o Spring Data as tratava como
+-- novas no save e o UPDATE guardado por versão do motor de saldos nunca as encontrava
+update conta_dto set versao = 0 where versao is null;
+alter table conta_dto modify versao bigint default 0 not null;
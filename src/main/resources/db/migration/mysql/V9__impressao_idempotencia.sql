@@ -0,0 +1,3 @@
+-- Chaves gravadas antes da impressão ficam com '' e nunca batem com uma requisição nova;
+-- como a chave passou a ser resumida com o usuário, elas só esperam a limpeza diária
+alter table chave_idempotencia add column impressao varchar(64) default '' not null;
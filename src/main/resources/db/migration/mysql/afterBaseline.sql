@@ -0,0 +1,5 @@
+-- Callback do Flyway: roda só quando o baseline-on-migrate marca como V1 um banco criado pelo
+-- Hibernate antes das migrações. Deixa as colunas como o V1 as cria; tabelas, chaves únicas e
+-- índices já vinham das anotações das entidades.
+alter table conta_dto modify saldo decimal(19, 2) not null;
+alter table conta_dto modify rendimento decimal(7, 4);
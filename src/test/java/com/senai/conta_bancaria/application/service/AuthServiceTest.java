@@ -0,0 +1,72 @@
+package com.senai.conta_bancaria.application.service;
+
+import com.senai.conta_bancaria.application.dto.AuthDTO;
+import com.senai.conta_bancaria.domain.entity.Gerente;
+import com.senai.conta_bancaria.domain.enums.Role;
+import com.senai.conta_bancaria.domain.repository.GerenteRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.bcrypt.BCrypt;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * O login refaz o hash gravado com custo menor que {@code security.senha.custo} (5 no perfil de teste)
+ * e não mexe no que já usa o custo configurado ou maior.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class AuthServiceTest {
+
+    private static final String SENHA = "Senha@123";
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private GerenteRepository gerenteRepository;
+
+    @Autowired
+    private PasswordEncoder encoder;
+
+    @Test
+    void loginRefazHashComCustoMenor() {
+        Gerente gerente = gerente("95000000001", "gerente.rehash@banco.com", 4);
+
+        var tokens = authService.login(new AuthDTO.LoginRequest(gerente.getEmail(), SENHA)).join();
+
+        assertNotNull(tokens.get("accessToken"));
+        String hash = gerenteRepository.findById(gerente.getId()).orElseThrow().getSenha();
+        assertTrue(hash.startsWith("$2a$05$"), hash);
+        assertTrue(encoder.matches(SENHA, hash));
+
+        // Já no custo configurado: o próximo login não grava de novo
+        authService.login(new AuthDTO.LoginRequest(gerente.getEmail(), SENHA)).join();
+        assertEquals(hash, gerenteRepository.findById(gerente.getId()).orElseThrow().getSenha());
+    }
+
+    @Test
+    void loginNaoBaixaCustoMaior() {
+        Gerente gerente = gerente("95000000002", "gerente.semrehash@banco.com", 6);
+
+        authService.login(new AuthDTO.LoginRequest(gerente.getEmail(), SENHA)).join();
+
+        assertEquals(gerente.getSenha(), gerenteRepository.findById(gerente.getId()).orElseThrow().getSenha());
+    }
+
+    private Gerente gerente(String cpf, String email, int custo) {
+        return gerenteRepository.save(Gerente.builder()
+                .nome("Gerente Login")
+                .cpf(cpf)
+                .email(email)
+                .senha(BCrypt.hashpw(SENHA, BCrypt.gensalt(custo)))
+                .ativo(true)
+                .role(Role.GERENTE)
+                .build());
+    }
+}
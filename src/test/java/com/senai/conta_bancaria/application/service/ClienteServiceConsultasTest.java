@@ -0,0 +1,110 @@
+package com.senai.conta_bancaria.application.service;
+
+import com.senai.conta_bancaria.domain.entity.Cliente;
+import com.senai.conta_bancaria.domain.entity.Conta;
+import com.senai.conta_bancaria.domain.entity.ContaCorrente;
+import com.senai.conta_bancaria.domain.entity.ContaPoupanca;
+import com.senai.conta_bancaria.domain.enums.Role;
+import com.senai.conta_bancaria.domain.repository.ClienteRepository;
+import com.senai.conta_bancaria.domain.valueobject.Dinheiro;
+import com.senai.conta_bancaria.infrastructure.persistence.ContadorConsultas;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * A listagem e a busca de clientes devem carregar as contas sem uma consulta por cliente.
+ * Roda fora de transação, como o serviço: qualquer acesso lazy que sobrar quebra o teste.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ClienteServiceConsultasTest {
+
+    @Autowired
+    private ClienteService clienteService;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    private final List<String> criados = new ArrayList<>();
+
+    @BeforeEach
+    void autenticar() {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken("teste", null,
+                List.of(new SimpleGrantedAuthority("ROLE_GERENTE"))));
+    }
+
+    @AfterEach
+    void limpar() {
+        SecurityContextHolder.clearContext();
+        clienteRepository.deleteAllById(criados);
+        criados.clear();
+    }
+
+    @Test
+    void listagemDeClientesNaoDependeDaQuantidade() {
+        criarClientes(0, 2);
+        int comPoucos = contarConsultas(clienteService::listarClientesAtivos);
+
+        criarClientes(2, 30);
+        int comMuitos = contarConsultas(clienteService::listarClientesAtivos);
+
+        assertEquals(comPoucos, comMuitos);
+        assertEquals(1, comMuitos);
+    }
+
+    @Test
+    void buscaPorCpfCarregaAsContasJunto() {
+        criarClientes(0, 1);
+
+        int consultas = contarConsultas(() -> clienteService.bucarClienteAtivoPorCpf(cpf(0)));
+
+        assertEquals(1, consultas);
+    }
+
+    private int contarConsultas(Runnable acao) {
+        ContadorConsultas.zerar();
+        acao.run();
+        return ContadorConsultas.total();
+    }
+
+    private void criarClientes(int de, int ate) {
+        for (int i = de; i < ate; i++) {
+            Cliente cliente = Cliente.builder()
+                    .nome("Cliente Consulta")
+                    .cpf(cpf(i))
+                    .email("consulta" + i + "@banco.com")
+                    .senha("senha")
+                    .ativo(true)
+                    .role(Role.CLIENTE)
+                    .build();
+
+            List<Conta> contas = new ArrayList<>();
+            contas.add(ContaCorrente.builder()
+                    .numero("CC-" + i).saldo(Dinheiro.ZERO).ativa(true).cliente(cliente)
+                    .limite(Dinheiro.ZERO).taxa(BigDecimal.ZERO).build());
+            contas.add(ContaPoupanca.builder()
+                    .numero("CP-" + i).saldo(Dinheiro.ZERO).ativa(true).cliente(cliente)
+                    .rendimento(BigDecimal.ZERO).build());
+            cliente.setContas(contas);
+
+            criados.add(clienteRepository.save(cliente).getId());
+        }
+    }
+
+    private static String cpf(int i) {
+        return String.format("%011d", 90_000_000_000L + i);
+    }
+}
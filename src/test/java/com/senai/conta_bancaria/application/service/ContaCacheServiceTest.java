@@ -0,0 +1,174 @@
+package com.senai.conta_bancaria.application.service;
+
+import com.senai.conta_bancaria.application.dto.ContaAtualizacaoDTO;
+import com.senai.conta_bancaria.application.dto.ItemTransferenciaLoteDTO;
+import com.senai.conta_bancaria.application.dto.TransferenciaDTO;
+import com.senai.conta_bancaria.application.dto.TransferenciaLoteDTO;
+import com.senai.conta_bancaria.application.dto.ValorSaqueDepositoDTO;
+import com.senai.conta_bancaria.domain.entity.Conta;
+import com.senai.conta_bancaria.domain.entity.ContaPoupanca;
+import com.senai.conta_bancaria.domain.exception.EntidadeNaoEncontradaException;
+import com.senai.conta_bancaria.domain.repository.ContaRepository;
+import com.senai.conta_bancaria.domain.valueobject.Dinheiro;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Acertos do cache de contas e invalidação por cada operação que altera saldo:
+ * na hora, para a própria transação, e de novo depois do commit.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ContaCacheServiceTest {
+
+    @Autowired
+    private ContaCacheService contaCache;
+
+    @Autowired
+    private ContaService contaService;
+
+    @Autowired
+    private ContaRepository contaRepository;
+
+    @Autowired
+    private TransactionTemplate transacao;
+
+    @Autowired
+    private MeterRegistry metricas;
+
+    @Autowired
+    private ContasDeTeste contas;
+
+    @BeforeEach
+    void autenticar() {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken("teste", null,
+                List.of(new SimpleGrantedAuthority("ROLE_CLIENTE"), new SimpleGrantedAuthority("ROLE_GERENTE"))));
+    }
+
+    @AfterEach
+    void limpar() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void segundaLeituraVemDoCache() {
+        contas.criar("CACHE-1", "10.00");
+        double acertos = leituras("hit");
+        double faltas = leituras("miss");
+
+        contaCache.buscarAtiva("CACHE-1");
+        contaCache.buscarAtiva("CACHE-1");
+
+        assertEquals(faltas + 1, leituras("miss"));
+        assertEquals(acertos + 1, leituras("hit"));
+    }
+
+    @Test
+    void contaInexistenteNaoFicaNoCache() {
+        assertThrows(EntidadeNaoEncontradaException.class, () -> contaCache.buscarAtiva("CACHE-NOVA"));
+
+        contas.criar("CACHE-NOVA", "1.00");
+
+        assertEquals("CACHE-NOVA", contaCache.buscarAtiva("CACHE-NOVA").numero());
+    }
+
+    @Test
+    void invalidaNaHoraEDepoisDoCommit() {
+        contas.criar("CACHE-2", "10.00");
+        contaCache.buscarAtiva("CACHE-2");
+        double faltas = leituras("miss");
+
+        transacao.executeWithoutResult(status -> {
+            contaCache.invalidar("CACHE-2");
+            // Falta: a remoção imediata vale dentro da transação
+            contaCache.buscarAtiva("CACHE-2");
+            assertEquals(faltas + 1, leituras("miss"));
+        });
+
+        // Falta de novo: o que a transação recarregou saiu no afterCompletion
+        contaCache.buscarAtiva("CACHE-2");
+        assertEquals(faltas + 2, leituras("miss"));
+    }
+
+    @Test
+    void cadaOperacaoDeDinheiroInvalidaAsContasEnvolvidas() {
+        contas.criar("CACHE-3", "0.00");
+        contas.criar("CACHE-4", "0.00");
+        salvar(ContaPoupanca.builder()
+                .numero("CACHE-5")
+                .saldo(Dinheiro.de(new BigDecimal("100.00")))
+                .rendimento(new BigDecimal("0.1000"))
+                .ativa(true)
+                .build());
+
+        aquecer("CACHE-3");
+        contaService.depositar("CACHE-3", valor("100.00"), null);
+        assertCacheIgualAoBanco("CACHE-3");
+
+        // Com lançamentos já no diário o saque passa pelo UPDATE direto, sem carregar a entidade
+        aquecer("CACHE-3");
+        contaService.sacar("CACHE-3", valor("10.00"), null);
+        assertCacheIgualAoBanco("CACHE-3");
+
+        aquecer("CACHE-3", "CACHE-4");
+        contaService.transferir("CACHE-3", new TransferenciaDTO("CACHE-4", new BigDecimal("5.00")), null);
+        assertCacheIgualAoBanco("CACHE-3", "CACHE-4");
+
+        aquecer("CACHE-3", "CACHE-4");
+        contaService.transferirEmLote(new TransferenciaLoteDTO(List.of(
+                new ItemTransferenciaLoteDTO("CACHE-4", "CACHE-3", new BigDecimal("1.00")))));
+        assertCacheIgualAoBanco("CACHE-3", "CACHE-4");
+
+        aquecer("CACHE-4");
+        contaService.atualizarConta("CACHE-4", new ContaAtualizacaoDTO(new BigDecimal("50.00"),
+                BigDecimal.ZERO, null, BigDecimal.ZERO));
+        assertCacheIgualAoBanco("CACHE-4");
+
+        aquecer("CACHE-5");
+        contaService.aplicarRendimento("CACHE-5");
+        assertCacheIgualAoBanco("CACHE-5");
+    }
+
+    private void aquecer(String... numeros) {
+        for (String numero : numeros) {
+            contaCache.buscarAtiva(numero);
+        }
+    }
+
+    private void assertCacheIgualAoBanco(String... numeros) {
+        for (String numero : numeros) {
+            Conta conta = contaRepository.findByNumeroAndAtivaTrue(numero).orElseThrow();
+            ContaCacheService.ContaEmCache emCache = contaCache.buscarAtiva(numero);
+
+            assertEquals(conta.getSaldo(), emCache.saldo(), numero);
+            assertEquals(conta.getSequenciaLancamento(), emCache.sequenciaLancamento(), numero);
+        }
+    }
+
+    private double leituras(String resultado) {
+        return metricas.get("cache.gets").tags("cache", "contas", "result", resultado).functionCounter().count();
+    }
+
+    private static ValorSaqueDepositoDTO valor(String valor) {
+        return new ValorSaqueDepositoDTO(new BigDecimal(valor));
+    }
+
+    private void salvar(Conta conta) {
+        contaRepository.save(conta);
+    }
+}
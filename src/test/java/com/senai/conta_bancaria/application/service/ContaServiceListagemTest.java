@@ -0,0 +1,141 @@
+package com.senai.conta_bancaria.application.service;
+
+import com.senai.conta_bancaria.application.dto.ContaResumoDTO;
+import com.senai.conta_bancaria.application.dto.ModoQuenteDTO;
+import com.senai.conta_bancaria.application.dto.PaginaContasDTO;
+import com.senai.conta_bancaria.application.dto.ValorSaqueDepositoDTO;
+import com.senai.conta_bancaria.domain.exception.CursorInvalidoException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Listagem por keyset. Cada teste usa uma faixa de saldo própria como filtro, para não
+ * enxergar as contas criadas pelos outros testes no mesmo banco.
+ */
+@SpringBootTest(properties = "conta.listagem.tamanho-maximo=5")
+@ActiveProfiles("test")
+class ContaServiceListagemTest {
+
+    @Autowired
+    private ContaService contaService;
+
+    @Autowired
+    private ContasDeTeste contas;
+
+    @BeforeEach
+    void autenticar() {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken("teste", null,
+                List.of(new SimpleGrantedAuthority("ROLE_GERENTE"), new SimpleGrantedAuthority("ROLE_CLIENTE"))));
+    }
+
+    @AfterEach
+    void limpar() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void cursorPercorreTodasAsPaginasNaOrdemDoNumero() {
+        for (int i = 7; i >= 1; i--) {
+            contas.criar("LISTA-0" + i, "771000.00");
+        }
+        BigDecimal minimo = new BigDecimal("771000.00");
+        BigDecimal maximo = new BigDecimal("771999.99");
+
+        List<String> numeros = new ArrayList<>();
+        List<Integer> tamanhos = new ArrayList<>();
+        String cursor = null;
+        do {
+            PaginaContasDTO pagina = contaService.listarTodasContas(cursor, 3, null, minimo, maximo);
+            pagina.contas().forEach(conta -> numeros.add(conta.numero()));
+            tamanhos.add(pagina.contas().size());
+            cursor = pagina.proximoCursor();
+        } while (cursor != null);
+
+        assertEquals(List.of(3, 3, 1), tamanhos);
+        assertEquals(List.of("LISTA-01", "LISTA-02", "LISTA-03", "LISTA-04", "LISTA-05", "LISTA-06", "LISTA-07"),
+                numeros);
+    }
+
+    @Test
+    void filtroEmOutraEscalaAceitaOMesmoCursor() {
+        contas.criar("ESCALA-1", "772000.00");
+        contas.criar("ESCALA-2", "772000.00");
+
+        PaginaContasDTO primeira = contaService.listarTodasContas(null, 1, null,
+                new BigDecimal("772000"), new BigDecimal("772999.9"));
+        PaginaContasDTO segunda = contaService.listarTodasContas(primeira.proximoCursor(), 1, null,
+                new BigDecimal("772000.000"), new BigDecimal("772999.90"));
+
+        assertEquals("ESCALA-1", primeira.contas().get(0).numero());
+        assertEquals("ESCALA-2", segunda.contas().get(0).numero());
+    }
+
+    @Test
+    void cursorAdulteradoOuDeOutroFiltroEhRecusado() {
+        contas.criar("CURSOR-1", "773000.00");
+        contas.criar("CURSOR-2", "773000.00");
+        BigDecimal minimo = new BigDecimal("773000.00");
+        BigDecimal maximo = new BigDecimal("773999.99");
+
+        String cursor = contaService.listarTodasContas(null, 1, null, minimo, maximo).proximoCursor();
+        assertNotNull(cursor);
+
+        assertThrows(CursorInvalidoException.class,
+                () -> contaService.listarTodasContas("não é base64!", 1, null, minimo, maximo));
+        assertThrows(CursorInvalidoException.class,
+                () -> contaService.listarTodasContas(cursor, 1, "CORRENTE", minimo, maximo));
+        assertThrows(CursorInvalidoException.class,
+                () -> contaService.listarTodasContas(cursor, 1, null, minimo, new BigDecimal("773500.00")));
+    }
+
+    @Test
+    void tamanhoDaPaginaFicaEntreUmEOMaximo() {
+        for (int i = 1; i <= 7; i++) {
+            contas.criar("TAMANHO-" + i, "774000.00");
+        }
+        BigDecimal minimo = new BigDecimal("774000.00");
+        BigDecimal maximo = new BigDecimal("774999.99");
+
+        assertEquals(5, contaService.listarTodasContas(null, 1_000, null, minimo, maximo).contas().size());
+        assertEquals(1, contaService.listarTodasContas(null, 0, null, minimo, maximo).contas().size());
+        assertEquals(5, contaService.listarTodasContas(null, null, null, minimo, maximo).contas().size());
+    }
+
+    @Test
+    void contaQuenteApareceComOSaldoTotal() {
+        contas.criar("QUENTE-LISTA", "775000.00");
+        contaService.definirModoQuente("QUENTE-LISTA", new ModoQuenteDTO(4));
+        contaService.depositar("QUENTE-LISTA", new ValorSaqueDepositoDTO(new BigDecimal("50.00")), null);
+
+        ContaResumoDTO listada = contaService.listarTodasContas(null, 5, null,
+                new BigDecimal("775000.00"), new BigDecimal("775999.99")).contas().get(0);
+        assertEquals("QUENTE-LISTA", listada.numero());
+        assertEquals(0, new BigDecimal("775050.00").compareTo(listada.saldo()));
+        assertEquals(0, contaService.buscarContaPorNumero("QUENTE-LISTA").saldo().compareTo(listada.saldo()));
+
+        // Os filtros valem para o saldo total, não para a linha ainda sem o depósito
+        assertEquals(1, contaService.listarTodasContas(null, 5, null,
+                new BigDecimal("775040.00"), new BigDecimal("775999.99")).contas().size());
+        PaginaContasDTO acimaDoMaximo = contaService.listarTodasContas(null, 5, null,
+                new BigDecimal("775000.00"), new BigDecimal("775020.00"));
+        assertTrue(acimaDoMaximo.contas().isEmpty());
+        assertNull(acimaDoMaximo.proximoCursor());
+    }
+}
@@ -0,0 +1,152 @@
+package com.senai.conta_bancaria.application.service;
+
+import com.senai.conta_bancaria.application.dto.ValorSaqueDepositoDTO;
+import com.senai.conta_bancaria.domain.entity.Conta;
+import com.senai.conta_bancaria.domain.entity.ContaCorrente;
+import com.senai.conta_bancaria.domain.entity.ContaPoupanca;
+import com.senai.conta_bancaria.domain.exception.SaldoInsuficienteException;
+import com.senai.conta_bancaria.domain.repository.ContaRepository;
+import com.senai.conta_bancaria.domain.valueobject.Dinheiro;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Saque em conta corrente pelo UPDATE condicional: limite no centavo, arredondamento da taxa
+ * igual ao de {@link Dinheiro} e as contas que o UPDATE precisa deixar para o caminho normal.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ContaServiceSaqueTest {
+
+    @Autowired
+    private ContaService contaService;
+
+    @Autowired
+    private ContaRepository contaRepository;
+
+    @Autowired
+    private TransactionTemplate transacao;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private ContasDeTeste contas;
+
+    @BeforeEach
+    void autenticar() {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken("teste", null,
+                List.of(new SimpleGrantedAuthority("ROLE_CLIENTE"))));
+    }
+
+    @AfterEach
+    void limpar() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void limiteValeAteOCentavo() {
+        // Saldo 10,00 + limite 5,00 e taxa de 10%: 13,64 custa 15,00 e 13,65 custaria 15,02
+        contaComDiario("SAQUE-1", "10.00", "5.00", "0.10");
+
+        assertThrows(SaldoInsuficienteException.class, () -> sacar("SAQUE-1", "13.65"));
+        contas.assertSaldo("SAQUE-1", "10.00");
+
+        sacar("SAQUE-1", "13.64");
+        contas.assertSaldo("SAQUE-1", "-5.00");
+        assertUltimoLancamento("SAQUE-1", "-15.00");
+
+        assertThrows(SaldoInsuficienteException.class, () -> sacar("SAQUE-1", "0.01"));
+        contas.assertSaldo("SAQUE-1", "-5.00");
+    }
+
+    @Test
+    void taxaArredondaMeioCentavoParaCima() {
+        contaComDiario("SAQUE-2", "100.00", "0.00", "0.05");
+
+        // 0,10 × 5% = 0,005 → 0,01
+        sacar("SAQUE-2", "0.10");
+        contas.assertSaldo("SAQUE-2", "99.89");
+        assertUltimoLancamento("SAQUE-2", "-0.11");
+
+        // 10,09 × 5% = 0,5045 → 0,50
+        sacar("SAQUE-2", "10.09");
+        contas.assertSaldo("SAQUE-2", "89.30");
+        assertUltimoLancamento("SAQUE-2", "-10.59");
+
+        // O mesmo saque pela entidade dá o mesmo valor
+        ContaCorrente corrente = corrente("SAQUE-ENTIDADE", "100.00", "0.00", "0.05").build();
+        corrente.sacar(Dinheiro.de(new BigDecimal("0.10")));
+        corrente.sacar(Dinheiro.de(new BigDecimal("10.09")));
+        assertEquals(Dinheiro.de(new BigDecimal("89.30")), corrente.getSaldo());
+    }
+
+    @Test
+    void updateNaoTocaContasQueOCaminhoNormalPrecisaTratar() {
+        salvar(corrente("GUARDA-OK", "100.00", "0.00", "0.00").sequenciaLancamento(1).build());
+        salvar(corrente("GUARDA-QUENTE", "100.00", "0.00", "0.00").sequenciaLancamento(1)
+                .contaQuente(true).quantidadeSubSaldos(4).build());
+        salvar(corrente("GUARDA-INATIVA", "100.00", "0.00", "0.00").sequenciaLancamento(1).ativa(false).build());
+        salvar(corrente("GUARDA-SEM-DIARIO", "100.00", "0.00", "0.00").build());
+        salvar(ContaPoupanca.builder()
+                .numero("GUARDA-POUPANCA")
+                .saldo(Dinheiro.de(new BigDecimal("100.00")))
+                .rendimento(BigDecimal.ZERO)
+                .sequenciaLancamento(1)
+                .ativa(true)
+                .build());
+
+        transacao.executeWithoutResult(status -> {
+            assertEquals(1, contaRepository.debitarCorrente("GUARDA-OK", new BigDecimal("1.00")));
+            assertEquals(0, contaRepository.debitarCorrente("GUARDA-OK", BigDecimal.ZERO));
+            assertEquals(0, contaRepository.debitarCorrente("GUARDA-OK", new BigDecimal("-1.00")));
+            assertEquals(0, contaRepository.debitarCorrente("GUARDA-QUENTE", new BigDecimal("1.00")));
+            assertEquals(0, contaRepository.debitarCorrente("GUARDA-INATIVA", new BigDecimal("1.00")));
+            assertEquals(0, contaRepository.debitarCorrente("GUARDA-SEM-DIARIO", new BigDecimal("1.00")));
+            assertEquals(0, contaRepository.debitarCorrente("GUARDA-POUPANCA", new BigDecimal("1.00")));
+            status.setRollbackOnly();
+        });
+    }
+
+    // Com um depósito a conta já tem ABERTURA no diário e o saque passa pelo UPDATE
+    private void contaComDiario(String numero, String saldo, String limite, String taxa) {
+        salvar(corrente(numero, "0.00", limite, taxa).build());
+        contaService.depositar(numero, new ValorSaqueDepositoDTO(new BigDecimal(saldo)), null);
+    }
+
+    private void sacar(String numero, String valor) {
+        contaService.sacar(numero, new ValorSaqueDepositoDTO(new BigDecimal(valor)), null);
+    }
+
+    private static ContaCorrente.ContaCorrenteBuilder<?, ?> corrente(String numero, String saldo,
+                                                                     String limite, String taxa) {
+        return ContasDeTeste.corrente(numero, saldo)
+                .limite(Dinheiro.de(new BigDecimal(limite)))
+                .taxa(new BigDecimal(taxa));
+    }
+
+    private void salvar(Conta conta) {
+        contaRepository.save(conta);
+    }
+
+    private void assertUltimoLancamento(String numero, String valor) {
+        BigDecimal ultimo = jdbc.queryForObject("select l.valor from lancamento l join conta_dto c on c.id = l.conta_id " +
+                "where c.numero = ? and l.sequencia is not null order by l.sequencia desc limit 1", BigDecimal.class, numero);
+        assertEquals(0, new BigDecimal(valor).compareTo(ultimo), numero);
+    }
+}
@@ -0,0 +1,122 @@
+package com.senai.conta_bancaria.application.service;
+
+import com.senai.conta_bancaria.application.dto.ItemTransferenciaLoteDTO;
+import com.senai.conta_bancaria.application.dto.ResultadoTransferenciaLoteDTO;
+import com.senai.conta_bancaria.application.dto.TransferenciaLoteDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Lote com falhas parciais, a mesma conta em vários itens e blocos menores que o lote.
+ */
+@SpringBootTest(properties = "conta.lote.contas-por-bloco=4")
+@ActiveProfiles("test")
+class ContaServiceTransferenciaLoteTest {
+
+    @Autowired
+    private ContaService contaService;
+
+    @Autowired
+    private ContasDeTeste contas;
+
+    @BeforeEach
+    void autenticar() {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken("teste", null,
+                List.of(new SimpleGrantedAuthority("ROLE_CLIENTE"))));
+    }
+
+    @AfterEach
+    void limpar() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void falhasParciaisNaoImpedemOsDemaisItens() {
+        contas.criar("LOTE-1", "100.00");
+        contas.criar("LOTE-2", "0.00");
+
+        ResultadoTransferenciaLoteDTO resultado = contaService.transferirEmLote(new TransferenciaLoteDTO(List.of(
+                item("LOTE-1", "LOTE-2", "30.00"),
+                item("LOTE-1", "NAO-EXISTE", "1.00"),
+                item("LOTE-2", "LOTE-1", "500.00"),
+                item("LOTE-1", "LOTE-2", "-5.00"),
+                item("LOTE-1", "LOTE-1", "1.00"),
+                item("LOTE-2", "LOTE-1", "10.00")
+        )));
+
+        assertEquals(6, resultado.total());
+        assertEquals(2, resultado.sucessos());
+        assertEquals(4, resultado.falhas());
+        for (int i = 0; i < 6; i++) {
+            ResultadoTransferenciaLoteDTO.Item item = resultado.itens().get(i);
+            assertEquals(i, item.indice());
+            assertEquals(i == 0 || i == 5, item.sucesso(), "item " + i);
+            if (item.sucesso()) {
+                assertNull(item.mensagem());
+            } else {
+                assertFalse(item.mensagem().isBlank());
+            }
+        }
+
+        contas.assertSaldo("LOTE-1", "80.00");
+        contas.assertSaldo("LOTE-2", "20.00");
+    }
+
+    @Test
+    void contaEmVariosItensContinuaBatendoComODiario() {
+        contas.criar("LOTE-3", "100.00");
+        contas.criar("LOTE-4", "50.00");
+
+        ResultadoTransferenciaLoteDTO resultado = contaService.transferirEmLote(new TransferenciaLoteDTO(List.of(
+                item("LOTE-3", "LOTE-4", "10.00"),
+                item("LOTE-3", "LOTE-4", "15.50"),
+                item("LOTE-4", "LOTE-3", "7.25")
+        )));
+
+        assertEquals(3, resultado.sucessos());
+        contas.assertSaldo("LOTE-3", "81.75");
+        contas.assertSaldo("LOTE-4", "68.25");
+    }
+
+    @Test
+    void loteMaiorQueOBlocoGravaTodosOsItensEmOrdem() {
+        // Cinco contas em cadeia: com blocos de 4 contas o lote é dividido
+        List<String> numeros = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            numeros.add("LOTE-CADEIA-" + i);
+            contas.criar(numeros.get(i), i == 0 ? "10.00" : "0.00");
+        }
+        List<ItemTransferenciaLoteDTO> itens = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            itens.add(item(numeros.get(i), numeros.get(i + 1), "10.00"));
+        }
+
+        ResultadoTransferenciaLoteDTO resultado = contaService.transferirEmLote(new TransferenciaLoteDTO(itens));
+
+        // Cada item depende do crédito do anterior, então a ordem foi mantida entre os blocos
+        assertEquals(4, resultado.sucessos());
+        assertTrue(resultado.itens().stream().allMatch(ResultadoTransferenciaLoteDTO.Item::sucesso));
+        contas.assertSaldo(numeros.get(0), "0.00");
+        contas.assertSaldo(numeros.get(4), "10.00");
+    }
+
+    private static ItemTransferenciaLoteDTO item(String origem, String destino, String valor) {
+        return new ItemTransferenciaLoteDTO(origem, destino, new BigDecimal(valor));
+    }
+}
@@ -0,0 +1,71 @@
+package com.senai.conta_bancaria.application.service;
+
+import com.senai.conta_bancaria.application.dto.ValorSaqueDepositoDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+/**
+ * A versão usada no ETag só pode mudar quando a conta muda, inclusive por crédito em sub-saldo.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ContaServiceVersaoTest {
+
+    private static final ValorSaqueDepositoDTO UM_REAL = new ValorSaqueDepositoDTO(BigDecimal.ONE);
+
+    @Autowired
+    private ContaService contaService;
+
+    @Autowired
+    private SubSaldoService subSaldoService;
+
+    @Autowired
+    private ContasDeTeste contas;
+
+    @BeforeEach
+    void autenticar() {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken("teste", null,
+                List.of(new SimpleGrantedAuthority("ROLE_GERENTE"), new SimpleGrantedAuthority("ROLE_CLIENTE"))));
+    }
+
+    @AfterEach
+    void limpar() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void versaoMudaSoQuandoAContaMuda() {
+        contas.criar("ETAG-1", "0.00");
+        String inicial = contaService.versaoDaConta("ETAG-1");
+
+        contaService.buscarContaPorNumero("ETAG-1");
+        assertEquals(inicial, contaService.versaoDaConta("ETAG-1"));
+
+        contaService.depositar("ETAG-1", UM_REAL, null);
+        assertNotEquals(inicial, contaService.versaoDaConta("ETAG-1"));
+    }
+
+    @Test
+    void creditoEmSubSaldoMudaAVersao() {
+        contas.criar("ETAG-2", "0.00");
+        subSaldoService.definirModoQuente("ETAG-2", 4);
+        String antes = contaService.versaoDaConta("ETAG-2");
+
+        contaService.depositar("ETAG-2", UM_REAL, null);
+
+        assertNotEquals(antes, contaService.versaoDaConta("ETAG-2"));
+    }
+}
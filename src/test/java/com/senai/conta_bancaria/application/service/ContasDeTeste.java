@@ -0,0 +1,49 @@
+package com.senai.conta_bancaria.application.service;
+
+import com.senai.conta_bancaria.domain.entity.Conta;
+import com.senai.conta_bancaria.domain.entity.ContaCorrente;
+import com.senai.conta_bancaria.domain.repository.ContaRepository;
+import com.senai.conta_bancaria.domain.valueobject.Dinheiro;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Contas para os testes de integração: corrente ativa sem limite nem taxa, e a conferência
+ * do saldo contra a linha e o diário. Está sob o pacote da aplicação: a varredura de componentes
+ * de todo contexto de teste a registra.
+ */
+@Component
+@RequiredArgsConstructor
+public class ContasDeTeste {
+
+    private final ContaRepository contaRepository;
+    private final LivroRazaoService livroRazao;
+
+    public static ContaCorrente.ContaCorrenteBuilder<?, ?> corrente(String numero, String saldo) {
+        return ContaCorrente.builder()
+                .numero(numero)
+                .saldo(Dinheiro.de(new BigDecimal(saldo)))
+                .limite(Dinheiro.ZERO)
+                .taxa(BigDecimal.ZERO)
+                .ativa(true);
+    }
+
+    public Conta criar(String numero, String saldo) {
+        return contaRepository.save(corrente(numero, saldo).build());
+    }
+
+    public Conta buscar(String numero) {
+        return contaRepository.findByNumeroAndAtivaTrue(numero).orElseThrow();
+    }
+
+    // Confere a linha e o diário: toda movimentação grava os dois no mesmo commit
+    public void assertSaldo(String numero, String esperado) {
+        Conta conta = buscar(numero);
+        assertEquals(Dinheiro.de(new BigDecimal(esperado)), conta.getSaldo(), numero);
+        assertEquals(0, conta.getSaldo().toBigDecimal().compareTo(livroRazao.saldoAtual(conta)), numero);
+    }
+}
@@ -0,0 +1,119 @@
+package com.senai.conta_bancaria.application.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Confere que a memória usada pela exportação NDJSON não cresce com o número de contas:
+ * o pico de heap exportando 10x mais contas deve ficar perto do pico com 10 mil.
+ * Rodar com {@code ./mvnw test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("test")
+class ExportacaoContaServiceBenchmarkTest {
+
+    private static final int CONTAS_PEQUENO = 10_000;
+    private static final int CONTAS_GRANDE = 100_000;
+    private static final int AMOSTRA_A_CADA = 5_000;
+    private static final long MARGEM_BYTES = 32L * 1024 * 1024;
+
+    @Autowired
+    private ExportacaoContaService exportacaoService;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    private final MemoryMXBean memoria = ManagementFactory.getMemoryMXBean();
+
+    @BeforeEach
+    void autenticar() {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                "benchmark", null, List.of(new SimpleGrantedAuthority("ROLE_GERENTE"))));
+    }
+
+    @AfterEach
+    void limpar() {
+        SecurityContextHolder.clearContext();
+        jdbc.update("delete from conta_dto where numero like 'EXP-%'");
+    }
+
+    @Test
+    void heapNaoCresceComONumeroDeContas() {
+        inserirContas(0, CONTAS_PEQUENO);
+        long picoPequeno = medirPico(CONTAS_PEQUENO);
+
+        inserirContas(CONTAS_PEQUENO, CONTAS_GRANDE);
+        long picoGrande = medirPico(CONTAS_GRANDE);
+
+        assertTrue(picoGrande - picoPequeno < MARGEM_BYTES,
+                () -> String.format("A exportação reteve memória proporcional ao número de contas: "
+                                + "%d contas: %d KiB, %d contas: %d KiB",
+                        CONTAS_PEQUENO, picoPequeno / 1024, CONTAS_GRANDE, picoGrande / 1024));
+    }
+
+    private long medirPico(int esperadas) {
+        long base = heapAposGc();
+        SaidaAmostrada saida = new SaidaAmostrada();
+
+        long exportadas = exportacaoService.exportar(saida);
+
+        assertTrue(exportadas >= esperadas);
+        return saida.pico - base;
+    }
+
+    private long heapAposGc() {
+        System.gc();
+        return memoria.getHeapMemoryUsage().getUsed();
+    }
+
+    private void inserirContas(int de, int ate) {
+        List<Object[]> linhas = new ArrayList<>(ate - de);
+        for (int i = de; i < ate; i++) {
+            linhas.add(new Object[]{UUID.randomUUID().toString(), String.format("EXP-%07d", i), i % 10_000});
+        }
+        jdbc.batchUpdate("""
+                insert into conta_dto (id, numero, saldo, ativa, versao, sequencia_lancamento,
+                                       conta_quente, quantidade_sub_saldos, tipo_conta, limite, taxa)
+                values (?, ?, ?, true, 0, 0, false, 0, 'CORRENTE', 500.00, 0.00)
+                """, linhas);
+    }
+
+    // Descarta a saída e mede o heap (após GC) a cada AMOSTRA_A_CADA linhas escritas
+    private final class SaidaAmostrada extends OutputStream {
+        private long linhas;
+        private long pico;
+
+        @Override
+        public void write(int b) {
+            if (b == '\n' && ++linhas % AMOSTRA_A_CADA == 0) {
+                pico = Math.max(pico, heapAposGc());
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            for (int i = off; i < off + len; i++) {
+                write(b[i]);
+            }
+        }
+    }
+}
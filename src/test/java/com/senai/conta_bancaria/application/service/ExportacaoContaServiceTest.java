@@ -0,0 +1,88 @@
+package com.senai.conta_bancaria.application.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.senai.conta_bancaria.application.dto.ModoQuenteDTO;
+import com.senai.conta_bancaria.application.dto.ValorSaqueDepositoDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Linhas da exportação NDJSON: o saldo de conta quente sai com os sub-saldos, igual à consulta da conta.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ExportacaoContaServiceTest {
+
+    @Autowired
+    private ExportacaoContaService exportacaoService;
+
+    @Autowired
+    private ContaService contaService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ContasDeTeste contas;
+
+    @BeforeEach
+    void autenticar() {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken("teste", null,
+                List.of(new SimpleGrantedAuthority("ROLE_GERENTE"), new SimpleGrantedAuthority("ROLE_CLIENTE"))));
+    }
+
+    @AfterEach
+    void limpar() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void contaQuenteSaiComOSaldoTotal() throws Exception {
+        contas.criar("EXPORTA-QUENTE", "100.00");
+        contas.criar("EXPORTA-FRIA", "30.00");
+        contaService.definirModoQuente("EXPORTA-QUENTE", new ModoQuenteDTO(4));
+        contaService.depositar("EXPORTA-QUENTE", new ValorSaqueDepositoDTO(new BigDecimal("50.00")), null);
+
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        long total = exportacaoService.exportar(saida);
+
+        List<String> linhas = saida.toString(StandardCharsets.UTF_8).lines().toList();
+        assertEquals(total, linhas.size());
+
+        JsonNode quente = linha(linhas, "EXPORTA-QUENTE");
+        assertEquals(0, new BigDecimal("150.00").compareTo(quente.get("saldo").decimalValue()));
+        assertEquals(0, contaService.buscarContaPorNumero("EXPORTA-QUENTE").saldo()
+                .compareTo(quente.get("saldo").decimalValue()));
+        assertEquals("CORRENTE", quente.get("tipo").asText());
+        assertTrue(quente.get("ativa").asBoolean());
+
+        JsonNode fria = linha(linhas, "EXPORTA-FRIA");
+        assertEquals(0, new BigDecimal("30.00").compareTo(fria.get("saldo").decimalValue()));
+    }
+
+    private JsonNode linha(List<String> linhas, String numero) throws Exception {
+        for (String linha : linhas) {
+            JsonNode conta = objectMapper.readTree(linha);
+            if (numero.equals(conta.get("numero").asText())) {
+                return conta;
+            }
+        }
+        throw new AssertionError("conta não exportada: " + numero);
+    }
+}
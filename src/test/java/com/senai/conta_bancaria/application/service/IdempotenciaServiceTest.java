@@ -0,0 +1,125 @@
+package com.senai.conta_bancaria.application.service;
+
+import com.senai.conta_bancaria.application.dto.ContaResumoDTO;
+import com.senai.conta_bancaria.application.dto.TransferenciaDTO;
+import com.senai.conta_bancaria.application.dto.ValorSaqueDepositoDTO;
+import com.senai.conta_bancaria.domain.exception.ChaveIdempotenciaInvalidaException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Reenvios com a mesma {@code Idempotency-Key}: simultâneos, com dados diferentes e de outro usuário.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class IdempotenciaServiceTest {
+
+    private static final int THREADS = 16;
+
+    @Autowired
+    private ContaService contaService;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private ContasDeTeste contas;
+
+    @AfterEach
+    void limpar() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void reenviosSimultaneosAplicamOperacaoUmaVez() throws Exception {
+        contas.criar("IDEM-1", "0.00");
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<ContaResumoDTO>> respostas = new ArrayList<>();
+
+        for (int i = 0; i < THREADS; i++) {
+            respostas.add(executor.submit(() -> {
+                autenticar("cliente-a");
+                try {
+                    largada.await();
+                    return contaService.depositar("IDEM-1", new ValorSaqueDepositoDTO(new BigDecimal("10.00")), "dup-1");
+                } finally {
+                    SecurityContextHolder.clearContext();
+                }
+            }));
+        }
+        largada.countDown();
+
+        ContaResumoDTO primeira = respostas.get(0).get(30, TimeUnit.SECONDS);
+        for (Future<ContaResumoDTO> resposta : respostas) {
+            assertEquals(primeira, resposta.get(30, TimeUnit.SECONDS));
+        }
+        executor.shutdown();
+
+        contas.assertSaldo("IDEM-1", "10.00");
+        assertEquals(1, jdbc.queryForObject(
+                "select count(*) from chave_idempotencia where numero_conta = 'IDEM-1'", Integer.class));
+    }
+
+    @Test
+    void mesmaChaveComOutrosDadosResponde422() {
+        contas.criar("IDEM-2", "100.00");
+        contas.criar("IDEM-3", "0.00");
+        contas.criar("IDEM-4", "0.00");
+        autenticar("cliente-a");
+
+        ContaResumoDTO deposito = contaService.depositar("IDEM-2", new ValorSaqueDepositoDTO(new BigDecimal("10.00")), "dados-1");
+        // Mesmo valor em outra escala é a mesma requisição
+        assertEquals(deposito, contaService.depositar("IDEM-2", new ValorSaqueDepositoDTO(new BigDecimal("10.0")), "dados-1"));
+        assertThrows(ChaveIdempotenciaInvalidaException.class,
+                () -> contaService.depositar("IDEM-2", new ValorSaqueDepositoDTO(new BigDecimal("20.00")), "dados-1"));
+        assertThrows(ChaveIdempotenciaInvalidaException.class,
+                () -> contaService.sacar("IDEM-2", new ValorSaqueDepositoDTO(new BigDecimal("10.00")), "dados-1"));
+
+        contaService.transferir("IDEM-2", new TransferenciaDTO("IDEM-3", new BigDecimal("5.00")), "dados-2");
+        assertThrows(ChaveIdempotenciaInvalidaException.class,
+                () -> contaService.transferir("IDEM-2", new TransferenciaDTO("IDEM-4", new BigDecimal("5.00")), "dados-2"));
+
+        contas.assertSaldo("IDEM-2", "105.00");
+        contas.assertSaldo("IDEM-3", "5.00");
+        contas.assertSaldo("IDEM-4", "0.00");
+    }
+
+    @Test
+    void chaveValeSoParaOUsuarioQueAEnviou() {
+        contas.criar("IDEM-5", "0.00");
+        var deposito = new ValorSaqueDepositoDTO(new BigDecimal("10.00"));
+
+        autenticar("cliente-a");
+        contaService.depositar("IDEM-5", deposito, "usuario-1");
+        autenticar("cliente-b");
+        contaService.depositar("IDEM-5", deposito, "usuario-1");
+        contaService.depositar("IDEM-5", deposito, "usuario-1");
+
+        contas.assertSaldo("IDEM-5", "20.00");
+    }
+
+    private static void autenticar(String usuario) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(usuario, null,
+                List.of(new SimpleGrantedAuthority("ROLE_CLIENTE"))));
+    }
+}
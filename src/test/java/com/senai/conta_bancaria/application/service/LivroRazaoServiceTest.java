@@ -0,0 +1,125 @@
+package com.senai.conta_bancaria.application.service;
+
+import com.senai.conta_bancaria.application.dto.TransferenciaDTO;
+import com.senai.conta_bancaria.application.dto.ValorSaqueDepositoDTO;
+import com.senai.conta_bancaria.domain.entity.Conta;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * O diário refaz o saldo da conta: abertura no primeiro movimento, consolidação a cada
+ * {@code conta.lancamentos.intervalo-consolidacao} lançamentos e soma da cauda depois dela.
+ */
+@SpringBootTest(properties = "conta.lancamentos.intervalo-consolidacao=5")
+@ActiveProfiles("test")
+class LivroRazaoServiceTest {
+
+    private static final ValorSaqueDepositoDTO UM_REAL = new ValorSaqueDepositoDTO(BigDecimal.ONE);
+
+    @Autowired
+    private LivroRazaoService livroRazao;
+
+    @Autowired
+    private ContaService contaService;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private ContasDeTeste contas;
+
+    @BeforeEach
+    void autenticar() {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken("teste", null,
+                List.of(new SimpleGrantedAuthority("ROLE_CLIENTE"))));
+    }
+
+    @AfterEach
+    void limpar() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void primeiroMovimentoGravaAAbertura() {
+        Conta conta = contas.criar("DIARIO-1", "50.00");
+
+        contaService.depositar("DIARIO-1", new ValorSaqueDepositoDTO(new BigDecimal("10.00")), null);
+
+        List<Map<String, Object>> lancamentos = lancamentos(conta);
+        assertEquals(2, lancamentos.size());
+        assertLancamento(lancamentos.get(0), 1, "ABERTURA", "50.00");
+        assertLancamento(lancamentos.get(1), 2, "DEPOSITO", "10.00");
+    }
+
+    @Test
+    void contaSemSaldoNaoGravaAbertura() {
+        Conta conta = contas.criar("DIARIO-2", "0.00");
+
+        contaService.depositar("DIARIO-2", UM_REAL, null);
+
+        List<Map<String, Object>> lancamentos = lancamentos(conta);
+        assertEquals(1, lancamentos.size());
+        assertLancamento(lancamentos.get(0), 1, "DEPOSITO", "1.00");
+    }
+
+    @Test
+    void consolidaACadaIntervalo() {
+        Conta conta = contas.criar("DIARIO-3", "0.00");
+
+        for (int i = 0; i < 12; i++) {
+            contaService.depositar("DIARIO-3", UM_REAL, null);
+        }
+
+        List<Map<String, Object>> consolidados = jdbc.queryForList(
+                "select sequencia, saldo from saldo_consolidado where conta_id = ? order by sequencia", conta.getId());
+        assertEquals(2, consolidados.size());
+        assertEquals(5L, ((Number) consolidados.get(0).get("sequencia")).longValue());
+        assertEquals(0, new BigDecimal("5.00").compareTo((BigDecimal) consolidados.get(0).get("saldo")));
+        assertEquals(10L, ((Number) consolidados.get(1).get("sequencia")).longValue());
+        assertEquals(0, new BigDecimal("10.00").compareTo((BigDecimal) consolidados.get(1).get("saldo")));
+    }
+
+    @Test
+    void saldoPeloDiarioIgualAoDaConta() {
+        contas.criar("DIARIO-4", "100.00");
+        contas.criar("DIARIO-5", "0.00");
+
+        // Depósitos, saques (inclusive pelo UPDATE direto) e as duas pernas de transferências,
+        // passando de uma consolidação
+        for (int i = 0; i < 4; i++) {
+            contaService.depositar("DIARIO-4", new ValorSaqueDepositoDTO(new BigDecimal("7.35")), null);
+            contaService.sacar("DIARIO-4", new ValorSaqueDepositoDTO(new BigDecimal("2.10")), null);
+            contaService.transferir("DIARIO-4", new TransferenciaDTO("DIARIO-5", new BigDecimal("3.33")), null);
+        }
+
+        for (String numero : List.of("DIARIO-4", "DIARIO-5")) {
+            Conta conta = contas.buscar(numero);
+            assertEquals(0, conta.getSaldo().toBigDecimal().compareTo(livroRazao.saldoAtual(conta)), numero);
+        }
+    }
+
+    private List<Map<String, Object>> lancamentos(Conta conta) {
+        return jdbc.queryForList("select sequencia, tipo, valor from lancamento " +
+                "where conta_id = ? and sequencia is not null order by sequencia", conta.getId());
+    }
+
+    private static void assertLancamento(Map<String, Object> lancamento, long sequencia, String tipo, String valor) {
+        assertEquals(sequencia, ((Number) lancamento.get("sequencia")).longValue());
+        assertEquals(tipo, lancamento.get("tipo"));
+        assertEquals(0, new BigDecimal(valor).compareTo((BigDecimal) lancamento.get("valor")));
+    }
+}
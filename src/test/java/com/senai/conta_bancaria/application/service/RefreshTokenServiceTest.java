@@ -0,0 +1,118 @@
+package com.senai.conta_bancaria.application.service;
+
+import com.senai.conta_bancaria.domain.entity.Gerente;
+import com.senai.conta_bancaria.domain.enums.Role;
+import com.senai.conta_bancaria.domain.event.UsuarioAlteradoEvent;
+import com.senai.conta_bancaria.domain.repository.FamiliaRefreshTokenRepository;
+import com.senai.conta_bancaria.domain.repository.GerenteRepository;
+import com.senai.conta_bancaria.infrastructure.security.JwtService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Cada refresh troca o token; apresentar um já trocado encerra a família inteira e conta como reuso.
+ * Família revogada por alteração do usuário recusa o token sem contar reuso.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class RefreshTokenServiceTest {
+
+    @Autowired
+    private RefreshTokenService refreshTokens;
+
+    @Autowired
+    private GerenteRepository gerenteRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventos;
+
+    @Autowired
+    private FamiliaRefreshTokenRepository familias;
+
+    @Autowired
+    private JwtService jwt;
+
+    @Autowired
+    private MeterRegistry metricas;
+
+    @Test
+    void reusoRevogaAFamilia() {
+        Gerente gerente = gerente("93000000001", "gerente.refresh@banco.com");
+        double reusos = reusos();
+
+        String primeiro = refreshTokens.emitir(gerente);
+        Map<String, String> par = refreshTokens.rotacionar(primeiro);
+        assertNotNull(par.get("accessToken"));
+        assertNotEquals(primeiro, par.get("refreshToken"));
+
+        String segundo = par.get("refreshToken");
+        assertThrows(BadCredentialsException.class, () -> refreshTokens.rotacionar(primeiro));
+        assertEquals(reusos + 1, reusos());
+        // O atual também cai, mas a família já estava revogada: o reuso foi contado uma vez
+        assertThrows(BadCredentialsException.class, () -> refreshTokens.rotacionar(segundo));
+        assertEquals(reusos + 1, reusos());
+    }
+
+    @Test
+    void jtiTrocadoEmOutraInstanciaEReuso() {
+        Gerente gerente = gerente("93000000003", "gerente.outra@banco.com");
+        String token = refreshTokens.emitir(gerente);
+        double reusos = reusos();
+
+        // Outra instância trocou este jti; o conjunto em memória daqui ainda não sabe
+        String familia = jwt.verificar(token).orElseThrow().familia();
+        familias.rotacionar(familia, jwt.verificar(token).orElseThrow().jti(), UUID.randomUUID().toString(),
+                LocalDateTime.now());
+
+        assertThrows(BadCredentialsException.class, () -> refreshTokens.rotacionar(token));
+        assertEquals(reusos + 1, reusos());
+        assertFalse(familias.existsByIdAndRevogadaFalse(familia));
+    }
+
+    @Test
+    void alteracaoDoUsuarioRevogaAsFamilias() {
+        Gerente gerente = gerente("93000000002", "gerente.sessao@banco.com");
+        String token = refreshTokens.emitir(gerente);
+        double reusos = reusos();
+
+        eventos.publishEvent(UsuarioAlteradoEvent.de(gerente));
+
+        assertThrows(BadCredentialsException.class, () -> refreshTokens.rotacionar(token));
+        assertEquals(reusos, reusos());
+    }
+
+    @Test
+    void tokenMalformadoNaoRevogaNada() {
+        assertThrows(BadCredentialsException.class, () -> refreshTokens.rotacionar("nao.e.jwt"));
+    }
+
+    private double reusos() {
+        return metricas.counter("security.refresh.reuso").count();
+    }
+
+    private Gerente gerente(String cpf, String email) {
+        return gerenteRepository.save(Gerente.builder()
+                .nome("Gerente Refresh")
+                .cpf(cpf)
+                .email(email)
+                .senha("senha")
+                .ativo(true)
+                .role(Role.GERENTE)
+                .build());
+    }
+}
@@ -0,0 +1,173 @@
+package com.senai.conta_bancaria.application.service;
+
+import com.senai.conta_bancaria.application.dto.ModoQuenteDTO;
+import com.senai.conta_bancaria.application.dto.TransferenciaDTO;
+import com.senai.conta_bancaria.application.dto.ValorSaqueDepositoDTO;
+import com.senai.conta_bancaria.domain.entity.Cliente;
+import com.senai.conta_bancaria.domain.entity.ContaCorrente;
+import com.senai.conta_bancaria.domain.entity.ContaPoupanca;
+import com.senai.conta_bancaria.domain.entity.ResumoSaldoCliente;
+import com.senai.conta_bancaria.domain.enums.Role;
+import com.senai.conta_bancaria.domain.repository.ClienteRepository;
+import com.senai.conta_bancaria.domain.repository.ContaRepository;
+import com.senai.conta_bancaria.domain.repository.ResumoSaldoClienteRepository;
+import com.senai.conta_bancaria.domain.valueobject.Dinheiro;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * O resumo acompanha depósitos, saques e transferências por delta, inclusive de cliente que ainda
+ * não tinha linha, e a reconstrução corrige o que divergir.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ResumoSaldoClienteServiceTest {
+
+    @Autowired
+    private ResumoSaldoClienteService resumoService;
+
+    @Autowired
+    private ResumoSaldoClienteRepository resumoRepository;
+
+    @Autowired
+    private ContaService contaService;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private ContaRepository contaRepository;
+
+    @BeforeEach
+    void autenticar() {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken("teste", null,
+                List.of(new SimpleGrantedAuthority("ROLE_GERENTE"), new SimpleGrantedAuthority("ROLE_CLIENTE"))));
+    }
+
+    @AfterEach
+    void limpar() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void depositoESaqueAtualizamOResumo() {
+        Cliente cliente = criarCliente("91000000001", "RESUMO-1", "RESUMO-2");
+
+        contaService.depositar("RESUMO-1", new ValorSaqueDepositoDTO(new BigDecimal("100.00")), null);
+        contaService.depositar("RESUMO-2", new ValorSaqueDepositoDTO(new BigDecimal("40.00")), null);
+        contaService.sacar("RESUMO-1", new ValorSaqueDepositoDTO(new BigDecimal("30.00")), null);
+
+        var resumo = resumoService.buscarPorCpf(cliente.getCpf());
+        BigDecimal saldoContas = contaRepository.findByNumeroAndAtivaTrue("RESUMO-1").orElseThrow().getSaldo()
+                .somar(contaRepository.findByNumeroAndAtivaTrue("RESUMO-2").orElseThrow().getSaldo())
+                .toBigDecimal();
+        assertEquals(0, saldoContas.compareTo(resumo.saldoTotal()));
+        assertEquals(1, resumo.quantidadeCorrente());
+        assertEquals(1, resumo.quantidadePoupanca());
+    }
+
+    @Test
+    void reconstrucaoCorrigeDivergencia() {
+        Cliente cliente = criarCliente("91000000002", "RESUMO-3", "RESUMO-4");
+        contaService.depositar("RESUMO-3", new ValorSaqueDepositoDTO(new BigDecimal("10.00")), null);
+
+        ResumoSaldoCliente resumo = resumoRepository.findById(cliente.getId()).orElseThrow();
+        resumo.setSaldoTotal(Dinheiro.de(new BigDecimal("999.99")));
+        resumoRepository.save(resumo);
+
+        resumoService.reconstruirTodos();
+
+        assertEquals(0, new BigDecimal("10.00").compareTo(resumoService.buscarPorCpf(cliente.getCpf()).saldoTotal()));
+    }
+
+    @Test
+    void transferenciaEntreClientesSemLinhaCriaOsDoisResumos() {
+        Cliente origem = criarClienteSemResumo("91000000003", "RESUMO-5", "RESUMO-6");
+        Cliente destino = criarClienteSemResumo("91000000004", "RESUMO-7", "RESUMO-8");
+        contaService.depositar("RESUMO-5", new ValorSaqueDepositoDTO(new BigDecimal("100.00")), null);
+
+        contaService.transferir("RESUMO-5", new TransferenciaDTO("RESUMO-7", new BigDecimal("30.00")), null);
+
+        assertSaldoResumo(origem, "70.00");
+        assertSaldoResumo(destino, "30.00");
+        assertEquals(1, resumoService.buscarPorCpf(destino.getCpf()).quantidadeCorrente());
+        assertEquals(1, resumoService.buscarPorCpf(destino.getCpf()).quantidadePoupanca());
+
+        // Com as linhas criadas, a próxima transferência entra por delta
+        contaService.transferir("RESUMO-7", new TransferenciaDTO("RESUMO-5", new BigDecimal("10.00")), null);
+        assertSaldoResumo(origem, "80.00");
+        assertSaldoResumo(destino, "20.00");
+    }
+
+    @Test
+    void creditoEmContaQuenteApareceNoResumo() {
+        Cliente cliente = criarClienteSemResumo("91000000005", "RESUMO-9", "RESUMO-10");
+        contaService.definirModoQuente("RESUMO-9", new ModoQuenteDTO(4));
+
+        // O crédito fica no sub-saldo e não aplica delta: sem linha, a busca soma as contas
+        contaService.depositar("RESUMO-9", new ValorSaqueDepositoDTO(new BigDecimal("25.00")), null);
+        assertFalse(resumoRepository.existsById(cliente.getId()));
+        assertEquals(0, new BigDecimal("25.00").compareTo(resumoService.buscarPorCpf(cliente.getCpf()).saldoTotal()));
+
+        // O saque consolida os sub-saldos na conta e cria a linha com o total
+        contaService.sacar("RESUMO-9", new ValorSaqueDepositoDTO(new BigDecimal("5.00")), null);
+        assertEquals(0, new BigDecimal("20.00").compareTo(
+                resumoRepository.findById(cliente.getId()).orElseThrow().getSaldoTotal().toBigDecimal()));
+        assertSaldoResumo(cliente, "20.00");
+
+        contaService.depositar("RESUMO-9", new ValorSaqueDepositoDTO(new BigDecimal("7.50")), null);
+        assertSaldoResumo(cliente, "27.50");
+    }
+
+    private void assertSaldoResumo(Cliente cliente, String esperado) {
+        assertEquals(0, new BigDecimal(esperado).compareTo(resumoService.buscarPorCpf(cliente.getCpf()).saldoTotal()),
+                cliente.getCpf());
+    }
+
+    private Cliente criarCliente(String cpf, String numeroCorrente, String numeroPoupanca) {
+        Cliente cliente = criarClienteSemResumo(cpf, numeroCorrente, numeroPoupanca);
+        resumoService.recalcular(cliente.getId());
+        return cliente;
+    }
+
+    // Como um cliente gravado fora do ClienteService: contas sem a linha do resumo
+    private Cliente criarClienteSemResumo(String cpf, String numeroCorrente, String numeroPoupanca) {
+        Cliente cliente = clienteRepository.save(Cliente.builder()
+                .nome("Cliente " + cpf)
+                .cpf(cpf)
+                .email(cpf + "@email.com")
+                .senha("senha")
+                .ativo(true)
+                .role(Role.CLIENTE)
+                .build());
+        contaRepository.save(ContaCorrente.builder()
+                .cliente(cliente)
+                .numero(numeroCorrente)
+                .saldo(Dinheiro.ZERO)
+                .limite(Dinheiro.ZERO)
+                .taxa(BigDecimal.ZERO)
+                .ativa(true)
+                .build());
+        contaRepository.save(ContaPoupanca.builder()
+                .cliente(cliente)
+                .numero(numeroPoupanca)
+                .saldo(Dinheiro.ZERO)
+                .rendimento(BigDecimal.ZERO)
+                .ativa(true)
+                .build());
+        return cliente;
+    }
+}
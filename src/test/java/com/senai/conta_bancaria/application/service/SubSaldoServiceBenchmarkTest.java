@@ -0,0 +1,111 @@
+package com.senai.conta_bancaria.application.service;
+
+import com.senai.conta_bancaria.application.dto.ValorSaqueDepositoDTO;
+import com.senai.conta_bancaria.domain.repository.ContaRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compara a vazão de depósitos concorrentes numa conta comum e numa conta quente.
+ * Rodar com {@code ./mvnw test -Pbenchmark}.
+ */
+@Slf4j
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("test")
+class SubSaldoServiceBenchmarkTest {
+
+    private static final int THREADS = 32;
+    private static final int DEPOSITOS_POR_THREAD = 500;
+
+    @Autowired
+    private ContaService contaService;
+
+    @Autowired
+    private SubSaldoService subSaldoService;
+
+    @Autowired
+    private ContaRepository contaRepository;
+
+    @Autowired
+    private TransactionTemplate transacao;
+
+    @Autowired
+    private ContasDeTeste contas;
+
+    @Test
+    void depositosEmContaQuenteEscalamMelhorQueNaLinhaUnica() throws Exception {
+        contas.criar("9000-1", "0.00");
+        contas.criar("9000-2", "0.00");
+        transacao.executeWithoutResult(status -> subSaldoService.definirModoQuente("9000-2", 16));
+
+        double linhaUnica = medirDepositos("9000-1");
+        double comSubSaldos = medirDepositos("9000-2");
+
+        log.info("Depósitos/s com {} threads — linha única: {}, sub-saldos: {}",
+                THREADS, Math.round(linhaUnica), Math.round(comSubSaldos));
+
+        // Os invariantes da conta quente ficam no SubSaldoServiceTest; aqui só nada se perde na carga
+        BigDecimal esperado = BigDecimal.valueOf((long) THREADS * DEPOSITOS_POR_THREAD);
+        assertEquals(0, esperado.compareTo(saldoDe("9000-1")));
+        assertEquals(0, esperado.compareTo(saldoDe("9000-2")));
+    }
+
+    private double medirDepositos(String numero) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch largada = new CountDownLatch(1);
+        CountDownLatch fim = new CountDownLatch(THREADS);
+        var dto = new ValorSaqueDepositoDTO(BigDecimal.ONE);
+
+        for (int t = 0; t < THREADS; t++) {
+            executor.submit(() -> {
+                SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                        "benchmark", null, List.of(new SimpleGrantedAuthority("ROLE_CLIENTE"))));
+                try {
+                    largada.await();
+                    for (int i = 0; i < DEPOSITOS_POR_THREAD; i++) {
+                        contaService.depositar(numero, dto, null);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    SecurityContextHolder.clearContext();
+                    fim.countDown();
+                }
+            });
+        }
+
+        long inicio = System.nanoTime();
+        largada.countDown();
+        assertTrue(fim.await(5, TimeUnit.MINUTES));
+        long duracaoNanos = System.nanoTime() - inicio;
+        executor.shutdown();
+
+        return THREADS * DEPOSITOS_POR_THREAD / (duracaoNanos / 1_000_000_000.0);
+    }
+
+    private BigDecimal saldoDe(String numero) {
+        return transacao.execute(status -> {
+            var conta = contaRepository.findByNumeroAndAtivaTrue(numero).orElseThrow();
+            return conta.getSaldo().toBigDecimal().add(subSaldoService.saldoPendente(conta));
+        });
+    }
+}
@@ -0,0 +1,123 @@
+package com.senai.conta_bancaria.application.service;
+
+import com.senai.conta_bancaria.application.dto.ModoQuenteDTO;
+import com.senai.conta_bancaria.application.dto.ValorSaqueDepositoDTO;
+import com.senai.conta_bancaria.domain.entity.Conta;
+import com.senai.conta_bancaria.domain.exception.SaldoInsuficienteException;
+import com.senai.conta_bancaria.domain.repository.ContaRepository;
+import com.senai.conta_bancaria.domain.valueobject.Dinheiro;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Conta quente: créditos vão para os sub-saldos sem tocar a linha, a consolidação os traz
+ * para {@code saldo} com o diário batendo, e o saque checa o limite contra o saldo inteiro.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class SubSaldoServiceTest {
+
+    private static final ValorSaqueDepositoDTO UM_REAL = new ValorSaqueDepositoDTO(BigDecimal.ONE);
+
+    @Autowired
+    private ContaService contaService;
+
+    @Autowired
+    private SubSaldoService subSaldoService;
+
+    @Autowired
+    private ContaRepository contaRepository;
+
+    @Autowired
+    private LivroRazaoService livroRazao;
+
+    @Autowired
+    private TransactionTemplate transacao;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private ContasDeTeste contas;
+
+    @BeforeEach
+    void autenticar() {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken("teste", null,
+                List.of(new SimpleGrantedAuthority("ROLE_GERENTE"), new SimpleGrantedAuthority("ROLE_CLIENTE"))));
+    }
+
+    @AfterEach
+    void limpar() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void creditosFicamNosSubSaldosAteConsolidar() {
+        criarContaQuente("SUBSALDO-1");
+        for (int i = 0; i < 20; i++) {
+            contaService.depositar("SUBSALDO-1", UM_REAL, null);
+        }
+
+        // A linha não foi tocada: os créditos estão espalhados nos sub-saldos
+        Conta quente = contas.buscar("SUBSALDO-1");
+        assertEquals(Dinheiro.ZERO, quente.getSaldo());
+        assertEquals(0, new BigDecimal("20.00").compareTo(subSaldoService.saldoPendente(quente)));
+        assertTrue(jdbc.queryForObject("select count(*) from sub_saldo_conta where conta_id = ? and saldo > 0",
+                Integer.class, quente.getId()) > 1);
+        assertEquals(20L, jdbc.queryForObject("select count(*) from lancamento " +
+                "where conta_id = ? and sequencia is null and sub_saldo is not null", Long.class, quente.getId()));
+
+        // Consolidar traz tudo para a linha e o diário continua batendo com ela
+        transacao.executeWithoutResult(status -> subSaldoService.consolidar(contas.buscar("SUBSALDO-1")));
+        Conta consolidada = contas.buscar("SUBSALDO-1");
+        assertEquals(0, new BigDecimal("20.00").compareTo(consolidada.getSaldo().toBigDecimal()));
+        assertEquals(0, new BigDecimal("20.00").compareTo(livroRazao.saldoAtual(consolidada)));
+        assertEquals(0, subSaldoService.saldoPendente(consolidada).signum());
+    }
+
+    @Test
+    void saqueEmContaQuenteRespeitaOLimite() {
+        criarContaQuente("SUBSALDO-2");
+        contaService.depositar("SUBSALDO-2", new ValorSaqueDepositoDTO(new BigDecimal("30.00")), null);
+
+        // 30,00 nos sub-saldos + 50,00 de limite: 80,01 não passa, 80,00 passa
+        assertThrows(SaldoInsuficienteException.class, () -> contaService.sacar("SUBSALDO-2",
+                new ValorSaqueDepositoDTO(new BigDecimal("80.01")), null));
+        contaService.sacar("SUBSALDO-2", new ValorSaqueDepositoDTO(new BigDecimal("80.00")), null);
+
+        Conta conta = contas.buscar("SUBSALDO-2");
+        assertEquals(Dinheiro.de(new BigDecimal("-50.00")), conta.getSaldo());
+        assertEquals(0, subSaldoService.saldoPendente(conta).signum());
+        assertEquals(0, conta.getSaldo().toBigDecimal().compareTo(livroRazao.saldoAtual(conta)));
+
+        // Crédito novo no sub-saldo conta para o próximo saque, o limite já usado não
+        contaService.depositar("SUBSALDO-2", new ValorSaqueDepositoDTO(new BigDecimal("10.00")), null);
+        assertThrows(SaldoInsuficienteException.class, () -> contaService.sacar("SUBSALDO-2",
+                new ValorSaqueDepositoDTO(new BigDecimal("10.01")), null));
+        contaService.sacar("SUBSALDO-2", new ValorSaqueDepositoDTO(new BigDecimal("10.00")), null);
+        assertEquals(Dinheiro.de(new BigDecimal("-50.00")), contas.buscar("SUBSALDO-2").getSaldo());
+    }
+
+    private void criarContaQuente(String numero) {
+        contaRepository.save(ContasDeTeste.corrente(numero, "0.00")
+                .limite(Dinheiro.de(new BigDecimal("50.00")))
+                .build());
+        contaService.definirModoQuente(numero, new ModoQuenteDTO(4));
+    }
+}
@@ -0,0 +1,278 @@
+package com.senai.conta_bancaria.application.service.motor;
+
+import com.senai.conta_bancaria.application.dto.ContaResumoDTO;
+import com.senai.conta_bancaria.application.service.ContasDeTeste;
+import com.senai.conta_bancaria.application.service.IdempotenciaService.Requisicao;
+import com.senai.conta_bancaria.application.service.LivroRazaoService;
+import com.senai.conta_bancaria.domain.entity.Conta;
+import com.senai.conta_bancaria.domain.repository.ContaRepository;
+import com.senai.conta_bancaria.domain.repository.LancamentoRepository;
+import com.senai.conta_bancaria.domain.valueobject.Dinheiro;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Motor de saldos com duas partições: lotes, isolamento de falhas, créditos entre partições
+ * e recuperação na partida. Para montar um lote de tamanho conhecido, a partição é segurada
+ * por um comando exclusivo enquanto os comandos se acumulam na fila.
+ */
+@SpringBootTest(properties = {"conta.motor.habilitado=true", "conta.motor.particoes=2"})
+@ActiveProfiles("test")
+class MotorSaldosTest {
+
+    private static final Dinheiro UM_REAL = Dinheiro.de(new BigDecimal("1.00"));
+
+    @Autowired
+    private MotorSaldos motor;
+
+    @Autowired
+    private ContaRepository contaRepository;
+
+    @Autowired
+    private LancamentoRepository lancamentoRepository;
+
+    @Autowired
+    private LivroRazaoService livroRazao;
+
+    @Autowired
+    private TransactionTemplate transacao;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private MeterRegistry metricas;
+
+    @Autowired
+    private ContasDeTeste contas;
+
+    @Test
+    void comandosEnfileiradosSaoGravadosNumLoteSo() throws Exception {
+        List<String> numeros = mesmaParticao("LOTE-MOTOR");
+        String origem = numeros.get(0);
+        String destino = numeros.get(1);
+        contas.criar(origem, "100.00");
+        contas.criar(destino, "0.00");
+        long versaoInicial = contas.buscar(origem).getVersao();
+
+        CountDownLatch liberar = new CountDownLatch(1);
+        CompletableFuture<Void> exclusivo = segurarParticao(origem, liberar);
+        List<CompletableFuture<ContaResumoDTO>> transferencias = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            transferencias.add(motor.transferirAsync(origem, destino, UM_REAL, null));
+        }
+        liberar.countDown();
+        exclusivo.get(10, TimeUnit.SECONDS);
+        for (CompletableFuture<ContaResumoDTO> transferencia : transferencias) {
+            transferencia.get(10, TimeUnit.SECONDS);
+        }
+
+        // Uma gravação da linha para as 50 transferências
+        assertEquals(versaoInicial + 1, contas.buscar(origem).getVersao());
+        contas.assertSaldo(origem, "50.00");
+        contas.assertSaldo(destino, "50.00");
+    }
+
+    @Test
+    void falhaNaGravacaoDoLoteAtingeSoOComandoCulpado() throws Exception {
+        List<String> numeros = mesmaParticao("FALHA-MOTOR");
+        String origem = numeros.get(0);
+        String destino = numeros.get(1);
+        contas.criar(origem, "100.00");
+        contas.criar(destino, "0.00");
+
+        // A chave já existe: a gravação da resposta viola a chave primária no commit do lote
+        jdbc.update("insert into chave_idempotencia (chave, operacao, numero_conta, impressao, numero_resposta, " +
+                "tipo_resposta, saldo_resposta, criada_em) values ('motor-duplicada', 'transferir', ?, 'x', ?, " +
+                "'CORRENTE', 0, current_timestamp)", origem, origem);
+        var duplicada = new Requisicao("motor-duplicada", "transferir", origem, "x");
+
+        CountDownLatch liberar = new CountDownLatch(1);
+        CompletableFuture<Void> exclusivo = segurarParticao(origem, liberar);
+        List<CompletableFuture<ContaResumoDTO>> transferencias = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            transferencias.add(motor.transferirAsync(origem, destino, UM_REAL, i == 3 ? duplicada : null));
+        }
+        liberar.countDown();
+        exclusivo.get(10, TimeUnit.SECONDS);
+
+        for (int i = 0; i < transferencias.size(); i++) {
+            CompletableFuture<ContaResumoDTO> transferencia = transferencias.get(i);
+            try {
+                transferencia.get(10, TimeUnit.SECONDS);
+            } catch (Exception e) {
+                // só o comando com a chave repetida
+            }
+            assertEquals(i == 3, transferencia.isCompletedExceptionally(), "comando " + i);
+        }
+        contas.assertSaldo(origem, "94.00");
+        contas.assertSaldo(destino, "6.00");
+    }
+
+    @Test
+    void creditoEmOutraParticaoChegaDepoisDoDebito() {
+        List<String> numeros = particoesDiferentes("CRUZADA-MOTOR");
+        String origem = numeros.get(0);
+        String destino = numeros.get(1);
+        contas.criar(origem, "100.00");
+        contas.criar(destino, "0.00");
+
+        ContaResumoDTO resposta = motor.transferir(origem, destino, Dinheiro.de(new BigDecimal("10.00")), null);
+
+        assertEquals(0, new BigDecimal("90.00").compareTo(resposta.saldo()));
+        aguardar(() -> contas.buscar(destino).getSaldo().equals(Dinheiro.de(new BigDecimal("10.00"))),
+                "crédito no destino");
+        assertSemCreditoPendente(destino);
+        contas.assertSaldo(origem, "90.00");
+        contas.assertSaldo(destino, "10.00");
+    }
+
+    @Test
+    void creditoQueFalhaEhRepetidoSemReiniciarOMotor() {
+        List<String> numeros = particoesDiferentes("ADIADO-MOTOR");
+        String origem = numeros.get(0);
+        String destino = numeros.get(1);
+        contas.criar(origem, "100.00");
+        contas.criar(destino, "0.00");
+        double adiadosAntes = metricas.counter("conta.motor.creditos.adiados").count();
+
+        // Destino na memória da partição; a versão alterada por fora derruba a gravação do crédito
+        motor.depositar(destino, UM_REAL, null);
+        jdbc.update("update conta_dto set versao = versao + 1 where numero = ?", destino);
+        motor.transferir(origem, destino, Dinheiro.de(new BigDecimal("5.00")), null);
+
+        aguardar(() -> contas.buscar(destino).getSaldo().equals(Dinheiro.de(new BigDecimal("6.00"))),
+                "crédito repetido");
+        assertTrue(metricas.counter("conta.motor.creditos.adiados").count() > adiadosAntes);
+        assertSemCreditoPendente(destino);
+        contas.assertSaldo(destino, "6.00");
+    }
+
+    @Test
+    void creditoChegaNaContaDesativadaDepoisDoDebito() throws Exception {
+        List<String> numeros = particoesDiferentes("DESATIVADA-MOTOR");
+        String origem = numeros.get(0);
+        String destino = numeros.get(1);
+        contas.criar(origem, "100.00");
+        contas.criar(destino, "0.00");
+        String destinoId = contas.buscar(destino).getId();
+        double falhosAntes = metricas.counter("conta.motor.creditos.falhos").count();
+
+        CountDownLatch liberar = new CountDownLatch(1);
+        CompletableFuture<Void> exclusivo = segurarParticao(destino, liberar);
+        motor.transferir(origem, destino, Dinheiro.de(new BigDecimal("5.00")), null);
+
+        // Como ClienteService.deletarCliente entre o commit do débito e o crédito
+        jdbc.update("update conta_dto set ativa = false where numero = ?", destino);
+        liberar.countDown();
+        exclusivo.get(10, TimeUnit.SECONDS);
+
+        Dinheiro cinco = Dinheiro.de(new BigDecimal("5.00"));
+        aguardar(() -> contaRepository.findById(destinoId).orElseThrow().getSaldo().equals(cinco),
+                "crédito na conta desativada");
+        assertSemCreditoPendente(destino);
+        Conta desativada = contaRepository.findById(destinoId).orElseThrow();
+        assertEquals(0, new BigDecimal("5.00").compareTo(livroRazao.saldoAtual(desativada)));
+        assertEquals(falhosAntes, metricas.counter("conta.motor.creditos.falhos").count());
+        contas.assertSaldo(origem, "95.00");
+    }
+
+    @Test
+    void partidaReenviaCreditosPendentes() {
+        contas.criar("RECUPERA-MOTOR", "0.00");
+        Conta destino = contas.buscar("RECUPERA-MOTOR");
+
+        motor.stop();
+        try {
+            // Como se a instância tivesse caído entre o commit do débito e o crédito
+            transacao.executeWithoutResult(status -> livroRazao.registrarCreditoPendente(
+                    contaRepository.getReferenceById(destino.getId()), Dinheiro.de(new BigDecimal("7.00")),
+                    UUID.randomUUID().toString()));
+        } finally {
+            motor.start();
+        }
+
+        aguardar(() -> contas.buscar("RECUPERA-MOTOR").getSaldo().equals(Dinheiro.de(new BigDecimal("7.00"))),
+                "crédito recuperado");
+        assertSemCreditoPendente("RECUPERA-MOTOR");
+        contas.assertSaldo("RECUPERA-MOTOR", "7.00");
+    }
+
+    @Test
+    void sobeAntesEParaDepoisDoServidorWeb() {
+        assertTrue(motor.getPhase() < WebServerApplicationContext.START_STOP_LIFECYCLE_PHASE);
+        assertTrue(motor.getPhase() < WebServerApplicationContext.GRACEFUL_SHUTDOWN_PHASE);
+    }
+
+    // Prende a thread da partição da conta até "liberar"; os comandos seguintes se acumulam na fila
+    private CompletableFuture<Void> segurarParticao(String numeroConta, CountDownLatch liberar) throws InterruptedException {
+        CountDownLatch presa = new CountDownLatch(1);
+        CompletableFuture<Void> exclusivo = CompletableFuture.runAsync(() -> motor.executarExclusivo(numeroConta, () -> {
+            presa.countDown();
+            try {
+                liberar.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return null;
+        }));
+        assertTrue(presa.await(10, TimeUnit.SECONDS), "partição não atendeu o comando exclusivo");
+        return exclusivo;
+    }
+
+    private List<String> mesmaParticao(String prefixo) {
+        String primeira = prefixo + "-0";
+        for (int i = 1; ; i++) {
+            String numero = prefixo + "-" + i;
+            if (motor.particaoDe(numero) == motor.particaoDe(primeira)) {
+                return List.of(primeira, numero);
+            }
+        }
+    }
+
+    private List<String> particoesDiferentes(String prefixo) {
+        String primeira = prefixo + "-0";
+        for (int i = 1; ; i++) {
+            String numero = prefixo + "-" + i;
+            if (motor.particaoDe(numero) != motor.particaoDe(primeira)) {
+                return List.of(primeira, numero);
+            }
+        }
+    }
+
+    private void assertSemCreditoPendente(String numero) {
+        assertTrue(lancamentoRepository.listarCreditosPendentes().stream()
+                .noneMatch(credito -> credito.getNumeroConta().equals(numero)), numero);
+    }
+
+    private static void aguardar(BooleanSupplier condicao, String descricao) {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condicao.getAsBoolean()) {
+            assertTrue(System.nanoTime() < limite, "tempo esgotado esperando " + descricao);
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+}
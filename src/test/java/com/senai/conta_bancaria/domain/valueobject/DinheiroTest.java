@@ -0,0 +1,56 @@
+package com.senai.conta_bancaria.domain.valueobject;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class DinheiroTest {
+
+    @Test
+    void deArredondaFracaoDeCentavoMeioParaCima() {
+        assertEquals(1001, Dinheiro.de(new BigDecimal("10.005")).centavos());
+        assertEquals(1000, Dinheiro.de(new BigDecimal("10.0049")).centavos());
+        assertEquals(-1001, Dinheiro.de(new BigDecimal("-10.005")).centavos());
+        assertEquals(1, Dinheiro.de(new BigDecimal("0.005")).centavos());
+        assertEquals(1000, Dinheiro.de(new BigDecimal("1E+1")).centavos());
+        assertSame(Dinheiro.ZERO, Dinheiro.de(new BigDecimal("0.004")));
+    }
+
+    @Test
+    void deRecusaValorForaDoLong() {
+        assertThrows(ArithmeticException.class, () -> Dinheiro.de(new BigDecimal("92233720368547758.08")));
+    }
+
+    @Test
+    void multiplicarArredondaParaOCentavo() {
+        Dinheiro dezCentavos = Dinheiro.de(new BigDecimal("0.10"));
+
+        assertEquals(Dinheiro.deCentavos(1), dezCentavos.multiplicar(new BigDecimal("0.05")));
+        assertEquals(Dinheiro.deCentavos(50), Dinheiro.de(new BigDecimal("10.09")).multiplicar(new BigDecimal("0.05")));
+        assertEquals(Dinheiro.deCentavos(-1), dezCentavos.negar().multiplicar(new BigDecimal("0.05")));
+        assertSame(Dinheiro.ZERO, dezCentavos.multiplicar(BigDecimal.ZERO));
+    }
+
+    @Test
+    void operacoesEstouramEmVezDeDarAVolta() {
+        Dinheiro maximo = Dinheiro.deCentavos(Long.MAX_VALUE);
+        Dinheiro minimo = Dinheiro.deCentavos(Long.MIN_VALUE);
+
+        assertThrows(ArithmeticException.class, () -> maximo.somar(Dinheiro.deCentavos(1)));
+        assertThrows(ArithmeticException.class, () -> minimo.subtrair(Dinheiro.deCentavos(1)));
+        assertThrows(ArithmeticException.class, minimo::negar);
+        assertThrows(ArithmeticException.class, () -> maximo.multiplicar(new BigDecimal("2")));
+        assertThrows(ArithmeticException.class, () -> maximo.multiplicar(new BigDecimal("1.0000001")));
+    }
+
+    @Test
+    void toBigDecimalTemSempreDuasCasas() {
+        assertEquals(new BigDecimal("12.30"), Dinheiro.de(new BigDecimal("12.3")).toBigDecimal());
+        assertEquals(new BigDecimal("0.00"), Dinheiro.ZERO.toBigDecimal());
+        assertEquals("-0.01", Dinheiro.deCentavos(-1).toString());
+    }
+}
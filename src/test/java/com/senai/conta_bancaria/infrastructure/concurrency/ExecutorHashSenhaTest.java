@@ -0,0 +1,48 @@
+package com.senai.conta_bancaria.infrastructure.concurrency;
+
+import com.senai.conta_bancaria.domain.exception.LoginSobrecarregadoException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ExecutorHashSenhaTest {
+
+    @Test
+    void recusaQuandoThreadsEFilaEstaoOcupadas() throws Exception {
+        SimpleMeterRegistry metricas = new SimpleMeterRegistry();
+        ExecutorHashSenha executor = new ExecutorHashSenha(1, 1, metricas);
+        CountDownLatch liberar = new CountDownLatch(1);
+
+        try {
+            CompletableFuture<Integer> emExecucao = executor.executar(() -> {
+                aguardar(liberar);
+                return 1;
+            });
+            CompletableFuture<Integer> naFila = executor.executar(() -> 2);
+
+            assertThrows(LoginSobrecarregadoException.class, () -> executor.executar(() -> 3));
+            assertEquals(1.0, metricas.counter("security.login.hash.recusados").count());
+
+            liberar.countDown();
+            assertEquals(1, emExecucao.get(5, TimeUnit.SECONDS));
+            assertEquals(2, naFila.get(5, TimeUnit.SECONDS));
+        } finally {
+            liberar.countDown();
+            executor.encerrar();
+        }
+    }
+
+    private static void aguardar(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
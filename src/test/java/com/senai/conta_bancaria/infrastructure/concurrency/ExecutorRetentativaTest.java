@@ -0,0 +1,99 @@
+package com.senai.conta_bancaria.infrastructure.concurrency;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ExecutorRetentativaTest {
+
+    private final SimpleMeterRegistry metricas = new SimpleMeterRegistry();
+    private final MockEnvironment environment = new MockEnvironment();
+
+    @Test
+    void repeteAteNaoHaverConflito() {
+        ExecutorRetentativa executor = executor(5, 1, 2);
+        AtomicInteger chamadas = new AtomicInteger();
+
+        String resultado = executor.executar("sacar", () -> {
+            if (chamadas.incrementAndGet() < 3) {
+                throw new OptimisticLockingFailureException("conflito");
+            }
+            return "ok";
+        });
+
+        assertEquals("ok", resultado);
+        assertEquals(3, chamadas.get());
+        assertEquals(2.0, contagem("conta.retentativa.conflitos", "sacar"));
+        assertEquals(2.0, contagem("conta.retentativa.tentativas", "sacar"));
+        assertEquals(0.0, contagem("conta.retentativa.esgotadas", "sacar"));
+    }
+
+    @Test
+    void esgotaNoLimiteDaOperacaoEContaAsEsgotadas() {
+        environment.setProperty("conta.retentativa.transferir.max-tentativas", "3");
+        ExecutorRetentativa executor = executor(5, 1, 2);
+        AtomicInteger chamadas = new AtomicInteger();
+
+        assertThrows(OptimisticLockingFailureException.class, () -> executor.executar("transferir", () -> {
+            chamadas.incrementAndGet();
+            throw new OptimisticLockingFailureException("conflito");
+        }));
+
+        assertEquals(3, chamadas.get());
+        assertEquals(3.0, contagem("conta.retentativa.conflitos", "transferir"));
+        assertEquals(2.0, contagem("conta.retentativa.tentativas", "transferir"));
+        assertEquals(1.0, contagem("conta.retentativa.esgotadas", "transferir"));
+    }
+
+    @Test
+    void outrasFalhasNaoSaoRepetidas() {
+        ExecutorRetentativa executor = executor(5, 1, 2);
+        AtomicInteger chamadas = new AtomicInteger();
+
+        assertThrows(IllegalStateException.class, () -> executor.executar("depositar", () -> {
+            chamadas.incrementAndGet();
+            throw new IllegalStateException("regra de negócio");
+        }));
+
+        assertEquals(1, chamadas.get());
+        assertEquals(0.0, contagem("conta.retentativa.conflitos", "depositar"));
+    }
+
+    @Test
+    void esperaDobraAteOTeto() {
+        ExecutorRetentativa executor = executor(5, 5, 200);
+
+        assertEquals(5, executor.tetoEspera(1));
+        assertEquals(10, executor.tetoEspera(2));
+        assertEquals(160, executor.tetoEspera(6));
+        assertEquals(200, executor.tetoEspera(7));
+        // Muitas tentativas não estouram o deslocamento
+        assertEquals(200, executor.tetoEspera(1_000));
+    }
+
+    private ExecutorRetentativa executor(int tentativas, long esperaBaseMs, long esperaMaximaMs) {
+        return new ExecutorRetentativa(new SemTransacao(), environment, metricas,
+                tentativas, esperaBaseMs, esperaMaximaMs);
+    }
+
+    private double contagem(String nome, String operacao) {
+        var contador = metricas.find(nome).tag("operacao", operacao).counter();
+        return contador == null ? 0.0 : contador.count();
+    }
+
+    // Executa a ação direto: aqui só interessa a política de repetição
+    private static class SemTransacao extends TransactionTemplate {
+        @Override
+        public <T> T execute(TransactionCallback<T> action) {
+            return action.doInTransaction(null);
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.senai.conta_bancaria.infrastructure.concurrency;
+
+import com.senai.conta_bancaria.application.dto.TransferenciaDTO;
+import com.senai.conta_bancaria.application.service.ContaService;
+import com.senai.conta_bancaria.application.service.ContasDeTeste;
+import com.senai.conta_bancaria.application.service.LivroRazaoService;
+import com.senai.conta_bancaria.domain.entity.Conta;
+import com.senai.conta_bancaria.domain.entity.ContaCorrente;
+import com.senai.conta_bancaria.domain.exception.SaldoInsuficienteException;
+import com.senai.conta_bancaria.domain.repository.ContaRepository;
+import com.senai.conta_bancaria.domain.valueobject.Dinheiro;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Mede a vazão de transferências concorrentes sobre um conjunto pequeno de contas "quentes",
+ * primeiro só com as travas e depois pelo {@link ContaService}, com transação e diário.
+ * Rodar com {@code ./mvnw test -Pbenchmark}.
+ */
+@Slf4j
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("test")
+class GerenciadorTravasContaBenchmarkTest {
+
+    private static final int THREADS = 64;
+    private static final int CONTAS_QUENTES = 8;
+    private static final int TRANSFERENCIAS_POR_THREAD = 20_000;
+
+    private static final int THREADS_SERVICO = 16;
+    private static final int TRANSFERENCIAS_SERVICO_POR_THREAD = 100;
+    private static final Dinheiro SALDO_INICIAL = Dinheiro.de(new BigDecimal("1000000.00"));
+
+    @Autowired
+    private ContaService contaService;
+
+    @Autowired
+    private ContaRepository contaRepository;
+
+    @Autowired
+    private LivroRazaoService livroRazao;
+
+    @Test
+    void transferenciasConcorrentesNaoPerdemAtualizacoes() throws Exception {
+        GerenciadorTravasConta travas = new GerenciadorTravasConta(1024);
+        List<Conta> contas = new ArrayList<>();
+        for (int i = 0; i < CONTAS_QUENTES; i++) {
+            contas.add(conta("1000-" + i).id("id-" + i).build());
+        }
+        Dinheiro totalInicial = somarSaldos(contas);
+        AtomicLong concluidas = new AtomicLong();
+
+        long duracaoNanos = executarEmParalelo(THREADS, () -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int i = 0; i < TRANSFERENCIAS_POR_THREAD; i++) {
+                Conta origem = contas.get(random.nextInt(CONTAS_QUENTES));
+                Conta destino = contas.get(random.nextInt(CONTAS_QUENTES));
+                if (origem == destino) {
+                    continue;
+                }
+                try (var ignored = travas.travar(origem.getNumero(), destino.getNumero())) {
+                    origem.transferir(Dinheiro.deCentavos(100), destino);
+                    concluidas.incrementAndGet();
+                } catch (SaldoInsuficienteException e) {
+                    // faz parte da carga
+                }
+            }
+        });
+
+        log.info("Só travas, {} threads, {} contas quentes: {} transferências em {} ms ({}/s)",
+                THREADS, CONTAS_QUENTES, concluidas.get(), duracaoNanos / 1_000_000,
+                porSegundo(concluidas.get(), duracaoNanos));
+
+        assertTrue(concluidas.get() > 0);
+        assertEquals(totalInicial, somarSaldos(contas));
+    }
+
+    @Test
+    void transferenciasPeloServicoBatemComODiario() throws Exception {
+        List<String> numeros = new ArrayList<>();
+        for (int i = 0; i < CONTAS_QUENTES; i++) {
+            String numero = "TRAVA-" + i;
+            contaRepository.save(conta(numero).build());
+            numeros.add(numero);
+        }
+        var valor = new BigDecimal("1.00");
+        AtomicLong concluidas = new AtomicLong();
+
+        long duracaoNanos = executarEmParalelo(THREADS_SERVICO, () -> {
+            SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                    "benchmark", null, List.of(new SimpleGrantedAuthority("ROLE_CLIENTE"))));
+            try {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < TRANSFERENCIAS_SERVICO_POR_THREAD; i++) {
+                    // Pares nos dois sentidos: A→B e B→A disputam as mesmas faixas
+                    String origem = numeros.get(random.nextInt(CONTAS_QUENTES));
+                    String destino = numeros.get(random.nextInt(CONTAS_QUENTES));
+                    if (origem.equals(destino)) {
+                        continue;
+                    }
+                    contaService.transferir(origem, new TransferenciaDTO(destino, valor), null);
+                    concluidas.incrementAndGet();
+                }
+            } finally {
+                SecurityContextHolder.clearContext();
+            }
+        });
+
+        log.info("ContaService, {} threads, {} contas quentes: {} transferências em {} ms ({}/s)",
+                THREADS_SERVICO, CONTAS_QUENTES, concluidas.get(), duracaoNanos / 1_000_000,
+                porSegundo(concluidas.get(), duracaoNanos));
+
+        Dinheiro total = Dinheiro.ZERO;
+        for (String numero : numeros) {
+            Conta conta = contaRepository.findByNumeroAndAtivaTrue(numero).orElseThrow();
+            // Nenhuma atualização perdida: o diário refaz exatamente o saldo gravado
+            assertEquals(0, conta.getSaldo().toBigDecimal().compareTo(livroRazao.saldoAtual(conta)), numero);
+            total = total.somar(conta.getSaldo());
+        }
+        assertEquals(SALDO_INICIAL.multiplicar(BigDecimal.valueOf(CONTAS_QUENTES)), total);
+    }
+
+    // Dispara todas as threads juntas e devolve o tempo até a última terminar
+    private static long executarEmParalelo(int threads, Runnable carga) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch largada = new CountDownLatch(1);
+        CountDownLatch fim = new CountDownLatch(threads);
+        AtomicReference<Throwable> falha = new AtomicReference<>();
+
+        for (int t = 0; t < threads; t++) {
+            executor.submit(() -> {
+                try {
+                    largada.await();
+                    carga.run();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (Throwable e) {
+                    falha.compareAndSet(null, e);
+                } finally {
+                    fim.countDown();
+                }
+            });
+        }
+
+        long inicio = System.nanoTime();
+        largada.countDown();
+        assertTrue(fim.await(2, TimeUnit.MINUTES), "transferências não terminaram (possível deadlock)");
+        long duracaoNanos = System.nanoTime() - inicio;
+        executor.shutdown();
+
+        assertNull(falha.get(), () -> "falha numa das threads: " + falha.get());
+        return duracaoNanos;
+    }
+
+    private static ContaCorrente.ContaCorrenteBuilder<?, ?> conta(String numero) {
+        return ContasDeTeste.corrente(numero, "0.00").saldo(SALDO_INICIAL);
+    }
+
+    private static long porSegundo(long quantidade, long duracaoNanos) {
+        return Math.round(quantidade / (duracaoNanos / 1_000_000_000.0));
+    }
+
+    private static Dinheiro somarSaldos(List<Conta> contas) {
+        return contas.stream()
+                .map(Conta::getSaldo)
+                .reduce(Dinheiro.ZERO, Dinheiro::somar);
+    }
+}
@@ -0,0 +1,125 @@
+package com.senai.conta_bancaria.infrastructure.concurrency;
+
+import com.senai.conta_bancaria.application.service.ContasDeTeste;
+import com.senai.conta_bancaria.domain.entity.Conta;
+import com.senai.conta_bancaria.domain.valueobject.Dinheiro;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Poucas threads em A→B contra B→A: sem deadlock, sem atualização perdida, e as faixas
+ * livres depois do commit e do rollback. A vazão com muitas threads fica no benchmark.
+ */
+class GerenciadorTravasContaTest {
+
+    private static final int THREADS = 4;
+    private static final int TRANSFERENCIAS_POR_THREAD = 2_000;
+    private static final Dinheiro SALDO_INICIAL = Dinheiro.de(new BigDecimal("1000.00"));
+
+    private final GerenciadorTravasConta travas = new GerenciadorTravasConta(16);
+
+    @Test
+    void sentidosOpostosNaoTravamNemPerdemAtualizacao() throws Exception {
+        Conta a = conta("A");
+        Conta b = conta("B");
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> tarefas = new ArrayList<>();
+
+        for (int t = 0; t < THREADS; t++) {
+            Conta origem = t % 2 == 0 ? a : b;
+            Conta destino = t % 2 == 0 ? b : a;
+            tarefas.add(executor.submit(() -> {
+                for (int i = 0; i < TRANSFERENCIAS_POR_THREAD; i++) {
+                    // Cada sentido passa os números na sua própria ordem
+                    try (var ignored = travas.travar(origem.getNumero(), destino.getNumero())) {
+                        origem.transferir(Dinheiro.deCentavos(1), destino);
+                    }
+                }
+            }));
+        }
+        for (Future<?> tarefa : tarefas) {
+            tarefa.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        // Mesma quantidade nos dois sentidos: os saldos voltam ao inicial
+        assertEquals(SALDO_INICIAL, a.getSaldo());
+        assertEquals(SALDO_INICIAL, b.getSaldo());
+        assertTrue(livres("A", "B"));
+    }
+
+    @Test
+    void faixasSaoLiberadasNoCommitENoRollback() throws Exception {
+        TransactionTemplate transacao = transacao();
+
+        CompletableFuture<Void> concorrente = new CompletableFuture<>();
+        transacao.executeWithoutResult(status -> {
+            travas.travar("A", "B");
+            concorrente.completeAsync(() -> {
+                travas.travar("B", "A").close();
+                return null;
+            });
+            // Durante a transação a outra thread espera
+            assertThrows(TimeoutException.class, () -> concorrente.get(200, TimeUnit.MILLISECONDS));
+        });
+        concorrente.get(5, TimeUnit.SECONDS);
+
+        assertThrows(IllegalStateException.class, () -> transacao.executeWithoutResult(status -> {
+            travas.travar("A", "B");
+            throw new IllegalStateException("falha no meio da transferência");
+        }));
+        assertTrue(livres("A", "B"));
+    }
+
+    @Test
+    void foraDeTransacaoLiberaAoFechar() throws Exception {
+        var travadas = travas.travar("A", "B");
+        assertFalse(livres("A"));
+
+        travadas.close();
+        travadas.close();
+        assertTrue(livres("A", "B"));
+    }
+
+    // Outra thread tenta as mesmas faixas; ReentrantLock deixaria a própria thread passar
+    private boolean livres(String... numeros) throws Exception {
+        CompletableFuture<Void> tentativa = CompletableFuture.runAsync(() -> travas.travar(numeros).close());
+        try {
+            tentativa.get(1, TimeUnit.SECONDS);
+            return true;
+        } catch (TimeoutException e) {
+            return false;
+        }
+    }
+
+    // Só para ter sincronização de transação de verdade; a trava não toca o banco
+    private static TransactionTemplate transacao() {
+        String url = "jdbc:h2:mem:travas_" + UUID.randomUUID().toString().replace("-", "") + ";DB_CLOSE_DELAY=-1";
+        return new TransactionTemplate(new DataSourceTransactionManager(new DriverManagerDataSource(url, "sa", "")));
+    }
+
+    private static Conta conta(String numero) {
+        return ContasDeTeste.corrente(numero, "0.00")
+                .id("id-" + numero)
+                .saldo(SALDO_INICIAL)
+                .build();
+    }
+}
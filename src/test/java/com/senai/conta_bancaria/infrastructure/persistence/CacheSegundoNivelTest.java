@@ -0,0 +1,129 @@
+package com.senai.conta_bancaria.infrastructure.persistence;
+
+import com.senai.conta_bancaria.domain.entity.Cliente;
+import com.senai.conta_bancaria.domain.entity.Gerente;
+import com.senai.conta_bancaria.domain.entity.Taxa;
+import com.senai.conta_bancaria.domain.enums.Role;
+import com.senai.conta_bancaria.domain.repository.ClienteRepository;
+import com.senai.conta_bancaria.domain.repository.GerenteRepository;
+import com.senai.conta_bancaria.domain.repository.TaxaRepository;
+import com.senai.conta_bancaria.domain.repository.UsuarioRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Taxas e gerentes saem do cache de segundo nível até uma escrita ou uma invalidação explícita;
+ * clientes, da mesma hierarquia de Usuario, nunca passam pela região {@code conta.usuario}.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class CacheSegundoNivelTest {
+
+    @Autowired
+    private TaxaRepository taxaRepository;
+
+    @Autowired
+    private GerenteRepository gerenteRepository;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private CacheSegundoNivelEndpoint endpoint;
+
+    @Test
+    void consultaDeTaxasVemDoCacheAteUmaEscrita() {
+        criarTaxa("Manutenção");
+        int quantidade = taxaRepository.findAll().size();
+
+        ContadorConsultas.zerar();
+        assertEquals(quantidade, taxaRepository.findAll().size());
+        assertEquals(0, ContadorConsultas.total());
+
+        criarTaxa("Transferência");
+        ContadorConsultas.zerar();
+        assertEquals(quantidade + 1, taxaRepository.findAll().size());
+        assertTrue(ContadorConsultas.total() > 0);
+    }
+
+    @Test
+    void invalidacaoDaRegiaoObrigaNovaLeitura() {
+        String id = criarTaxa("Saque").getId();
+        taxaRepository.findById(id);
+
+        ContadorConsultas.zerar();
+        taxaRepository.findById(id);
+        assertEquals(0, ContadorConsultas.total());
+
+        endpoint.invalidarRegiao("conta.taxa");
+        taxaRepository.findById(id);
+        assertEquals(1, ContadorConsultas.total());
+        assertTrue(endpoint.regioes().get("conta.taxa").acertos() > 0);
+    }
+
+    @Test
+    void gerenteVemDaRegiaoDeUsuario() {
+        Gerente gerente = gerenteRepository.save(Gerente.builder()
+                .nome("Gerente Cache")
+                .cpf("94000000001")
+                .email("gerente.cache@banco.com")
+                .senha("senha")
+                .ativo(true)
+                .role(Role.GERENTE)
+                .build());
+        endpoint.invalidarRegiao("conta.usuario");
+        gerenteRepository.findById(gerente.getId());
+        gerenteRepository.findByEmail(gerente.getEmail());
+        long acertos = endpoint.regioes().get("conta.usuario").acertos();
+
+        ContadorConsultas.zerar();
+        assertEquals(gerente.getCpf(), gerenteRepository.findById(gerente.getId()).orElseThrow().getCpf());
+        assertEquals(gerente.getId(), gerenteRepository.findByEmail(gerente.getEmail()).orElseThrow().getId());
+        assertEquals(0, ContadorConsultas.total());
+        assertTrue(endpoint.regioes().get("conta.usuario").acertos() > acertos);
+    }
+
+    @Test
+    void clienteNuncaPassaPelaRegiaoDeUsuario() {
+        CacheSegundoNivelEndpoint.EstatisticaRegiao antes = endpoint.regioes().get("conta.usuario");
+
+        Cliente cliente = clienteRepository.save(Cliente.builder()
+                .nome("Cliente Cache")
+                .cpf("94000000002")
+                .email("cliente.cache@banco.com")
+                .senha("senha")
+                .ativo(true)
+                .role(Role.CLIENTE)
+                .build());
+        clienteRepository.findById(cliente.getId());
+        clienteRepository.findByCpfAndAtivoTrue(cliente.getCpf());
+        usuarioRepository.findByEmail(cliente.getEmail());
+
+        // Cada busca vai ao banco e a região não vê nem inserção nem consulta
+        ContadorConsultas.zerar();
+        clienteRepository.findById(cliente.getId());
+        assertTrue(ContadorConsultas.total() > 0);
+        CacheSegundoNivelEndpoint.EstatisticaRegiao depois = endpoint.regioes().get("conta.usuario");
+        assertEquals(antes.insercoes(), depois.insercoes());
+        assertEquals(antes.acertos(), depois.acertos());
+        assertEquals(antes.faltas(), depois.faltas());
+    }
+
+    private Taxa criarTaxa(String descricao) {
+        return taxaRepository.save(Taxa.builder()
+                .descricao(descricao)
+                .percentual(new BigDecimal("0.50"))
+                .valorFixo(BigDecimal.ONE)
+                .build());
+    }
+}
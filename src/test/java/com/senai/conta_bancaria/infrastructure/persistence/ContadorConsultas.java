@@ -0,0 +1,28 @@
+package com.senai.conta_bancaria.infrastructure.persistence;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Conta os comandos SQL preparados pelo Hibernate. Registrado no perfil de teste via
+ * {@code hibernate.session_factory.statement_inspector}.
+ * A contagem é por thread: os jobs agendados (revogação de tokens, etc.) rodam em outras
+ * threads e não entram no que o teste mede.
+ */
+public class ContadorConsultas implements StatementInspector {
+
+    private static final ThreadLocal<int[]> total = ThreadLocal.withInitial(() -> new int[1]);
+
+    @Override
+    public String inspect(String sql) {
+        total.get()[0]++;
+        return sql;
+    }
+
+    public static void zerar() {
+        total.get()[0] = 0;
+    }
+
+    public static int total() {
+        return total.get()[0];
+    }
+}
@@ -0,0 +1,149 @@
+package com.senai.conta_bancaria.infrastructure.persistence;
+
+import com.senai.conta_bancaria.application.service.ContaCacheService;
+import com.senai.conta_bancaria.domain.entity.ContaCorrente;
+import com.senai.conta_bancaria.domain.exception.EntidadeNaoEncontradaException;
+import com.senai.conta_bancaria.domain.repository.ContaRepository;
+import com.senai.conta_bancaria.domain.valueobject.Dinheiro;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Um segundo H2 faz o papel de réplica. A conta {@code NUMERO_SO_NA_REPLICA} existe só nele,
+ * então encontrá-la numa leitura indica que a consulta foi para a réplica.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:conta_bancaria_primario;DB_CLOSE_DELAY=-1",
+        "conta.replica.url=jdbc:h2:mem:conta_bancaria_replica;DB_CLOSE_DELAY=-1",
+        "conta.replica.username=sa",
+        "conta.replica.atraso-maximo=5s",
+        "conta.replica.verificacao-ms=3600000"
+})
+@ActiveProfiles("test")
+class DataSourceLeituraEscritaTest {
+
+    private static final String URL_REPLICA = "jdbc:h2:mem:conta_bancaria_replica;DB_CLOSE_DELAY=-1";
+    private static final String NUMERO_SO_NA_REPLICA = "REPLICA-1";
+
+    @Autowired
+    private ContaRepository contaRepository;
+
+    @Autowired
+    private MonitorAtrasoReplica monitor;
+
+    @Autowired
+    private ContaCacheService contaCache;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private JdbcTemplate replica;
+    private TransactionTemplate escrita;
+    private TransactionTemplate leitura;
+
+    @BeforeEach
+    void preparar() {
+        // O pool da réplica abre conexões somente leitura; o teste escreve nela por fora
+        DataSource dataSourceReplica = new DriverManagerDataSource(URL_REPLICA, "sa", "");
+        Flyway.configure()
+                .dataSource(dataSourceReplica)
+                .locations("classpath:db/migration/h2")
+                .load()
+                .migrate();
+        replica = new JdbcTemplate(dataSourceReplica);
+        replica.update("delete from conta_dto where numero = ?", NUMERO_SO_NA_REPLICA);
+        replica.update("""
+                insert into conta_dto (id, numero, saldo, ativa, versao, sequencia_lancamento,
+                                       conta_quente, quantidade_sub_saldos, tipo_conta)
+                values ('replica-1', ?, 0, true, 0, 0, false, 0, 'POUPANCA')
+                """, NUMERO_SO_NA_REPLICA);
+
+        escrita = new TransactionTemplate(transactionManager);
+        leitura = new TransactionTemplate(transactionManager);
+        leitura.setReadOnly(true);
+    }
+
+    @AfterEach
+    void limpar() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void leituraVaiParaReplicaEmDia() {
+        batimentoNaReplica(System.currentTimeMillis());
+
+        assertTrue(lerContaDaReplica().isPresent());
+    }
+
+    @Test
+    void escritaVaiParaPrimario() {
+        batimentoNaReplica(System.currentTimeMillis());
+
+        assertFalse(escrita.execute(status -> contaRepository.buscarIdAtivaPorNumero(NUMERO_SO_NA_REPLICA)).isPresent());
+    }
+
+    @Test
+    void replicaAtrasadaDevolveLeiturasAoPrimario() {
+        batimentoNaReplica(System.currentTimeMillis() - 60_000);
+
+        assertFalse(lerContaDaReplica().isPresent());
+    }
+
+    @Test
+    void leituraDepoisDeEscritaNaMesmaRequisicaoUsaPrimario() {
+        batimentoNaReplica(System.currentTimeMillis());
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+
+        escrita.executeWithoutResult(status -> contaRepository.count());
+
+        assertFalse(lerContaDaReplica().isPresent());
+    }
+
+    @Test
+    void cacheDeContasCarregaDoPrimarioMesmoEmLeitura() {
+        contaRepository.save(ContaCorrente.builder()
+                .numero("PRIMARIO-1")
+                .saldo(Dinheiro.de(new BigDecimal("10.00")))
+                .limite(Dinheiro.ZERO)
+                .taxa(BigDecimal.ZERO)
+                .ativa(true)
+                .build());
+        batimentoNaReplica(System.currentTimeMillis());
+
+        leitura.executeWithoutResult(status -> {
+            assertEquals("PRIMARIO-1", contaCache.buscarAtiva("PRIMARIO-1").numero());
+            assertThrows(EntidadeNaoEncontradaException.class, () -> contaCache.buscarAtiva(NUMERO_SO_NA_REPLICA));
+        });
+    }
+
+    private Optional<String> lerContaDaReplica() {
+        return leitura.execute(status -> contaRepository.buscarIdAtivaPorNumero(NUMERO_SO_NA_REPLICA));
+    }
+
+    // Simula a replicação do batimento e força uma nova medição
+    private void batimentoNaReplica(long instanteMs) {
+        replica.update("update replica_batimento set instante_ms = ? where id = 1", instanteMs);
+        monitor.verificar();
+    }
+}
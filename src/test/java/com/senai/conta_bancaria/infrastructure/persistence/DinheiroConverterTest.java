@@ -0,0 +1,37 @@
+package com.senai.conta_bancaria.infrastructure.persistence;
+
+import com.senai.conta_bancaria.domain.valueobject.Dinheiro;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class DinheiroConverterTest {
+
+    private final DinheiroConverter converter = new DinheiroConverter();
+
+    @Test
+    void idaEVoltaPreservaOValor() {
+        for (long centavos : new long[] {0, 1, -1, 123_456_789, -987_654_321, Long.MAX_VALUE, Long.MIN_VALUE}) {
+            Dinheiro valor = Dinheiro.deCentavos(centavos);
+            BigDecimal coluna = converter.convertToDatabaseColumn(valor);
+
+            assertEquals(2, coluna.scale());
+            assertEquals(valor, converter.convertToEntityAttribute(coluna));
+        }
+    }
+
+    @Test
+    void colunaComOutraEscalaViraOMesmoValor() {
+        assertEquals(Dinheiro.deCentavos(1050), converter.convertToEntityAttribute(new BigDecimal("10.5")));
+        assertEquals(Dinheiro.deCentavos(1050), converter.convertToEntityAttribute(new BigDecimal("10.5000")));
+    }
+
+    @Test
+    void nuloContinuaNulo() {
+        assertNull(converter.convertToDatabaseColumn(null));
+        assertNull(converter.convertToEntityAttribute(null));
+    }
+}
@@ -0,0 +1,73 @@
+package com.senai.conta_bancaria.infrastructure.persistence;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationInfo;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Passagem de um banco criado pelo Hibernate para o Flyway, no H2 em modo MySQL com os scripts
+ * do MySQL: o esquema existente vira o baseline V1, recebe as migrações seguintes e tem as
+ * colunas corrigidas pelo afterBaseline.sql.
+ */
+class MigracaoBancoLegadoTest {
+
+    private static final String URL = "jdbc:h2:mem:legado_mysql;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    @Test
+    void bancoSemHistoricoViraBaselineERecebeAsMigracoesSeguintes() {
+        DataSource dataSource = new DriverManagerDataSource(URL, "sa", "");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+
+        // Como o Hibernate deixava: tabelas do V1, saldo sem casas decimais e nenhum histórico
+        flyway(dataSource).target("1").load().migrate();
+        jdbc.execute("drop table flyway_schema_history");
+        jdbc.execute("alter table conta_dto modify saldo decimal(4, 0) not null");
+        jdbc.execute("alter table conta_dto modify rendimento decimal(5, 0)");
+
+        Flyway flyway = flyway(dataSource)
+                .baselineOnMigrate(true)
+                .baselineVersion("1")
+                .load();
+        flyway.migrate();
+
+        MigrationInfo atual = flyway.info().current();
+        assertNotNull(atual);
+        assertEquals(ultimaVersao(), atual.getVersion().getVersion());
+        assertEquals(1, jdbc.queryForObject(
+                "select count(*) from flyway_schema_history where version = '1' and type = 'BASELINE'", Integer.class));
+
+        assertColuna(jdbc, "saldo", 19, 2);
+        assertColuna(jdbc, "rendimento", 7, 4);
+    }
+
+    private static Flyway.FluentConfiguration flyway(DataSource dataSource) {
+        return Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration/mysql");
+    }
+
+    // A última versão de um banco novo, migrado do zero com os mesmos scripts
+    private static String ultimaVersao() {
+        DataSource novo = new DriverManagerDataSource(
+                "jdbc:h2:mem:legado_referencia;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", "");
+        Flyway flyway = flyway(novo).load();
+        flyway.migrate();
+        return flyway.info().current().getVersion().getVersion();
+    }
+
+    private static void assertColuna(JdbcTemplate jdbc, String coluna, int precisao, int escala) {
+        Map<String, Object> definicao = jdbc.queryForMap("select numeric_precision, numeric_scale " +
+                "from information_schema.columns where table_name = 'conta_dto' and column_name = ?", coluna);
+
+        assertEquals(precisao, ((Number) definicao.get("numeric_precision")).intValue(), coluna);
+        assertEquals(escala, ((Number) definicao.get("numeric_scale")).intValue(), coluna);
+    }
+}
@@ -0,0 +1,59 @@
+package com.senai.conta_bancaria.infrastructure.persistence;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Aplica as migrações num H2 limpo (modo padrão e modo MySQL, com os scripts de cada banco)
+ * e confere pelo EXPLAIN que as buscas por chave usam índice, e não varredura da tabela.
+ */
+class MigracoesPlanoConsultaTest {
+
+    @ParameterizedTest(name = "{0}")
+    @CsvSource({
+            "h2,    jdbc:h2:mem:plano_h2;DB_CLOSE_DELAY=-1",
+            "mysql, jdbc:h2:mem:plano_mysql;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1"
+    })
+    void buscasPorChaveUsamIndice(String fornecedor, String url) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(url, "sa", "");
+        Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration/" + fornecedor)
+                .load()
+                .migrate();
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+
+        assertAll(
+                () -> assertUsaIndice(jdbc, "select * from pagamento where boleto = 'b'",
+                        "idx_pagamento_boleto"),
+                () -> assertUsaIndice(jdbc, "select * from codigo_autenticacao where cliente_id = 'c' " +
+                                "and validado = false order by expira_em desc limit 1",
+                        "idx_codigo_cliente_validado_expira"),
+                () -> assertUsaIndice(jdbc, "select * from usuario where cpf = '00000000000' and ativo = true",
+                        "idx_usuario_cpf_ativo", "uk_usuario_cpf"),
+                () -> assertUsaIndice(jdbc, "select * from usuario where email = 'a@b.com'",
+                        "uk_usuario_email"),
+                () -> assertUsaIndice(jdbc, "select id from conta_dto where numero = '1' and ativa = true",
+                        "idx_conta_numero_ativa_id", "uk_conta_numero"),
+                () -> assertUsaIndice(jdbc, "delete from chave_idempotencia where criada_em < current_timestamp",
+                        "idx_chave_idempotencia_criada_em")
+        );
+    }
+
+    private static void assertUsaIndice(JdbcTemplate jdbc, String sql, String... indices) {
+        String plano = jdbc.queryForObject("explain " + sql, String.class).toLowerCase(Locale.ROOT);
+
+        assertTrue(Arrays.stream(indices).anyMatch(plano::contains),
+                () -> "Esperava um de " + Arrays.toString(indices) + " no plano:\n" + plano);
+        assertTrue(!plano.contains("tablescan"), () -> "Varredura de tabela no plano:\n" + plano);
+    }
+}
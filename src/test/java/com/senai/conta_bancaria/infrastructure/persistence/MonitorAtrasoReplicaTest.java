@@ -0,0 +1,107 @@
+package com.senai.conta_bancaria.infrastructure.persistence;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Dois H2 fazem o papel de primário e réplica; a replicação do batimento é feita pelo teste,
+ * copiando o valor do primário para a réplica.
+ */
+class MonitorAtrasoReplicaTest {
+
+    private JdbcTemplate primario;
+    private JdbcTemplate replica;
+    private MeterRegistry metricas;
+    private MonitorAtrasoReplica monitor;
+
+    @BeforeEach
+    void preparar() {
+        // Bancos novos a cada teste
+        String sufixo = UUID.randomUUID().toString().replace("-", "");
+        DataSource dataSourcePrimario = migrado("jdbc:h2:mem:monitor_primario_" + sufixo + ";DB_CLOSE_DELAY=-1");
+        DataSource dataSourceReplica = migrado("jdbc:h2:mem:monitor_replica_" + sufixo + ";DB_CLOSE_DELAY=-1");
+        primario = new JdbcTemplate(dataSourcePrimario);
+        replica = new JdbcTemplate(dataSourceReplica);
+        metricas = new SimpleMeterRegistry();
+        monitor = new MonitorAtrasoReplica(dataSourcePrimario, dataSourceReplica, Duration.ofMillis(200), metricas);
+    }
+
+    @Test
+    void replicaComOBatimentoAnteriorEstaEmDia() throws InterruptedException {
+        monitor.verificar();
+        replicar();
+        // Bem mais que o limite desde a gravação do batimento: antes isso virava atraso
+        Thread.sleep(300);
+
+        monitor.verificar();
+
+        assertEquals(0.0, atrasoSegundos());
+        assertTrue(monitor.isReplicaDisponivel());
+    }
+
+    @Test
+    void replicaParadaAtrasaDesdeOPrimeiroBatimentoQueNaoChegou() throws InterruptedException {
+        monitor.verificar();
+        replicar();
+        monitor.verificar();
+        long segundoBatimento = batimentoNoPrimario();
+
+        Thread.sleep(300);
+        monitor.verificar();
+
+        double atraso = atrasoSegundos();
+        assertTrue(atraso >= 0.3, "atraso " + atraso);
+        assertTrue(atraso * 1000 <= System.currentTimeMillis() - segundoBatimento, "atraso " + atraso);
+        assertFalse(monitor.isReplicaDisponivel());
+
+        // A réplica alcança o primário e volta a receber leituras
+        replicar();
+        monitor.verificar();
+        assertEquals(0.0, atrasoSegundos());
+        assertTrue(monitor.isReplicaDisponivel());
+    }
+
+    @Test
+    void replicaSemRespostaNaoRecebeLeituras() {
+        replica.execute("drop table replica_batimento");
+
+        monitor.verificar();
+
+        assertFalse(monitor.isReplicaDisponivel());
+    }
+
+    private void replicar() {
+        replica.update("update replica_batimento set instante_ms = ? where id = 1", batimentoNoPrimario());
+    }
+
+    private long batimentoNoPrimario() {
+        return primario.queryForObject("select instante_ms from replica_batimento where id = 1", Long.class);
+    }
+
+    private double atrasoSegundos() {
+        return metricas.get("conta.replica.atraso").gauge().value();
+    }
+
+    private static DataSource migrado(String url) {
+        DataSource dataSource = new DriverManagerDataSource(url, "sa", "");
+        Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration/h2")
+                .load()
+                .migrate();
+        return dataSource;
+    }
+}
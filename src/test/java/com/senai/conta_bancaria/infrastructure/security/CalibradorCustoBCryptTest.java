@@ -0,0 +1,16 @@
+package com.senai.conta_bancaria.infrastructure.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CalibradorCustoBCryptTest {
+
+    @Test
+    void custoFicaEntreOsLimites() {
+        assertEquals(4, CalibradorCustoBCrypt.calibrar(Duration.ZERO, 4, 8));
+        assertEquals(8, CalibradorCustoBCrypt.calibrar(Duration.ofHours(1), 4, 8));
+    }
+}
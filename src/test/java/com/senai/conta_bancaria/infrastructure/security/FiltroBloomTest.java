@@ -0,0 +1,29 @@
+package com.senai.conta_bancaria.infrastructure.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FiltroBloomTest {
+
+    @Test
+    void semFalsoNegativoEFalsosPositivosPertoDaTaxa() {
+        FiltroBloom filtro = new FiltroBloom(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            String jti = UUID.nameUUIDFromBytes(("revogado-" + i).getBytes()).toString();
+            filtro.adicionar(jti);
+            assertTrue(filtro.talvezContem(jti));
+        }
+
+        int falsosPositivos = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (filtro.talvezContem(UUID.nameUUIDFromBytes(("valido-" + i).getBytes()).toString())) {
+                falsosPositivos++;
+            }
+        }
+        // 1% esperado; folga para a variação da amostra
+        assertTrue(falsosPositivos < 300, "falsos positivos: " + falsosPositivos);
+    }
+}
@@ -0,0 +1,57 @@
+package com.senai.conta_bancaria.infrastructure.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JwtServiceTest {
+
+    private static final String SEGREDO = "chave-de-teste-com-pelo-menos-32-bytes-para-hs256";
+
+    @Test
+    void tokenValidoEVerificadoUmaVezEDepoisVemDoCache() {
+        MeterRegistry metricas = new SimpleMeterRegistry();
+        JwtService jwtService = criar(900, metricas);
+        String token = jwtService.generateAccessToken("maria@exemplo.com", "CLIENTE", 0L);
+
+        JwtService.TokenVerificado primeiro = jwtService.verificar(token).orElseThrow();
+        assertEquals("maria@exemplo.com", primeiro.email());
+        assertEquals("CLIENTE", primeiro.role());
+        assertEquals(0.0, consultasAoCache(metricas, "hit"));
+        assertEquals(1.0, consultasAoCache(metricas, "miss"));
+
+        assertEquals(primeiro, jwtService.verificar(token).orElseThrow());
+        assertEquals(1.0, consultasAoCache(metricas, "hit"));
+        assertEquals(1.0, consultasAoCache(metricas, "miss"));
+    }
+
+    @Test
+    void tokenAlteradoOuExpiradoNaoPassa() {
+        JwtService jwtService = criar(900);
+        String token = jwtService.generateAccessToken("maria@exemplo.com", "CLIENTE", 0L);
+        String alterado = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        assertTrue(jwtService.verificar(alterado).isEmpty());
+        assertTrue(jwtService.verificar("nao-e-um-jwt").isEmpty());
+
+        JwtService expirando = criar(-1);
+        assertTrue(expirando.verificar(expirando.generateAccessToken("maria@exemplo.com", "CLIENTE", 0L)).isEmpty());
+    }
+
+    private static JwtService criar(long expiracaoAcesso) {
+        return criar(expiracaoAcesso, new SimpleMeterRegistry());
+    }
+
+    private static JwtService criar(long expiracaoAcesso, MeterRegistry metricas) {
+        return new JwtService(SEGREDO, expiracaoAcesso, 604800, 100, Duration.ofMinutes(5), metricas);
+    }
+
+    private static double consultasAoCache(MeterRegistry metricas, String resultado) {
+        return metricas.get("cache.gets").tag("cache", "tokens").tag("result", resultado).functionCounter().count();
+    }
+}
@@ -0,0 +1,64 @@
+package com.senai.conta_bancaria.infrastructure.security;
+
+import com.senai.conta_bancaria.domain.entity.RevogacaoToken;
+import com.senai.conta_bancaria.domain.event.UsuarioAlteradoEvent;
+import com.senai.conta_bancaria.domain.repository.RevogacaoTokenRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Alterações de usuário barram os tokens emitidos antes delas, sem consultar o banco na checagem.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class RevogacaoTokensTest {
+
+    @Autowired
+    private RevogacaoTokens revogacoes;
+
+    @Autowired
+    private RevogacaoTokenRepository repository;
+
+    @Autowired
+    private ApplicationEventPublisher eventos;
+
+    @Test
+    void alteracaoBarraSoTokensDeVersaoAnterior() {
+        eventos.publishEvent(new UsuarioAlteradoEvent("ana@banco.com", 3L, true));
+
+        assertTrue(revogacoes.isRevogado(token("ana@banco.com", 2L)));
+        assertTrue(revogacoes.isRevogado(token("ana@banco.com", null)));
+        assertFalse(revogacoes.isRevogado(token("ana@banco.com", 3L)));
+        assertFalse(revogacoes.isRevogado(token("carla@banco.com", 0L)));
+    }
+
+    @Test
+    void desativacaoBarraQualquerToken() {
+        eventos.publishEvent(new UsuarioAlteradoEvent("davi@banco.com", 7L, false));
+
+        assertTrue(revogacoes.isRevogado(token("davi@banco.com", 7L)));
+    }
+
+    @Test
+    void revogacaoDeOutraInstanciaChegaPelaTabela() {
+        repository.save(new RevogacaoToken("bia@banco.com", 5L, LocalDateTime.now()));
+
+        revogacoes.sincronizar();
+
+        assertTrue(revogacoes.isRevogado(token("bia@banco.com", 4L)));
+        assertFalse(revogacoes.isRevogado(token("bia@banco.com", 5L)));
+    }
+
+    private static JwtService.TokenVerificado token(String email, Long versao) {
+        return new JwtService.TokenVerificado(email, "CLIENTE", versao, null, null, Instant.now().plusSeconds(60));
+    }
+}
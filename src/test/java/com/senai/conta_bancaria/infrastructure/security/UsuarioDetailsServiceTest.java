@@ -0,0 +1,55 @@
+package com.senai.conta_bancaria.infrastructure.security;
+
+import com.senai.conta_bancaria.domain.entity.Gerente;
+import com.senai.conta_bancaria.domain.enums.Role;
+import com.senai.conta_bancaria.domain.event.UsuarioAlteradoEvent;
+import com.senai.conta_bancaria.domain.repository.GerenteRepository;
+import com.senai.conta_bancaria.infrastructure.persistence.ContadorConsultas;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * O usuário vem do cache até um {@link UsuarioAlteradoEvent} do mesmo e-mail.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class UsuarioDetailsServiceTest {
+
+    @Autowired
+    private UsuarioDetailsService usuarioDetailsService;
+
+    @Autowired
+    private GerenteRepository gerenteRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventos;
+
+    @Test
+    void alteracaoDoUsuarioInvalidaAEntrada() {
+        Gerente gerente = gerenteRepository.save(Gerente.builder()
+                .nome("Gerente Cache")
+                .cpf("92000000001")
+                .email("gerente.cache@banco.com")
+                .senha("senha")
+                .ativo(true)
+                .role(Role.GERENTE)
+                .build());
+        assertTrue(usuarioDetailsService.loadUserByUsername(gerente.getEmail()).isEnabled());
+
+        ContadorConsultas.zerar();
+        usuarioDetailsService.loadUserByUsername(gerente.getEmail());
+        assertEquals(0, ContadorConsultas.total());
+
+        gerente.setAtivo(false);
+        eventos.publishEvent(UsuarioAlteradoEvent.de(gerenteRepository.save(gerente)));
+
+        assertFalse(usuarioDetailsService.loadUserByUsername(gerente.getEmail()).isEnabled());
+    }
+}
@@ -0,0 +1,205 @@
+package com.senai.conta_bancaria.interface_ui.controller;
+
+import com.senai.conta_bancaria.application.dto.ClienteAtualizadoDTO;
+import com.senai.conta_bancaria.application.dto.ModoQuenteDTO;
+import com.senai.conta_bancaria.application.dto.ValorSaqueDepositoDTO;
+import com.senai.conta_bancaria.application.service.ClienteService;
+import com.senai.conta_bancaria.application.service.ContaService;
+import com.senai.conta_bancaria.application.service.ContasDeTeste;
+import com.senai.conta_bancaria.domain.entity.Cliente;
+import com.senai.conta_bancaria.domain.entity.ContaCorrente;
+import com.senai.conta_bancaria.domain.enums.Role;
+import com.senai.conta_bancaria.domain.exception.EntidadeNaoEncontradaException;
+import com.senai.conta_bancaria.domain.repository.ClienteRepository;
+import com.senai.conta_bancaria.domain.repository.ContaRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * GET condicional de conta e de cliente: 200 com ETag, 304 com o mesmo ETag em
+ * {@code If-None-Match} e ETag novo depois de cada alteração, inclusive em sub-saldo de conta quente.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ConsultaCondicionalControllerTest {
+
+    @Autowired
+    private ContaController contaController;
+
+    @Autowired
+    private ClienteController clienteController;
+
+    @Autowired
+    private ContaService contaService;
+
+    @Autowired
+    private ClienteService clienteService;
+
+    @Autowired
+    private ContaRepository contaRepository;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private ContasDeTeste contas;
+
+    @BeforeEach
+    void autenticar() {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken("teste", null,
+                List.of(new SimpleGrantedAuthority("ROLE_GERENTE"), new SimpleGrantedAuthority("ROLE_CLIENTE"))));
+    }
+
+    @AfterEach
+    void limpar() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void contaSemMudancaResponde304() {
+        contas.criar("ETAG-1", "10.00");
+
+        String etag = etagDe(buscarConta("ETAG-1", null));
+        Resposta repetida = buscarConta("ETAG-1", etag);
+
+        assertEquals(HttpStatus.NOT_MODIFIED.value(), repetida.status());
+        assertNull(repetida.corpo());
+        assertEquals(etag, repetida.servlet().getHeader(HttpHeaders.ETAG));
+    }
+
+    @Test
+    void depositoMudaOETagDaConta() {
+        contas.criar("ETAG-2", "10.00");
+        String antes = etagDe(buscarConta("ETAG-2", null));
+
+        contaService.depositar("ETAG-2", new ValorSaqueDepositoDTO(new BigDecimal("5.00")), null);
+
+        Resposta depois = buscarConta("ETAG-2", antes);
+        assertEquals(HttpStatus.OK.value(), depois.status());
+        assertNotEquals(antes, etagDe(depois));
+    }
+
+    @Test
+    void creditoEmSubSaldoMudaOETagDaContaQuente() {
+        contas.criar("ETAG-QUENTE", "10.00");
+        contaService.definirModoQuente("ETAG-QUENTE", new ModoQuenteDTO(4));
+        String antes = etagDe(buscarConta("ETAG-QUENTE", null));
+        long versaoDaLinha = contaRepository.findByNumeroAndAtivaTrue("ETAG-QUENTE").orElseThrow().getVersao();
+
+        contaService.depositar("ETAG-QUENTE", new ValorSaqueDepositoDTO(new BigDecimal("5.00")), null);
+
+        // O crédito foi para um sub-saldo: a linha da conta não mudou, o ETag sim
+        assertEquals(versaoDaLinha, contaRepository.findByNumeroAndAtivaTrue("ETAG-QUENTE").orElseThrow().getVersao());
+        Resposta depois = buscarConta("ETAG-QUENTE", antes);
+        assertEquals(HttpStatus.OK.value(), depois.status());
+        assertNotEquals(antes, etagDe(depois));
+    }
+
+    @Test
+    void clienteSemMudancaResponde304() {
+        criarCliente("98000000001", "ETAG-CLI-1");
+
+        String etag = etagDe(buscarCliente("98000000001", null));
+        Resposta repetida = buscarCliente("98000000001", etag);
+
+        assertEquals(HttpStatus.NOT_MODIFIED.value(), repetida.status());
+        assertNull(repetida.corpo());
+    }
+
+    @Test
+    void versaoDoClienteMudaComOClienteEComSuasContas() {
+        criarCliente("98000000002", "ETAG-CLI-2");
+        String inicial = clienteService.versaoDoCliente("98000000002");
+        assertEquals(inicial, clienteService.versaoDoCliente("98000000002"));
+
+        contaService.depositar("ETAG-CLI-2", new ValorSaqueDepositoDTO(new BigDecimal("5.00")), null);
+        String depoisDoDeposito = clienteService.versaoDoCliente("98000000002");
+        assertNotEquals(inicial, depoisDoDeposito);
+
+        clienteService.atualizarCliente("98000000002", new ClienteAtualizadoDTO(
+                "Cliente Renomeado", "98000000002", "etag2@banco.com", "Senha@123"));
+        String depoisDaAtualizacao = clienteService.versaoDoCliente("98000000002");
+        assertNotEquals(depoisDoDeposito, depoisDaAtualizacao);
+
+        assertEquals(HttpStatus.OK.value(), buscarCliente("98000000002", inicial).status());
+        assertEquals(HttpStatus.NOT_MODIFIED.value(),
+                buscarCliente("98000000002", "\"" + depoisDaAtualizacao + "\"").status());
+    }
+
+    @Test
+    void versaoDeClienteInexistenteResponde404() {
+        assertThrows(EntidadeNaoEncontradaException.class, () -> clienteService.versaoDoCliente("98999999999"));
+    }
+
+    private Resposta buscarConta(String numero, String ifNoneMatch) {
+        return chamar(ifNoneMatch, requisicao -> contaController.buscarContaPorNumero(numero, requisicao));
+    }
+
+    private Resposta buscarCliente(String cpf, String ifNoneMatch) {
+        return chamar(ifNoneMatch, requisicao -> clienteController.buscarClienteAtivoPorCpf(cpf, requisicao));
+    }
+
+    // O controller devolve null quando o checkNotModified já escreveu o 304 na resposta
+    private static Resposta chamar(String ifNoneMatch, Function<ServletWebRequest, ResponseEntity<?>> chamada) {
+        MockHttpServletRequest requisicao = new MockHttpServletRequest("GET", "/");
+        if (ifNoneMatch != null) {
+            requisicao.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        MockHttpServletResponse resposta = new MockHttpServletResponse();
+
+        ResponseEntity<?> entidade = chamada.apply(new ServletWebRequest(requisicao, resposta));
+
+        if (entidade == null) {
+            return new Resposta(resposta.getStatus(), null, null, resposta);
+        }
+        return new Resposta(entidade.getStatusCode().value(), entidade.getHeaders().getETag(), entidade.getBody(),
+                resposta);
+    }
+
+    private static String etagDe(Resposta resposta) {
+        assertEquals(HttpStatus.OK.value(), resposta.status());
+        assertNotNull(resposta.etag());
+        return resposta.etag();
+    }
+
+    private record Resposta(int status, String etag, Object corpo, MockHttpServletResponse servlet) {
+    }
+
+    private void criarCliente(String cpf, String numeroConta) {
+        Cliente cliente = Cliente.builder()
+                .nome("Cliente Etag")
+                .cpf(cpf)
+                .email("etag" + cpf + "@banco.com")
+                .senha("senha")
+                .ativo(true)
+                .role(Role.CLIENTE)
+                .build();
+        ContaCorrente conta = ContasDeTeste.corrente(numeroConta, "10.00").build();
+        conta.setCliente(cliente);
+        cliente.setContas(List.of(conta));
+        clienteRepository.save(cliente);
+    }
+}